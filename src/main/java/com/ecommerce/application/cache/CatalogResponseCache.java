@@ -0,0 +1,144 @@
+package com.ecommerce.application.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Cache of fully encoded catalog list responses
+ * Stores the JSON bytes (and a gzip copy for larger bodies) per endpoint and parameters,
+ * so a hit skips the database, DTO mapping and serialization entirely
+ * Entries are tagged with the CatalogVersion they were built at; any catalog write
+ * bumps the version and makes every entry stale, while stock-only changes do so at most
+ * once per stock interval
+ * Bounded by max-entries in least-recently-used order, so stale entries and one-off
+ * deep pages age out while a new response is always cached
+ */
+@Component
+public class CatalogResponseCache {
+
+    private final Map<String, CachedResponse> entries;
+    private final CatalogVersion catalogVersion;
+    private final JsonMapper jsonMapper;
+    private final boolean enabled;
+    private final int maxEntries;
+    private final int gzipMinBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public CatalogResponseCache(CatalogVersion catalogVersion, JsonMapper jsonMapper, MeterRegistry meterRegistry,
+            @Value("${catalog.cache.response.enabled:true}") boolean enabled,
+            @Value("${catalog.cache.response.max-entries:1000}") int maxEntries,
+            @Value("${catalog.cache.response.gzip-min-bytes:1024}") int gzipMinBytes) {
+        this.catalogVersion = catalogVersion;
+        this.jsonMapper = jsonMapper;
+        this.enabled = enabled;
+        this.maxEntries = maxEntries;
+        this.gzipMinBytes = gzipMinBytes;
+        this.hits = Counter.builder("catalog.response.cache.requests").tag("result", "hit")
+                .description("Catalog response cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("catalog.response.cache.requests").tag("result", "miss")
+                .description("Catalog response cache lookups").register(meterRegistry);
+        this.evictions = Counter.builder("catalog.response.cache.evictions")
+                .description("Catalog responses evicted to stay within max-entries").register(meterRegistry);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                boolean evict = size() > CatalogResponseCache.this.maxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+        Gauge.builder("catalog.response.cache.size", this, CatalogResponseCache::size)
+                .description("Encoded catalog responses currently cached").register(meterRegistry);
+        Gauge.builder("catalog.response.cache.bytes", this, CatalogResponseCache::cachedBytes)
+                .description("Bytes held by cached catalog responses").register(meterRegistry);
+    }
+
+    /**
+     * Return the encoded response for the key, building it from the loader on a miss
+     * Exceptions from the loader propagate and nothing is cached
+     */
+    public CachedResponse get(String key, Supplier<Object> loader) {
+        long version = catalogVersion.current();
+        if (!enabled) {
+            return encode(loader.get(), version);
+        }
+
+        CachedResponse cached;
+        synchronized (entries) {
+            cached = entries.get(key);
+        }
+        if (cached != null && cached.version() == version) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        CachedResponse encoded = encode(loader.get(), version);
+        synchronized (entries) {
+            // never replace a response built at a newer version by a slower loader
+            CachedResponse newer = entries.get(key);
+            if (newer == null || newer.version() <= version) {
+                entries.put(key, encoded);
+            }
+        }
+        return encoded;
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Serialize once and keep a gzip copy when the body is large enough to benefit
+     */
+    private CachedResponse encode(Object body, long version) {
+        byte[] json = jsonMapper.writeValueAsBytes(body);
+        byte[] gzip = null;
+        if (json.length >= gzipMinBytes) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4);
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                out.write(json);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            gzip = buffer.toByteArray();
+        }
+        return new CachedResponse(json, gzip, version);
+    }
+
+    private long cachedBytes() {
+        long bytes = 0;
+        synchronized (entries) {
+            for (CachedResponse entry : entries.values()) {
+                bytes += entry.json().length + (entry.gzip() != null ? entry.gzip().length : 0);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Encoded response body; gzip is null for small bodies
+     */
+    public record CachedResponse(byte[] json, byte[] gzip, long version) {
+    }
+}
@@ -0,0 +1,567 @@
+package com.ecommerce.application.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import com.ecommerce.application.entity.dtos.CategoryResponseDto;
+import com.ecommerce.application.entity.dtos.ProductResponseDto;
+
+/**
+ * Immutable in-memory copy of the whole catalog
+ * Products are held in id order with a parallel long[] of ids, so lookups and id-ordered
+ * pages are binary searches on primitives; name order and per-category orders are int[]
+ * ordinal arrays into the same products
+ * Products live in fixed-size chunks, so a patch that only changes stock or price copies the
+ * touched chunks and shares every other array with the previous snapshot; inserts, deletes,
+ * renames and category moves remap ordinals and merge only the touched products into the orders
+ * Instances are never modified; with* methods return a patched copy
+ * The DTOs held here are shared with readers and must be treated as read-only
+ */
+public final class CatalogSnapshot {
+
+    private static final int CHUNK_SHIFT = 10;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private static final long DTO_OVERHEAD_BYTES = 160;
+    private static final long STRING_OVERHEAD_BYTES = 40;
+
+    private final long[] productIds;
+    private final ProductResponseDto[][] chunks;
+    private final int[] nameOrder;
+
+    private final long[] categoryIds;
+    private final CategoryResponseDto[] categories;
+    private final int[][] categoryIdOrders;
+    private final int[][] categoryNameOrders;
+
+    private final long estimatedBytes;
+
+    private CatalogSnapshot(long[] productIds, ProductResponseDto[][] chunks, int[] nameOrder, long[] categoryIds,
+            CategoryResponseDto[] categories, int[][] categoryIdOrders, int[][] categoryNameOrders,
+            long estimatedBytes) {
+        this.productIds = productIds;
+        this.chunks = chunks;
+        this.nameOrder = nameOrder;
+        this.categoryIds = categoryIds;
+        this.categories = categories;
+        this.categoryIdOrders = categoryIdOrders;
+        this.categoryNameOrders = categoryNameOrders;
+        this.estimatedBytes = estimatedBytes;
+    }
+
+    /**
+     * Build a snapshot from full product and category lists
+     */
+    public static CatalogSnapshot of(Collection<ProductResponseDto> products, Collection<CategoryResponseDto> categories) {
+        ProductResponseDto[] sorted = products.toArray(ProductResponseDto[]::new);
+        Arrays.sort(sorted, Comparator.comparingLong(ProductResponseDto::getId));
+        long[] productIds = new long[sorted.length];
+        long bytes = 8L * sorted.length;
+        for (int i = 0; i < sorted.length; i++) {
+            productIds[i] = sorted[i].getId();
+            bytes += productBytes(sorted[i]);
+        }
+        ProductResponseDto[][] chunks = toChunks(sorted);
+
+        int[] nameOrder = identity(sorted.length);
+        sortByName(nameOrder, chunks);
+
+        CategoryResponseDto[] sortedCategories = sortCategories(categories);
+        long[] categoryIds = categoryIds(sortedCategories);
+        int[][] categoryIdOrders = new int[sortedCategories.length][];
+        int[][] categoryNameOrders = new int[sortedCategories.length][];
+        for (int c = 0; c < sortedCategories.length; c++) {
+            categoryIdOrders[c] = ordinalsInCategory(chunks, sorted.length, categoryIds[c]);
+            categoryNameOrders[c] = categoryIdOrders[c].clone();
+            sortByName(categoryNameOrders[c], chunks);
+        }
+        return new CatalogSnapshot(productIds, chunks, nameOrder, categoryIds, sortedCategories, categoryIdOrders,
+                categoryNameOrders, bytes + categoryBytes(sortedCategories));
+    }
+
+    /**
+     * Copy with the given products inserted or replaced and the other ids removed
+     * A product is only replaced by an equal or newer version, so late patches cannot roll it back
+     * @param ids every id that was refreshed; those missing from products were deleted
+     */
+    public CatalogSnapshot withProducts(Collection<ProductResponseDto> refreshed, Collection<Long> ids) {
+        int size = productIds.length;
+        long[] refreshedIds = new long[refreshed.size()];
+        int refreshedCount = 0;
+        for (ProductResponseDto product : refreshed) {
+            refreshedIds[refreshedCount++] = product.getId();
+        }
+        Arrays.sort(refreshedIds);
+
+        // ordinals whose product keeps its place, with the product to put there
+        int[] replacedAt = new int[refreshedIds.length];
+        ProductResponseDto[] replacements = new ProductResponseDto[refreshedIds.length];
+        int replacedCount = 0;
+        // ordinals dropped from every order, and products entering the orders
+        boolean[] dropped = null;
+        List<ProductResponseDto> inserted = new ArrayList<>();
+        long bytes = estimatedBytes;
+
+        for (ProductResponseDto product : refreshed) {
+            int index = Arrays.binarySearch(productIds, product.getId());
+            if (index < 0) {
+                inserted.add(product);
+                bytes += 8L + productBytes(product);
+                continue;
+            }
+            ProductResponseDto current = product(index);
+            if (isOlder(product, current)) {
+                continue;
+            }
+            bytes += productBytes(product) - productBytes(current);
+            if (Objects.equals(product.getName(), current.getName())
+                    && Objects.equals(product.getCategoryId(), current.getCategoryId())) {
+                replacedAt[replacedCount] = index;
+                replacements[replacedCount++] = product;
+            } else {
+                dropped = drop(dropped, size, index);
+                inserted.add(product);
+            }
+        }
+        for (Long id : ids) {
+            int index = Arrays.binarySearch(productIds, id);
+            if (index >= 0 && Arrays.binarySearch(refreshedIds, id) < 0 && (dropped == null || !dropped[index])) {
+                dropped = drop(dropped, size, index);
+                bytes -= 8L + productBytes(product(index));
+            }
+        }
+
+        if (dropped == null && inserted.isEmpty()) {
+            if (replacedCount == 0) {
+                return this;
+            }
+            // stock or price only: copy the touched chunks, share the ids and every order
+            ProductResponseDto[][] patched = chunks.clone();
+            boolean[] copied = new boolean[chunks.length];
+            for (int i = 0; i < replacedCount; i++) {
+                int chunk = replacedAt[i] >>> CHUNK_SHIFT;
+                if (!copied[chunk]) {
+                    patched[chunk] = patched[chunk].clone();
+                    copied[chunk] = true;
+                }
+                patched[chunk][replacedAt[i] & CHUNK_MASK] = replacements[i];
+            }
+            return new CatalogSnapshot(productIds, patched, nameOrder, categoryIds, categories, categoryIdOrders,
+                    categoryNameOrders, bytes);
+        }
+
+        ProductResponseDto[] flat = new ProductResponseDto[size];
+        for (int i = 0; i < size; i++) {
+            flat[i] = product(i);
+        }
+        for (int i = 0; i < replacedCount; i++) {
+            flat[replacedAt[i]] = replacements[i];
+        }
+        return merge(flat, dropped != null ? dropped : new boolean[size], inserted, bytes);
+    }
+
+    /**
+     * Copy with the category list replaced; product category names follow the new names
+     */
+    public CatalogSnapshot withCategories(Collection<CategoryResponseDto> refreshed) {
+        Map<Long, String> names = new HashMap<>();
+        for (CategoryResponseDto category : refreshed) {
+            names.put(category.getId(), category.getName());
+        }
+
+        int size = productIds.length;
+        ProductResponseDto[][] renamed = chunks.clone();
+        boolean[] copied = new boolean[chunks.length];
+        for (int i = 0; i < size; i++) {
+            ProductResponseDto product = product(i);
+            String name = names.get(product.getCategoryId());
+            if (name != null && !name.equals(product.getCategoryName())) {
+                int chunk = i >>> CHUNK_SHIFT;
+                if (!copied[chunk]) {
+                    renamed[chunk] = renamed[chunk].clone();
+                    copied[chunk] = true;
+                }
+                renamed[chunk][i & CHUNK_MASK] = withCategoryName(product, name);
+            }
+        }
+
+        CategoryResponseDto[] sortedCategories = sortCategories(refreshed);
+        long[] newCategoryIds = categoryIds(sortedCategories);
+        int[][] idOrders = new int[sortedCategories.length][];
+        int[][] nameOrders = new int[sortedCategories.length][];
+        for (int c = 0; c < sortedCategories.length; c++) {
+            int previous = Arrays.binarySearch(categoryIds, newCategoryIds[c]);
+            if (previous >= 0) {
+                idOrders[c] = categoryIdOrders[previous];
+                nameOrders[c] = categoryNameOrders[previous];
+            } else {
+                idOrders[c] = ordinalsInCategory(renamed, size, newCategoryIds[c]);
+                nameOrders[c] = idOrders[c].clone();
+                sortByName(nameOrders[c], renamed);
+            }
+        }
+        long bytes = estimatedBytes - categoryBytes(categories) + categoryBytes(sortedCategories);
+        return new CatalogSnapshot(productIds, renamed, nameOrder, newCategoryIds, sortedCategories, idOrders,
+                nameOrders, bytes);
+    }
+
+    /**
+     * Product by id, or null
+     */
+    public ProductResponseDto product(long id) {
+        int index = Arrays.binarySearch(productIds, id);
+        return index >= 0 ? product(index) : null;
+    }
+
+    public boolean hasCategory(long categoryId) {
+        return Arrays.binarySearch(categoryIds, categoryId) >= 0;
+    }
+
+    /**
+     * Up to count products with id greater than afterId, in id order
+     * @param categoryId optional category restriction
+     */
+    public List<ProductResponseDto> pageById(Long categoryId, long afterId, int count) {
+        List<ProductResponseDto> page = new ArrayList<>(count);
+        if (categoryId == null) {
+            int from = upperBound(productIds, afterId);
+            for (int i = from; i < productIds.length && page.size() < count; i++) {
+                page.add(product(i));
+            }
+            return page;
+        }
+
+        int c = Arrays.binarySearch(categoryIds, categoryId);
+        if (c < 0) {
+            return page;
+        }
+        int[] order = categoryIdOrders[c];
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (productIds[order[mid]] <= afterId) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < order.length && page.size() < count; i++) {
+            page.add(product(order[i]));
+        }
+        return page;
+    }
+
+    /**
+     * Up to count products after (afterName, afterId), in name then id order
+     * @param categoryId optional category restriction
+     */
+    public List<ProductResponseDto> pageByName(Long categoryId, String afterName, long afterId, int count) {
+        List<ProductResponseDto> page = new ArrayList<>(count);
+        int[] order;
+        if (categoryId == null) {
+            order = nameOrder;
+        } else {
+            int c = Arrays.binarySearch(categoryIds, categoryId);
+            if (c < 0) {
+                return page;
+            }
+            order = categoryNameOrders[c];
+        }
+
+        int low = 0;
+        int high = order.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            ProductResponseDto product = product(order[mid]);
+            int cmp = product.getName().compareTo(afterName);
+            if (cmp < 0 || (cmp == 0 && product.getId() <= afterId)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        for (int i = low; i < order.length && page.size() < count; i++) {
+            page.add(product(order[i]));
+        }
+        return page;
+    }
+
+    public int productCount() {
+        return productIds.length;
+    }
+
+    public int categoryCount() {
+        return categories.length;
+    }
+
+    /**
+     * Approximate heap footprint of the snapshot, DTOs and strings included
+     */
+    public long estimatedBytes() {
+        return estimatedBytes;
+    }
+
+    private ProductResponseDto product(int ordinal) {
+        return chunks[ordinal >>> CHUNK_SHIFT][ordinal & CHUNK_MASK];
+    }
+
+    /**
+     * Rebuild the id order without the dropped ordinals and with the inserted products,
+     * then carry every ordinal array over to the new ordinals and merge in the inserted ones
+     * Only the inserted products are sorted; survivors keep their relative order
+     */
+    private CatalogSnapshot merge(ProductResponseDto[] flat, boolean[] dropped, List<ProductResponseDto> inserted,
+            long bytes) {
+        ProductResponseDto[] added = inserted.toArray(ProductResponseDto[]::new);
+        Arrays.sort(added, Comparator.comparingLong(ProductResponseDto::getId));
+
+        int size = flat.length;
+        int survivors = 0;
+        for (int i = 0; i < size; i++) {
+            if (!dropped[i]) {
+                survivors++;
+            }
+        }
+        int newSize = survivors + added.length;
+        long[] newIds = new long[newSize];
+        ProductResponseDto[] merged = new ProductResponseDto[newSize];
+        int[] oldToNew = new int[size];
+        int[] addedOrdinals = new int[added.length];
+
+        int i = 0;
+        int a = 0;
+        int n = 0;
+        while (i < size || a < added.length) {
+            if (i < size && dropped[i]) {
+                oldToNew[i++] = -1;
+            } else if (a == added.length || (i < size && productIds[i] < added[a].getId())) {
+                oldToNew[i] = n;
+                newIds[n] = productIds[i];
+                merged[n++] = flat[i++];
+            } else {
+                addedOrdinals[a] = n;
+                newIds[n] = added[a].getId();
+                merged[n++] = added[a++];
+            }
+        }
+        ProductResponseDto[][] newChunks = toChunks(merged);
+
+        int[] addedByName = addedOrdinals.clone();
+        sortByName(addedByName, newChunks);
+        int[] newNameOrder = mergeByName(remap(nameOrder, oldToNew), addedByName, newChunks);
+
+        int[][] idOrders = new int[categories.length][];
+        int[][] nameOrders = new int[categories.length][];
+        for (int c = 0; c < categories.length; c++) {
+            int[] addedToCategory = inCategory(addedOrdinals, newChunks, categoryIds[c]);
+            int[] addedToCategoryByName = inCategory(addedByName, newChunks, categoryIds[c]);
+            idOrders[c] = mergeAscending(remap(categoryIdOrders[c], oldToNew), addedToCategory);
+            nameOrders[c] = mergeByName(remap(categoryNameOrders[c], oldToNew), addedToCategoryByName, newChunks);
+        }
+        return new CatalogSnapshot(newIds, newChunks, newNameOrder, categoryIds, categories, idOrders, nameOrders,
+                bytes);
+    }
+
+    private static boolean[] drop(boolean[] dropped, int size, int index) {
+        boolean[] marks = dropped != null ? dropped : new boolean[size];
+        marks[index] = true;
+        return marks;
+    }
+
+    /**
+     * Map ordinals through oldToNew, leaving out dropped ones; relative order is kept
+     */
+    private static int[] remap(int[] ordinals, int[] oldToNew) {
+        int[] remapped = new int[ordinals.length];
+        int count = 0;
+        for (int ordinal : ordinals) {
+            int mapped = oldToNew[ordinal];
+            if (mapped >= 0) {
+                remapped[count++] = mapped;
+            }
+        }
+        return count == remapped.length ? remapped : Arrays.copyOf(remapped, count);
+    }
+
+    private static int[] inCategory(int[] ordinals, ProductResponseDto[][] chunks, long categoryId) {
+        int[] selected = new int[ordinals.length];
+        int count = 0;
+        for (int ordinal : ordinals) {
+            if (at(chunks, ordinal).getCategoryId() == categoryId) {
+                selected[count++] = ordinal;
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    private static int[] ordinalsInCategory(ProductResponseDto[][] chunks, int size, long categoryId) {
+        int[] selected = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (at(chunks, i).getCategoryId() == categoryId) {
+                selected[count++] = i;
+            }
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    /**
+     * Merge two ascending ordinal arrays; ordinal order is id order
+     */
+    private static int[] mergeAscending(int[] left, int[] right) {
+        if (right.length == 0) {
+            return left;
+        }
+        int[] merged = new int[left.length + right.length];
+        int l = 0;
+        int r = 0;
+        for (int m = 0; m < merged.length; m++) {
+            merged[m] = r == right.length || (l < left.length && left[l] < right[r]) ? left[l++] : right[r++];
+        }
+        return merged;
+    }
+
+    private static int[] mergeByName(int[] left, int[] right, ProductResponseDto[][] chunks) {
+        if (right.length == 0) {
+            return left;
+        }
+        int[] merged = new int[left.length + right.length];
+        int l = 0;
+        int r = 0;
+        for (int m = 0; m < merged.length; m++) {
+            merged[m] = r == right.length || (l < left.length && compareByName(chunks, left[l], right[r]) < 0)
+                    ? left[l++] : right[r++];
+        }
+        return merged;
+    }
+
+    /**
+     * Sort ordinals by product name then id without boxing: merge sort on int[]
+     */
+    private static void sortByName(int[] ordinals, ProductResponseDto[][] chunks) {
+        if (ordinals.length > 1) {
+            sortByName(ordinals, ordinals.clone(), 0, ordinals.length, chunks);
+        }
+    }
+
+    private static void sortByName(int[] target, int[] source, int from, int to, ProductResponseDto[][] chunks) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int ordinal = target[i];
+                int j = i - 1;
+                while (j >= from && compareByName(chunks, target[j], ordinal) > 0) {
+                    target[j + 1] = target[j];
+                    j--;
+                }
+                target[j + 1] = ordinal;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        // source and target swap roles on each level, so no extra copying is needed
+        sortByName(source, target, from, mid, chunks);
+        sortByName(source, target, mid, to, chunks);
+        int l = from;
+        int r = mid;
+        for (int m = from; m < to; m++) {
+            target[m] = r == to || (l < mid && compareByName(chunks, source[l], source[r]) <= 0)
+                    ? source[l++] : source[r++];
+        }
+    }
+
+    private static int compareByName(ProductResponseDto[][] chunks, int left, int right) {
+        ProductResponseDto a = at(chunks, left);
+        ProductResponseDto b = at(chunks, right);
+        int cmp = a.getName().compareTo(b.getName());
+        return cmp != 0 ? cmp : Long.compare(a.getId(), b.getId());
+    }
+
+    private static ProductResponseDto at(ProductResponseDto[][] chunks, int ordinal) {
+        return chunks[ordinal >>> CHUNK_SHIFT][ordinal & CHUNK_MASK];
+    }
+
+    private static ProductResponseDto[][] toChunks(ProductResponseDto[] flat) {
+        ProductResponseDto[][] chunks = new ProductResponseDto[(flat.length + CHUNK_MASK) >>> CHUNK_SHIFT][];
+        for (int c = 0; c < chunks.length; c++) {
+            int from = c << CHUNK_SHIFT;
+            chunks[c] = Arrays.copyOfRange(flat, from, Math.min(from + CHUNK_SIZE, flat.length));
+        }
+        return chunks;
+    }
+
+    private static int[] identity(int size) {
+        int[] ordinals = new int[size];
+        for (int i = 0; i < size; i++) {
+            ordinals[i] = i;
+        }
+        return ordinals;
+    }
+
+    private static CategoryResponseDto[] sortCategories(Collection<CategoryResponseDto> categories) {
+        CategoryResponseDto[] sorted = categories.toArray(CategoryResponseDto[]::new);
+        Arrays.sort(sorted, Comparator.comparingLong(CategoryResponseDto::getId));
+        return sorted;
+    }
+
+    private static long[] categoryIds(CategoryResponseDto[] categories) {
+        long[] ids = new long[categories.length];
+        for (int i = 0; i < categories.length; i++) {
+            ids[i] = categories[i].getId();
+        }
+        return ids;
+    }
+
+    /**
+     * Product DTO and strings, its chunk slot, and its name order and category order entries
+     * The id slot is counted by callers
+     */
+    private static long productBytes(ProductResponseDto product) {
+        return DTO_OVERHEAD_BYTES + stringBytes(product.getName()) + stringBytes(product.getDescription()) + 8L + 12L;
+    }
+
+    private static long categoryBytes(CategoryResponseDto[] categories) {
+        long bytes = 16L * categories.length;
+        for (CategoryResponseDto category : categories) {
+            bytes += DTO_OVERHEAD_BYTES + stringBytes(category.getName()) + stringBytes(category.getDescription());
+        }
+        return bytes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : STRING_OVERHEAD_BYTES + value.length();
+    }
+
+    private static int upperBound(long[] sorted, long key) {
+        int index = Arrays.binarySearch(sorted, key);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    private static boolean isOlder(ProductResponseDto candidate, ProductResponseDto current) {
+        return candidate.getVersion() != null && current.getVersion() != null
+                && candidate.getVersion() < current.getVersion();
+    }
+
+    private static ProductResponseDto withCategoryName(ProductResponseDto product, String categoryName) {
+        return ProductResponseDto.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .stock(product.getStock())
+                .categoryId(product.getCategoryId())
+                .categoryName(categoryName)
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .version(product.getVersion())
+                .build();
+    }
+}
@@ -0,0 +1,198 @@
+package com.ecommerce.application.cache;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Publishes the current CatalogSnapshot when catalog.snapshot.enabled is set
+ * Readers take the volatile reference without locking; a single patcher thread loads
+ * each change, patches a copy and publishes it in one assignment
+ * Writers only queue their loader after commit, so they never wait on a reload or hold a
+ * second pool connection; the queue keeps loads in commit order, so a slow load can never
+ * overwrite a later one, for example resurrecting a product deleted meanwhile
+ * The catalog version advances again once a patch is published, so a list response built
+ * from the snapshot between the commit and the patch is never cached or tagged as current
+ * A failed patch drops the snapshot and rebuilds it rather than serve stale products
+ * While current() is null, before the first build or after a failure, callers use the JPA path
+ */
+@Slf4j
+@Component
+public class CatalogSnapshotStore {
+
+    private final boolean enabled;
+    private final CatalogVersion catalogVersion;
+    private final TransactionTemplate freshReadTransaction;
+    private final ExecutorService patcher;
+
+    private volatile CatalogSnapshot snapshot;
+    // loader of the last full build, reused after a failure; only used on the patcher thread
+    private Supplier<CatalogSnapshot> fullLoader;
+
+    public CatalogSnapshotStore(PlatformTransactionManager transactionManager, CatalogVersion catalogVersion,
+            MeterRegistry meterRegistry, @Value("${catalog.snapshot.enabled:false}") boolean enabled) {
+        this.enabled = enabled;
+        this.catalogVersion = catalogVersion;
+        this.freshReadTransaction = new TransactionTemplate(transactionManager);
+        this.freshReadTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.freshReadTransaction.setReadOnly(true);
+        this.patcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "catalog-snapshot-patcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("catalog.snapshot.products", this, store -> store.metric(CatalogSnapshot::productCount))
+                .description("Products in the published catalog snapshot").register(meterRegistry);
+        Gauge.builder("catalog.snapshot.bytes", this, store -> store.metric(CatalogSnapshot::estimatedBytes))
+                .description("Estimated heap size of the published catalog snapshot").register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The published snapshot, or null when disabled or not built yet
+     */
+    public CatalogSnapshot current() {
+        return snapshot;
+    }
+
+    /**
+     * Build and publish a full snapshot and wait for it; the loader runs in a read-only transaction
+     * The build takes its turn on the patcher like any patch: patches queued before it are
+     * already visible to its read, and patches that commit while it runs stay queued behind
+     * it and are applied in order once it is published
+     */
+    public void rebuild(Supplier<CatalogSnapshot> loader) {
+        if (!enabled) {
+            return;
+        }
+        Future<?> build = patcher.submit(() -> build(loader));
+        try {
+            build.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Catalog snapshot build failed", e.getCause());
+        }
+    }
+
+    /**
+     * Patch the snapshot once the surrounding transaction commits, or now if there is none
+     * The loader is queued to the patcher, which reads committed data in its own read-only
+     * transaction, applies the returned patch and then advances the catalog version; the
+     * caller does not wait for it
+     */
+    public void patchAfterCommit(Supplier<UnaryOperator<CatalogSnapshot>> loader) {
+        queueAfterCommit(loader, catalogVersion::bump);
+    }
+
+    /**
+     * Like patchAfterCommit for stock-only changes, which advance the stock version instead
+     */
+    public void patchStockAfterCommit(Supplier<UnaryOperator<CatalogSnapshot>> loader) {
+        queueAfterCommit(loader, catalogVersion::bumpStock);
+    }
+
+    private void queueAfterCommit(Supplier<UnaryOperator<CatalogSnapshot>> loader, Runnable published) {
+        if (!enabled) {
+            return;
+        }
+        Runnable patch = () -> patcher.execute(() -> apply(loader, published));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    patch.run();
+                }
+            });
+        } else {
+            patch.run();
+        }
+    }
+
+    /**
+     * Wait until every patch queued so far has been applied
+     */
+    void awaitPatches() throws InterruptedException, ExecutionException {
+        patcher.submit(() -> { }).get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        patcher.shutdownNow();
+    }
+
+    private void build(Supplier<CatalogSnapshot> loader) {
+        fullLoader = loader;
+        long startNanos = System.nanoTime();
+        CatalogSnapshot built = freshReadTransaction.execute(status -> loader.get());
+        snapshot = built;
+        catalogVersion.bump();
+        log.info("Catalog snapshot built with {} products and {} categories (~{} KB) in {} ms",
+                built.productCount(), built.categoryCount(), built.estimatedBytes() / 1024,
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private void apply(Supplier<UnaryOperator<CatalogSnapshot>> loader, Runnable published) {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            // not built yet, or dropped after a failure; a build now reads this change too
+            if (fullLoader != null) {
+                tryRebuild();
+            }
+            return;
+        }
+        try {
+            UnaryOperator<CatalogSnapshot> operator = freshReadTransaction.execute(status -> loader.get());
+            snapshot = operator.apply(current);
+            published.run();
+        } catch (RuntimeException e) {
+            log.error("Catalog snapshot patch failed, rebuilding the snapshot", e);
+            snapshot = null;
+            // responses built from the dropped snapshot must not stay current
+            catalogVersion.bump();
+            tryRebuild();
+        }
+    }
+
+    /**
+     * Rebuild with the last full loader; on failure reads stay on the JPA path and the
+     * next patch tries again
+     */
+    private void tryRebuild() {
+        try {
+            build(fullLoader);
+        } catch (RuntimeException e) {
+            log.error("Catalog snapshot rebuild failed, serving from the database until it succeeds", e);
+        }
+    }
+
+    private double metric(ToLongFunction<CatalogSnapshot> value) {
+        CatalogSnapshot current = snapshot;
+        return current == null ? 0 : value.applyAsLong(current);
+    }
+}
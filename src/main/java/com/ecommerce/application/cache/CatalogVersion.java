@@ -0,0 +1,104 @@
+package com.ecommerce.application.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Catalog-wide version counter backing ETags of catalog list endpoints
+ * Every product or category write bumps it immediately and again after commit, so a
+ * response built from pre-commit data can never carry the post-commit version
+ * Stock-only changes are versioned separately and folded into the catalog version at most
+ * once per catalog.version.stock-interval-ms, so a stream of orders does not invalidate every
+ * list ETag and cached list response; stock in list responses may lag by up to that interval,
+ * so product list tags are weak unless the interval is 0
+ * Readers must take the ETag before loading data
+ */
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+    private final AtomicLong stockVersion = new AtomicLong();
+    private final long stockIntervalNanos;
+
+    private volatile long foldedStockVersion;
+    private volatile long lastFoldNanos;
+
+    public CatalogVersion(@Value("${catalog.version.stock-interval-ms:5000}") long stockIntervalMillis) {
+        this.stockIntervalNanos = stockIntervalMillis * 1_000_000;
+        this.lastFoldNanos = System.nanoTime() - stockIntervalNanos;
+    }
+
+    /**
+     * Record a catalog change
+     */
+    public void bump() {
+        version.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Record a stock-only change once the surrounding transaction commits, or now if there is none
+     */
+    public void bumpStock() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    stockVersion.incrementAndGet();
+                }
+            });
+        } else {
+            stockVersion.incrementAndGet();
+        }
+    }
+
+    public long current() {
+        foldStock();
+        return version.get();
+    }
+
+    /**
+     * True if stock changes may not have advanced the catalog version yet
+     */
+    public boolean stockLags() {
+        return stockIntervalNanos > 0;
+    }
+
+    /**
+     * ETag for catalog list responses; the epoch keeps tags unique across restarts
+     */
+    public String etag() {
+        return "catalog-" + epoch + "-" + current();
+    }
+
+    /**
+     * Advance the catalog version for committed stock changes, unless it already did so
+     * within the stock interval
+     */
+    private void foldStock() {
+        if (stockVersion.get() == foldedStockVersion || System.nanoTime() - lastFoldNanos < stockIntervalNanos) {
+            return;
+        }
+        synchronized (this) {
+            long stock = stockVersion.get();
+            long now = System.nanoTime();
+            if (stock != foldedStockVersion && now - lastFoldNanos >= stockIntervalNanos) {
+                foldedStockVersion = stock;
+                lastFoldNanos = now;
+                version.incrementAndGet();
+            }
+        }
+    }
+}
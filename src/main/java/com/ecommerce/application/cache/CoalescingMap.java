@@ -0,0 +1,144 @@
+package com.ecommerce.application.cache;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.micrometer.core.instrument.Counter;
+
+/**
+ * Concurrent map of loads bounded by size and TTL, shared by the in-memory caches
+ * The first caller to claim a missing or expired key loads it; concurrent callers get the
+ * same entry and wait on its future
+ * Once over capacity one thread sweeps down to 90% of the bound, dropping expired entries
+ * first, so inserts at capacity do not rescan the map each time; loads still in flight are
+ * never dropped, so their waiters keep sharing them
+ */
+final class CoalescingMap<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final int maxSize;
+    private final int lowWaterMark;
+    private final long ttlNanos;
+    private final Counter evictions;
+
+    CoalescingMap(int maxSize, long ttlNanos, Counter evictions) {
+        this.maxSize = maxSize;
+        this.lowWaterMark = maxSize - Math.max(1, maxSize / 10);
+        this.ttlNanos = ttlNanos;
+        this.evictions = evictions;
+    }
+
+    /**
+     * Claim a key: its live entry, or a new one this caller must settle with complete() or fail()
+     * @param fingerprint identifies the request behind a new entry, or null if unused
+     */
+    Claim<V> claim(K key, String fingerprint) {
+        while (true) {
+            long now = System.nanoTime();
+            Entry<V> current = entries.get(key);
+            if (current != null && !current.isExpiredAt(now)) {
+                return new Claim<>(current, false);
+            }
+
+            Entry<V> loading = new Entry<>(fingerprint, new CompletableFuture<>(), now + ttlNanos);
+            boolean won = current == null
+                    ? entries.putIfAbsent(key, loading) == null
+                    : entries.replace(key, current, loading);
+            if (!won) {
+                continue;
+            }
+            if (current != null) {
+                evictions.increment();
+            }
+            makeRoom(now);
+            return new Claim<>(loading, true);
+        }
+    }
+
+    /**
+     * Hand the loaded value to the waiters; it is kept for later callers only if keep is true
+     */
+    void complete(K key, Entry<V> entry, V value, boolean keep) {
+        if (!keep) {
+            entries.remove(key, entry);
+        }
+        entry.value().complete(value);
+    }
+
+    /**
+     * Forget a failed load and rethrow its error to the waiters
+     */
+    void fail(K key, Entry<V> entry, RuntimeException error) {
+        entries.remove(key, entry);
+        entry.value().completeExceptionally(error);
+    }
+
+    void remove(K key) {
+        entries.remove(key);
+    }
+
+    void clear() {
+        entries.clear();
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void makeRoom(long now) {
+        if (entries.size() <= maxSize || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            entries.values().removeIf(entry -> {
+                boolean expired = entry.isExpiredAt(now) && entry.value().isDone();
+                if (expired) {
+                    evictions.increment();
+                }
+                return expired;
+            });
+
+            Iterator<Entry<V>> values = entries.values().iterator();
+            while (entries.size() > lowWaterMark && values.hasNext()) {
+                if (values.next().value().isDone()) {
+                    values.remove();
+                    evictions.increment();
+                }
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * Entry for a claimed key; loader is true if this caller installed it and must settle it
+     */
+    record Claim<V>(Entry<V> entry, boolean loader) {
+    }
+
+    record Entry<V>(String fingerprint, CompletableFuture<V> value, long expiresAtNanos) {
+
+        boolean isExpiredAt(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+
+        /**
+         * Wait for the value, rethrowing a failed load's own exception
+         */
+        V join() {
+            try {
+                return value.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.application.cache;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.application.entity.dtos.OrderResponseDto;
+import com.ecommerce.application.exception.BadRequestException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-memory store of orders created under an Idempotency-Key
+ * Bounded by size and TTL; the first request for a key runs, concurrent duplicates wait
+ * for its result and later duplicates get the stored order back without any work
+ * Failed requests are not remembered, so the client can retry them
+ */
+@Component
+public class IdempotencyKeyStore {
+
+    private final CoalescingMap<String, OrderResponseDto> entries;
+
+    private final Counter hits;
+    private final Counter waits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public IdempotencyKeyStore(MeterRegistry meterRegistry,
+            @Value("${orders.idempotency.max-size:10000}") int maxSize,
+            @Value("${orders.idempotency.ttl-seconds:3600}") long ttlSeconds) {
+        this.hits = Counter.builder("orders.idempotency.requests").tag("result", "hit")
+                .description("Order submissions with an Idempotency-Key").register(meterRegistry);
+        this.waits = Counter.builder("orders.idempotency.requests").tag("result", "in_flight")
+                .description("Order submissions with an Idempotency-Key").register(meterRegistry);
+        this.misses = Counter.builder("orders.idempotency.requests").tag("result", "miss")
+                .description("Order submissions with an Idempotency-Key").register(meterRegistry);
+        this.evictions = Counter.builder("orders.idempotency.evictions")
+                .description("Idempotency keys removed from memory by size or TTL").register(meterRegistry);
+        this.entries = new CoalescingMap<>(maxSize, ttlSeconds * 1_000_000_000L, evictions);
+        Gauge.builder("orders.idempotency.size", entries, CoalescingMap::size)
+                .description("Idempotency keys currently held in memory").register(meterRegistry);
+    }
+
+    /**
+     * Return the order stored for the key, running the loader if the key is new
+     * A duplicate arriving while the first request is still running waits for its result
+     * @throws BadRequestException if the key was used for a different request
+     */
+    public Result get(String key, String requestHash, Supplier<Result> loader) {
+        CoalescingMap.Claim<OrderResponseDto> claim = entries.claim(key, requestHash);
+        if (!claim.loader()) {
+            if (!claim.entry().fingerprint().equals(requestHash)) {
+                throw new BadRequestException("Idempotency-Key", "Already used for a different request");
+            }
+            (claim.entry().value().isDone() ? hits : waits).increment();
+            return new Result(claim.entry().join(), true);
+        }
+
+        misses.increment();
+        try {
+            Result result = loader.get();
+            entries.complete(key, claim.entry(), result.order(), true);
+            return result;
+        } catch (RuntimeException e) {
+            // failed requests are forgotten so the client can retry them
+            entries.fail(key, claim.entry(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Order for an idempotent submission; replayed is true when it was not created by this call
+     */
+    public record Result(OrderResponseDto order, boolean replayed) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.application.cache;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.ecommerce.application.entity.dtos.ProductResponseDto;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Read-through cache of product snapshots
+ * Bounded by size and TTL; concurrent misses on the same product share a single load
+ * Invalidations run immediately and again after the surrounding transaction commits
+ * Each load is tagged with the invalidation generation of its product at load start;
+ * a load that finishes after an invalidation is handed to its waiters but not cached
+ */
+@Component
+public class ProductCache {
+
+    private static final int GENERATION_STRIPES = 64;
+
+    private final CoalescingMap<Long, ProductResponseDto> entries;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    private final Timer loadTimer;
+
+    public ProductCache(MeterRegistry meterRegistry,
+            @Value("${catalog.cache.product.max-size:10000}") int maxSize,
+            @Value("${catalog.cache.product.ttl-seconds:300}") long ttlSeconds) {
+        this.hits = Counter.builder("product.cache.requests").tag("result", "hit")
+                .description("Product cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("product.cache.requests").tag("result", "miss")
+                .description("Product cache lookups").register(meterRegistry);
+        this.evictions = Counter.builder("product.cache.evictions")
+                .description("Products removed from the cache by size or TTL").register(meterRegistry);
+        this.loadTimer = Timer.builder("product.cache.load")
+                .description("Time spent loading products on a cache miss")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.entries = new CoalescingMap<>(maxSize, ttlSeconds * 1_000_000_000L, evictions);
+        Gauge.builder("product.cache.size", entries, CoalescingMap::size)
+                .description("Products currently cached").register(meterRegistry);
+        Gauge.builder("product.cache.hit.ratio", this, ProductCache::hitRatio)
+                .description("Share of lookups served from the cache").register(meterRegistry);
+    }
+
+    /**
+     * Return the cached product, loading it on a miss
+     * Only one caller loads a given product at a time; others wait for its result
+     */
+    public ProductResponseDto get(Long id, Function<Long, ProductResponseDto> loader) {
+        long generation = generations.get(stripe(id));
+        CoalescingMap.Claim<ProductResponseDto> claim = entries.claim(id, null);
+        if (!claim.loader()) {
+            hits.increment();
+            return claim.entry().join();
+        }
+
+        misses.increment();
+        try {
+            ProductResponseDto value = loadTimer.record(() -> loader.apply(id));
+            // if invalidated while loading, the value may predate the change
+            entries.complete(id, claim.entry(), value, generations.get(stripe(id)) == generation);
+            return value;
+        } catch (RuntimeException e) {
+            entries.fail(id, claim.entry(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Drop one product, now and once the current transaction commits
+     */
+    public void invalidate(Long id) {
+        evict(id);
+        afterCommit(() -> evict(id));
+    }
+
+    /**
+     * Drop several products, now and once the current transaction commits
+     */
+    public void invalidate(Collection<Long> ids) {
+        ids.forEach(this::evict);
+        afterCommit(() -> ids.forEach(this::evict));
+    }
+
+    /**
+     * Drop every product, e.g. when a category rename changes many snapshots
+     */
+    public void invalidateAll() {
+        evictAll();
+        afterCommit(this::evictAll);
+    }
+
+    private void evict(Long id) {
+        generations.incrementAndGet(stripe(id));
+        entries.remove(id);
+    }
+
+    private void evictAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+        entries.clear();
+    }
+
+    private static int stripe(Long id) {
+        return Long.hashCode(id) & (GENERATION_STRIPES - 1);
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + misses.count();
+        return total == 0 ? 0 : hits.count() / total;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+}
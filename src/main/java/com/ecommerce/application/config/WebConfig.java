@@ -0,0 +1,22 @@
+package com.ecommerce.application.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.ecommerce.application.security.CurrentUserArgumentResolver;
+
+/**
+ * Spring MVC configuration
+ * Registers the @CurrentUser argument resolver for controllers
+ */
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(new CurrentUserArgumentResolver());
+    }
+}
@@ -1,18 +1,18 @@
 package com.ecommerce.application.controller;
 
-import com.ecommerce.application.entity.User;
+import com.ecommerce.application.cache.CatalogResponseCache;
 import com.ecommerce.application.entity.dtos.CategoryRequestDto;
 import com.ecommerce.application.entity.dtos.CategoryResponseDto;
+import com.ecommerce.application.security.AuthenticatedUser;
+import com.ecommerce.application.security.CurrentUser;
 import com.ecommerce.application.service.CategoryService;
-import com.ecommerce.application.service.UserService;
+import com.ecommerce.application.util.EtagUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 /**
  * Category Controller
@@ -25,7 +25,8 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
-    private final UserService userService;
+    private final EtagUtil etagUtil;
+    private final CatalogResponseCache catalogResponseCache;
 
     /**
      * Create a new category (ADMIN only)
@@ -33,10 +34,11 @@ public class CategoryController {
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public CategoryResponseDto createCategory(@RequestBody CategoryRequestDto dto) {
+    public CategoryResponseDto createCategory(
+            @RequestBody CategoryRequestDto dto,
+            @CurrentUser AuthenticatedUser currentUser) {
         log.info("Create category request");
-        User currentUser = getCurrentUser();
-        return categoryService.createCategory(dto, currentUser.getRole());
+        return categoryService.createCategory(dto, currentUser.role());
     }
 
     /**
@@ -46,10 +48,10 @@ public class CategoryController {
     @PutMapping("/{id}")
     public CategoryResponseDto updateCategory(
             @PathVariable Long id,
-            @RequestBody CategoryRequestDto dto) {
+            @RequestBody CategoryRequestDto dto,
+            @CurrentUser AuthenticatedUser currentUser) {
         log.info("Update category request for id: {}", id);
-        User currentUser = getCurrentUser();
-        return categoryService.updateCategory(id, dto, currentUser.getRole());
+        return categoryService.updateCategory(id, dto, currentUser.role());
     }
 
     /**
@@ -58,38 +60,39 @@ public class CategoryController {
      */
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteCategory(@PathVariable Long id) {
+    public void deleteCategory(@PathVariable Long id, @CurrentUser AuthenticatedUser currentUser) {
         log.info("Delete category request for id: {}", id);
-        User currentUser = getCurrentUser();
-        categoryService.deleteCategory(id, currentUser.getRole());
+        categoryService.deleteCategory(id, currentUser.role());
     }
 
     /**
      * Get category by ID (Public)
+     * Tagged with the catalog version; a matching If-None-Match skips the database
      * GET /api/categories/{id}
      */
     @GetMapping("/{id}")
-    public CategoryResponseDto getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<CategoryResponseDto> getCategoryById(@PathVariable Long id, WebRequest request) {
         log.info("Fetch category by id: {}", id);
-        return categoryService.getCategoryById(id);
+        String etag = etagUtil.catalogEtag();
+        if (etagUtil.isNotModified(request, etag)) {
+            return null;
+        }
+        return etagUtil.ok(etag, categoryService.getCategoryById(id));
     }
 
     /**
      * Get all categories (Public)
+     * Tagged with the catalog version; a matching If-None-Match skips the database
+     * Served as pre-encoded JSON from the catalog response cache
      * GET /api/categories
      */
     @GetMapping
-    public List<CategoryResponseDto> getAllCategories() {
+    public ResponseEntity<byte[]> getAllCategories(WebRequest request) {
         log.info("Fetch all categories");
-        return categoryService.getAllCategories();
-    }
-
-    /**
-     * Helper method to get current authenticated user
-     */
-    private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = (String) auth.getPrincipal();
-        return userService.getUserByEmail(email);
+        String etag = etagUtil.catalogEtag(request);
+        if (etagUtil.isNotModified(request, etag)) {
+            return null;
+        }
+        return etagUtil.ok(etag, catalogResponseCache.get("categories", categoryService::getAllCategories), request);
     }
 }
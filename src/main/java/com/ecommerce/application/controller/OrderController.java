@@ -1,19 +1,32 @@
 package com.ecommerce.application.controller;
 
-import com.ecommerce.application.entity.User;
+import com.ecommerce.application.cache.IdempotencyKeyStore;
+import com.ecommerce.application.entity.dtos.CursorPageDto;
+import com.ecommerce.application.entity.dtos.OrderFilterDto;
+import com.ecommerce.application.entity.dtos.OrderIntakeDto;
 import com.ecommerce.application.entity.dtos.OrderRequestDto;
 import com.ecommerce.application.entity.dtos.OrderResponseDto;
+import com.ecommerce.application.entity.enums.ExportFormat;
 import com.ecommerce.application.entity.enums.OrderStatus;
+import com.ecommerce.application.exception.BadRequestException;
+import com.ecommerce.application.security.AuthenticatedUser;
+import com.ecommerce.application.security.CurrentUser;
+import com.ecommerce.application.service.OrderExportService;
+import com.ecommerce.application.service.OrderIdempotencyService;
+import com.ecommerce.application.service.OrderIntakeService;
 import com.ecommerce.application.service.OrderService;
-import com.ecommerce.application.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.net.URI;
+import java.time.LocalDateTime;
 
 /**
  * Order Controller
@@ -25,86 +38,213 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     private final OrderService orderService;
-    private final UserService userService;
+    private final OrderExportService orderExportService;
+    private final OrderIdempotencyService orderIdempotencyService;
+    private final OrderIntakeService orderIntakeService;
 
     /**
      * Create a new order (CUSTOMER only)
+     * With an Idempotency-Key header, retries with the same key return the original order
+     * instead of creating another one, marked with Idempotent-Replayed: true
      * POST /api/orders
      */
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public OrderResponseDto createOrder(@RequestBody OrderRequestDto dto) {
+    public ResponseEntity<OrderResponseDto> createOrder(
+            @RequestBody OrderRequestDto dto,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @CurrentUser AuthenticatedUser currentUser) {
         log.info("Create order request");
-        User currentUser = getCurrentUser();
-        return orderService.createOrder(dto, currentUser.getId(), currentUser.getRole());
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(orderService.createOrder(dto, currentUser.userId(), currentUser.email(), currentUser.role()));
+        }
+
+        IdempotencyKeyStore.Result result = orderIdempotencyService.createOrder(
+                dto, idempotencyKey, currentUser.userId(), currentUser.email(), currentUser.role());
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.order());
+    }
+
+    /**
+     * Submit an order for asynchronous processing (CUSTOMER only)
+     * Validates and queues the order, answering 202 with a handle to poll;
+     * 503 with Retry-After when the intake queue is full
+     * POST /api/orders/async
+     */
+    @PostMapping("/async")
+    public ResponseEntity<OrderIntakeDto> submitOrder(
+            @RequestBody OrderRequestDto dto,
+            @CurrentUser AuthenticatedUser currentUser) {
+        log.info("Submit order request");
+        OrderIntakeDto intake = orderIntakeService.submit(dto, currentUser.userId(), currentUser.role());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/orders/intake/" + intake.getHandle()))
+                .body(intake);
+    }
+
+    /**
+     * Get the state of an asynchronously submitted order
+     * Authorization: User can view own submission, ADMIN can view any
+     * GET /api/orders/intake/{handle}
+     */
+    @GetMapping("/intake/{handle}")
+    public OrderIntakeDto getOrderIntake(
+            @PathVariable String handle,
+            @CurrentUser AuthenticatedUser currentUser) {
+        return orderIntakeService.getIntake(handle, currentUser.userId(), currentUser.role());
     }
 
     /**
      * Update order status (ADMIN only)
+     * CONFIRMED keeps the order's reserved stock, CANCELLED returns it
      * PATCH /api/orders/{id}/status
      */
     @PatchMapping("/{id}/status")
     public OrderResponseDto updateOrderStatus(
             @PathVariable Long id,
-            @RequestParam OrderStatus status) {
+            @RequestParam OrderStatus status,
+            @CurrentUser AuthenticatedUser currentUser) {
         log.info("Update order status request for id: {}", id);
-        User currentUser = getCurrentUser();
-        return orderService.updateOrderStatus(id, status, currentUser.getRole());
+        return orderService.updateOrderStatus(id, status, currentUser.role());
     }
 
     /**
      * Get order by ID
      * Authorization: User can view own order, ADMIN can view any
-     * GET /api/orders/{id}
+     * fields= returns only the listed properties and reads only their columns
+     * GET /api/orders/{id}?fields=
      */
     @GetMapping("/{id}")
-    public OrderResponseDto getOrderById(@PathVariable Long id) {
+    public Object getOrderById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            @CurrentUser AuthenticatedUser currentUser) {
         log.info("Fetch order by id: {}", id);
-        User currentUser = getCurrentUser();
-        return orderService.getOrderById(id, currentUser.getId(), currentUser.getRole());
+        if (fields != null) {
+            return orderService.getOrderFieldsById(id, currentUser.userId(), currentUser.role(), fields);
+        }
+        return orderService.getOrderById(id, currentUser.userId(), currentUser.role());
     }
 
     /**
-     * Get current user's orders
+     * Get a user's orders, newest first
      * Authorization: User views own orders, ADMIN can query any user's
-     * GET /api/orders/user/{userId}
+     * Keyset-paginated: pass nextCursor from the previous page as cursor
+     * GET /api/orders/user/{userId}?status=&from=&to=&cursor=&limit=&fields=
      */
     @GetMapping("/user/{userId}")
-    public List<OrderResponseDto> getUserOrders(@PathVariable Long userId) {
+    public CursorPageDto<?> getUserOrders(
+            @PathVariable Long userId,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @CurrentUser AuthenticatedUser currentUser) {
         log.info("Fetch orders for user: {}", userId);
-        User currentUser = getCurrentUser();
-        return orderService.getUserOrders(userId, currentUser.getRole());
+        OrderFilterDto filter = buildFilter(status, from, to, cursor, limit);
+        if (fields != null) {
+            return orderService.getUserOrderFields(userId, filter, currentUser.userId(), currentUser.role(), fields);
+        }
+        return orderService.getUserOrders(userId, filter, currentUser.userId(), currentUser.role());
     }
 
     /**
-     * Get current user's orders (my orders)
-     * GET /api/orders/my/orders
+     * Get current user's orders (my orders), newest first
+     * GET /api/orders/my/orders?status=&from=&to=&cursor=&limit=&fields=
      */
     @GetMapping("/my/orders")
-    public List<OrderResponseDto> getMyOrders() {
+    public CursorPageDto<?> getMyOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @CurrentUser AuthenticatedUser currentUser) {
         log.info("Fetch my orders");
-        User currentUser = getCurrentUser();
-        return orderService.getUserOrders(currentUser.getId(), currentUser.getRole());
+        OrderFilterDto filter = buildFilter(status, from, to, cursor, limit);
+        if (fields != null) {
+            return orderService.getUserOrderFields(currentUser.userId(), filter, currentUser.userId(), currentUser.role(),
+                    fields);
+        }
+        return orderService.getUserOrders(currentUser.userId(), filter, currentUser.userId(), currentUser.role());
     }
 
     /**
-     * Get all orders (ADMIN only)
-     * GET /api/orders/all
+     * Get all orders, newest first (ADMIN only)
+     * GET /api/orders/all?status=&from=&to=&cursor=&limit=&fields=
      */
     @GetMapping("/all")
-    public List<OrderResponseDto> getAllOrders() {
+    public CursorPageDto<?> getAllOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @CurrentUser AuthenticatedUser currentUser) {
         log.info("Fetch all orders");
-        User currentUser = getCurrentUser();
-        return orderService.getAllOrders(currentUser.getRole());
+        OrderFilterDto filter = buildFilter(status, from, to, cursor, limit);
+        if (fields != null) {
+            return orderService.getAllOrderFields(filter, currentUser.role(), fields);
+        }
+        return orderService.getAllOrders(filter, currentUser.role());
+    }
+
+    /**
+     * Export orders with their line items as a stream (ADMIN only)
+     * Rows are written as they are read from the database, so memory use is constant
+     * GET /api/orders/export?format=ndjson|csv&status=&from=&to=
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @CurrentUser AuthenticatedUser currentUser) {
+        log.info("Export orders request, format: {}", format);
+        ExportFormat exportFormat = parseExportFormat(format);
+        OrderFilterDto filter = buildFilter(status, from, to, null, null);
+        orderExportService.checkExport(filter, currentUser.role());
+
+        StreamingResponseBody body = outputStream -> orderExportService.exportOrders(outputStream, exportFormat, filter);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Collect the order filter request parameters
+     */
+    private OrderFilterDto buildFilter(OrderStatus status, LocalDateTime from, LocalDateTime to,
+            String cursor, Integer limit) {
+        return OrderFilterDto.builder()
+                .status(status)
+                .from(from)
+                .to(to)
+                .cursor(cursor)
+                .limit(limit)
+                .build();
     }
 
     /**
-     * Helper method to get current authenticated user
+     * Parse the export format request parameter
      */
-    private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = (String) auth.getPrincipal();
-        return userService.getUserByEmail(email);
+    private ExportFormat parseExportFormat(String format) {
+        try {
+            return ExportFormat.fromString(format);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("format", "Must be one of: ndjson, csv");
+        }
     }
 }
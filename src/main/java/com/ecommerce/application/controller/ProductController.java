@@ -1,17 +1,39 @@
 package com.ecommerce.application.controller;
 
-import com.ecommerce.application.entity.User;
+import com.ecommerce.application.cache.CatalogResponseCache;
+import com.ecommerce.application.entity.dtos.BulkUpsertResultDto;
+import com.ecommerce.application.entity.dtos.ProductBatchRequestDto;
+import com.ecommerce.application.entity.dtos.ProductBatchResponseDto;
+import com.ecommerce.application.entity.dtos.ProductFilterDto;
+import com.ecommerce.application.entity.dtos.ProductFilterResponseDto;
 import com.ecommerce.application.entity.dtos.ProductRequestDto;
 import com.ecommerce.application.entity.dtos.ProductResponseDto;
+import com.ecommerce.application.entity.dtos.ProductSearchResultDto;
+import com.ecommerce.application.entity.dtos.ProductSuggestionDto;
+import com.ecommerce.application.entity.dtos.ProductUpsertDto;
+import com.ecommerce.application.entity.enums.ExportFormat;
+import com.ecommerce.application.entity.enums.ProductField;
+import com.ecommerce.application.exception.BadRequestException;
+import com.ecommerce.application.security.AuthenticatedUser;
+import com.ecommerce.application.security.CurrentUser;
+import com.ecommerce.application.service.ProductExportService;
+import com.ecommerce.application.service.ProductImportService;
 import com.ecommerce.application.service.ProductService;
-import com.ecommerce.application.service.UserService;
+import com.ecommerce.application.util.EtagUtil;
+import com.ecommerce.application.util.FieldsUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.util.List;
 
 /**
@@ -25,7 +47,11 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
-    private final UserService userService;
+    private final ProductExportService productExportService;
+    private final ProductImportService productImportService;
+    private final EtagUtil etagUtil;
+    private final FieldsUtil fieldsUtil;
+    private final CatalogResponseCache catalogResponseCache;
 
     /**
      * Create a new product (ADMIN only)
@@ -33,10 +59,36 @@ public class ProductController {
      */
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public ProductResponseDto createProduct(@RequestBody ProductRequestDto dto) {
+    public ProductResponseDto createProduct(
+            @RequestBody ProductRequestDto dto,
+            @CurrentUser AuthenticatedUser currentUser) {
         log.info("Create product request");
-        User currentUser = getCurrentUser();
-        return productService.createProduct(dto, currentUser.getRole());
+        return productService.createProduct(dto, currentUser.role());
+    }
+
+    /**
+     * Create or update many products from a JSON array (ADMIN only)
+     * Rows with an id update that product, rows without one are created
+     * POST /api/products/bulk
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkUpsertResultDto bulkUpsertProducts(
+            @RequestBody List<ProductUpsertDto> rows,
+            @CurrentUser AuthenticatedUser currentUser) {
+        log.info("Bulk upsert products request: {} rows", rows.size());
+        return productImportService.upsertProducts(rows, currentUser.role());
+    }
+
+    /**
+     * Create or update many products from a CSV upload (ADMIN only)
+     * POST /api/products/bulk with Content-Type: text/csv
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public BulkUpsertResultDto bulkUpsertProductsCsv(
+            InputStream csv,
+            @CurrentUser AuthenticatedUser currentUser) throws IOException {
+        log.info("Bulk upsert products CSV request");
+        return productImportService.upsertProductsCsv(csv, currentUser.role());
     }
 
     /**
@@ -46,10 +98,10 @@ public class ProductController {
     @PutMapping("/{id}")
     public ProductResponseDto updateProduct(
             @PathVariable Long id,
-            @RequestBody ProductRequestDto dto) {
+            @RequestBody ProductRequestDto dto,
+            @CurrentUser AuthenticatedUser currentUser) {
         log.info("Update product request for id: {}", id);
-        User currentUser = getCurrentUser();
-        return productService.updateProduct(id, dto, currentUser.getRole());
+        return productService.updateProduct(id, dto, currentUser.role());
     }
 
     /**
@@ -58,48 +110,200 @@ public class ProductController {
      */
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void deleteProduct(@PathVariable Long id) {
+    public void deleteProduct(@PathVariable Long id, @CurrentUser AuthenticatedUser currentUser) {
         log.info("Delete product request for id: {}", id);
-        User currentUser = getCurrentUser();
-        productService.deleteProduct(id, currentUser.getRole());
+        productService.deleteProduct(id, currentUser.role());
     }
 
     /**
      * Get product by ID (Public)
-     * GET /api/products/{id}
+     * Answers If-None-Match with 304 without serializing the cached product
+     * fields= selects a subset of the cached product's properties
+     * GET /api/products/{id}?fields=
      */
     @GetMapping("/{id}")
-    public ProductResponseDto getProductById(@PathVariable Long id) {
+    public ResponseEntity<?> getProductById(
+            @PathVariable Long id,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
         log.info("Fetch product by id: {}", id);
-        return productService.getProductById(id);
+        ProductResponseDto product = productService.getProductById(id);
+        String etag = etagUtil.productEtag(product);
+        if (etagUtil.isNotModified(request, etag)) {
+            return null;
+        }
+        if (fields == null) {
+            return etagUtil.ok(etag, product);
+        }
+        return etagUtil.ok(etag, fieldsUtil.select(product, fieldsUtil.parse(fields, ProductField.class)));
+    }
+
+    /**
+     * Get many products by id in one round trip (Public)
+     * Products come back in request order; unknown ids are listed in missingIds
+     * Tagged with the catalog version like the list endpoints
+     * GET /api/products/batch?ids=1,2,3&fields=
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<ProductBatchResponseDto<?>> getProductsByIds(
+            @RequestParam List<Long> ids,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        log.info("Fetch products batch: {} ids", ids.size());
+        String etag = etagUtil.productListEtag();
+        if (etagUtil.isNotModified(request, etag)) {
+            return null;
+        }
+        return etagUtil.ok(etag, fields == null
+                ? productService.getProductsByIds(ids)
+                : productService.getProductFieldsByIds(ids, fields));
+    }
+
+    /**
+     * Get many products by id, for id lists too long for a query string (Public)
+     * POST /api/products/batch?fields=
+     */
+    @PostMapping("/batch")
+    public ProductBatchResponseDto<?> getProductsByIds(
+            @RequestBody ProductBatchRequestDto dto,
+            @RequestParam(required = false) String fields) {
+        log.info("Fetch products batch request");
+        return fields == null
+                ? productService.getProductsByIds(dto.getIds())
+                : productService.getProductFieldsByIds(dto.getIds(), fields);
+    }
+
+    /**
+     * Export the whole catalog as a stream (NDJSON or CSV)
+     * Rows are written as they are read from the database, so memory use is constant
+     * GET /api/products/export?format=ndjson|csv
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        log.info("Export products request, format: {}", format);
+        ExportFormat exportFormat = parseExportFormat(format);
+
+        StreamingResponseBody body = outputStream -> productExportService.exportProducts(outputStream, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"products." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Search products by name and description (Public)
+     * Every query token must match a term exactly or as a prefix
+     * GET /api/products/search?q=&categoryId=&limit=
+     */
+    @GetMapping("/search")
+    public List<ProductSearchResultDto> searchProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Search products request: {}", q);
+        return productService.searchProducts(q, categoryId, limit);
+    }
+
+    /**
+     * Suggest product names while typing (Public)
+     * GET /api/products/autocomplete?q=&limit=
+     */
+    @GetMapping("/autocomplete")
+    public List<ProductSuggestionDto> autocompleteProducts(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return productService.suggestProducts(q, limit);
+    }
+
+    /**
+     * Filter products with facet counts (Public)
+     * Keyset-paginated: pass products.nextCursor from the previous page as cursor
+     * GET /api/products/filter?name=&categoryId=1,2&minPrice=&maxPrice=&inStock=&sort=newest|price|price_desc&cursor=&limit=
+     */
+    @GetMapping("/filter")
+    public ProductFilterResponseDto filterProducts(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) List<Long> categoryId,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(defaultValue = "newest") String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        log.info("Filter products request, sort: {}", sort);
+        return productService.filterProducts(ProductFilterDto.builder()
+                .name(name)
+                .categoryIds(categoryId)
+                .minPrice(minPrice)
+                .maxPrice(maxPrice)
+                .inStock(inStock)
+                .sort(sort)
+                .cursor(cursor)
+                .limit(limit)
+                .build());
     }
 
     /**
      * Get all products (Public)
-     * GET /api/products
+     * Keyset-paginated: pass nextCursor from the previous page as cursor
+     * Tagged with the catalog version; a matching If-None-Match skips the database
+     * Served as pre-encoded JSON from the catalog response cache
+     * fields= returns only the listed properties and reads only their columns
+     * GET /api/products?cursor=&limit=&sort=id|name&fields=
      */
     @GetMapping
-    public List<ProductResponseDto> getAllProducts() {
-        log.info("Fetch all products");
-        return productService.getAllProducts();
+    public ResponseEntity<byte[]> getAllProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+        log.info("Fetch products page, sort: {}", sort);
+        String etag = etagUtil.productListEtag(request);
+        if (etagUtil.isNotModified(request, etag)) {
+            return null;
+        }
+        String key = "products?sort=" + sort + "&limit=" + limit + "&cursor=" + cursor + "&fields=" + fields;
+        return etagUtil.ok(etag, catalogResponseCache.get(key, () -> fields == null
+                ? productService.getAllProducts(cursor, limit, sort)
+                : productService.getProductFieldsPage(null, cursor, limit, sort, fields)), request);
     }
 
     /**
      * Get products by category (Public)
-     * GET /api/products/category/{categoryId}
+     * Keyset-paginated: pass nextCursor from the previous page as cursor
+     * GET /api/products/category/{categoryId}?cursor=&limit=&sort=id|name&fields=
      */
     @GetMapping("/category/{categoryId}")
-    public List<ProductResponseDto> getProductsByCategory(@PathVariable Long categoryId) {
+    public ResponseEntity<byte[]> getProductsByCategory(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
         log.info("Fetch products by category: {}", categoryId);
-        return productService.getProductsByCategory(categoryId);
+        String etag = etagUtil.productListEtag(request);
+        if (etagUtil.isNotModified(request, etag)) {
+            return null;
+        }
+        String key = "products/category/" + categoryId + "?sort=" + sort + "&limit=" + limit + "&cursor=" + cursor
+                + "&fields=" + fields;
+        return etagUtil.ok(etag, catalogResponseCache.get(key, () -> fields == null
+                ? productService.getProductsByCategory(categoryId, cursor, limit, sort)
+                : productService.getProductFieldsPage(categoryId, cursor, limit, sort, fields)), request);
     }
 
     /**
-     * Helper method to get current authenticated user
+     * Parse the export format request parameter
      */
-    private User getCurrentUser() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = (String) auth.getPrincipal();
-        return userService.getUserByEmail(email);
+    private ExportFormat parseExportFormat(String format) {
+        try {
+            return ExportFormat.fromString(format);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("format", "Must be one of: ndjson, csv");
+        }
     }
 }
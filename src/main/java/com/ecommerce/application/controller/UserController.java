@@ -1,7 +1,5 @@
 package com.ecommerce.application.controller;
 
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -14,7 +12,8 @@ import com.ecommerce.application.entity.dtos.AuthResponseDto;
 import com.ecommerce.application.entity.dtos.UserLoginDto;
 import com.ecommerce.application.entity.dtos.UserRegisterDto;
 import com.ecommerce.application.entity.dtos.UserResponseDto;
-import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.security.AuthenticatedUser;
+import com.ecommerce.application.security.CurrentUser;
 import com.ecommerce.application.service.UserService;
 import com.ecommerce.application.util.JwtUtil;
 
@@ -55,12 +54,9 @@ public class UserController {
      * Get user profile (protected endpoint)
      */
     @GetMapping("/profile")
-    public UserResponseDto getProfile() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = (String) auth.getPrincipal();
-        
-        User user = userService.getUserByEmail(email);
-        log.info("Profile request for user: {}", email);
+    public UserResponseDto getProfile(@CurrentUser AuthenticatedUser currentUser) {
+        User user = userService.getUserEntityById(currentUser.userId());
+        log.info("Profile request for user: {}", currentUser.email());
         
         return UserResponseDto.builder()
                 .id(user.getId())
@@ -75,15 +71,10 @@ public class UserController {
      * Authorization: User can view own profile, admin can view any user
      */
     @GetMapping("/{id}")
-    public UserResponseDto getUserById(@PathVariable Long id) {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        String email = (String) auth.getPrincipal();
-        
-        // Get current user details from JWT
-        User currentUser = userService.getUserByEmail(email);
-        
-        log.info("Get user request for id: {} by user: {}", id, email);
-        return userService.getUserById(currentUser.getId(), currentUser.getRole(), id);
+    public UserResponseDto getUserById(
+            @PathVariable Long id,
+            @CurrentUser AuthenticatedUser currentUser) {
+        log.info("Get user request for id: {} by user: {}", id, currentUser.email());
+        return userService.getUserById(currentUser.userId(), currentUser.role(), id);
     }
 }
-
@@ -0,0 +1,20 @@
+package com.ecommerce.application.entity.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Bulk Row Error DTO
+ * Why one row of a bulk request was rejected; rows are numbered from 1 in request order
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class BulkRowErrorDto {
+    private int row;
+    private Long id;
+    private String message;
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.application.entity.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Bulk Upsert Result DTO
+ * Outcome of a bulk product upsert; valid rows are written even when others fail
+ * errors is capped, failed always holds the full count
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class BulkUpsertResultDto {
+    private int received;
+    private int created;
+    private int updated;
+    private int failed;
+    private List<BulkRowErrorDto> errors;
+    private long elapsedMillis;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.application.entity.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Category Facet DTO
+ * Number of filtered products in one category
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class CategoryFacetDto {
+    private Long categoryId;
+    private String categoryName;
+    private long count;
+}
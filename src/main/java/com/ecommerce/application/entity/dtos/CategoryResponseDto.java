@@ -19,4 +19,5 @@ public class CategoryResponseDto {
     private String description;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
@@ -0,0 +1,22 @@
+package com.ecommerce.application.entity.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Cursor Page DTO
+ * One page of a keyset-paginated listing; pass nextCursor back to fetch the following page
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class CursorPageDto<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private int limit;
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.application.entity.dtos;
+
+import com.ecommerce.application.entity.enums.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Order Filter DTO
+ * Criteria for order history pages; every field is optional
+ * from is inclusive and to is exclusive
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class OrderFilterDto {
+    private OrderStatus status;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private String cursor;
+    private Integer limit;
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.application.entity.dtos;
+
+import com.ecommerce.application.entity.enums.OrderIntakeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * Order Intake DTO
+ * State of an order submitted for asynchronous processing
+ * orderId is set once CREATED, error once REJECTED
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class OrderIntakeDto {
+    private String handle;
+    private OrderIntakeStatus status;
+    private Long orderId;
+    private String error;
+    private LocalDateTime submittedAt;
+}
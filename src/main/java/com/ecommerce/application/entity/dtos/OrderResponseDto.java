@@ -22,6 +22,7 @@ public class OrderResponseDto {
     private String userEmail;
     private BigDecimal totalAmount;
     private OrderStatus status;
+    private LocalDateTime reservedUntil;
     private List<OrderItemResponseDto> items;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -0,0 +1,22 @@
+package com.ecommerce.application.entity.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+/**
+ * Price Range Facet DTO
+ * Number of filtered products priced from min (inclusive) up to max (exclusive)
+ * A null bound means the range is open on that side
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class PriceRangeFacetDto {
+    private BigDecimal min;
+    private BigDecimal max;
+    private long count;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.application.entity.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Product Batch Request DTO
+ * Ids to resolve in one call; used by the POST variant for lists too long for a query string
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductBatchRequestDto {
+    private List<Long> ids;
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.application.entity.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Product Batch Response DTO
+ * Products in the order they were requested, plus the requested ids that do not exist
+ * Items are ProductResponseDto, or field maps when a sparse fieldset was requested
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductBatchResponseDto<T> {
+    private List<T> products;
+    private List<Long> missingIds;
+}
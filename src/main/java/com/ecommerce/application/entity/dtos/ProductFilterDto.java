@@ -0,0 +1,27 @@
+package com.ecommerce.application.entity.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Product Filter DTO
+ * Criteria for the faceted product listing; every field is optional
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductFilterDto {
+    private String name;
+    private List<Long> categoryIds;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private boolean inStock;
+    private String sort;
+    private String cursor;
+    private Integer limit;
+}
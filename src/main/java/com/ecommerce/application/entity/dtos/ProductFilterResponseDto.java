@@ -0,0 +1,22 @@
+package com.ecommerce.application.entity.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * Product Filter Response DTO
+ * One page of filtered products plus facet counts over the whole filtered set
+ * Facets are only computed for the first page (no cursor) and are null on later pages
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductFilterResponseDto {
+    private CursorPageDto<ProductResponseDto> products;
+    private List<CategoryFacetDto> categories;
+    private List<PriceRangeFacetDto> priceRanges;
+}
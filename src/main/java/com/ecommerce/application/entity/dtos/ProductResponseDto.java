@@ -24,4 +24,5 @@ public class ProductResponseDto {
     private String categoryName;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
@@ -0,0 +1,23 @@
+package com.ecommerce.application.entity.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+/**
+ * Product Search Result DTO
+ * Lightweight hit returned by the in-memory search index, ordered by score
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductSearchResultDto {
+    private Long id;
+    private String name;
+    private BigDecimal price;
+    private Long categoryId;
+    private float score;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.application.entity.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Product Suggestion DTO
+ * Type-ahead suggestion for the storefront search box
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ProductSuggestionDto {
+    private Long id;
+    private String name;
+}
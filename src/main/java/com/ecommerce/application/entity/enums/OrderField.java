@@ -0,0 +1,38 @@
+package com.ecommerce.application.entity.enums;
+
+import com.ecommerce.application.entity.dtos.OrderResponseDto;
+import java.util.function.Function;
+
+/**
+ * Enum of OrderResponseDto fields selectable with fields=
+ * Declaration order is the property order of sparse responses
+ */
+public enum OrderField implements ResponseField<OrderResponseDto> {
+    ID("id", OrderResponseDto::getId),
+    USER_ID("userId", OrderResponseDto::getUserId),
+    USER_EMAIL("userEmail", OrderResponseDto::getUserEmail),
+    TOTAL_AMOUNT("totalAmount", OrderResponseDto::getTotalAmount),
+    STATUS("status", OrderResponseDto::getStatus),
+    RESERVED_UNTIL("reservedUntil", OrderResponseDto::getReservedUntil),
+    ITEMS("items", OrderResponseDto::getItems),
+    CREATED_AT("createdAt", OrderResponseDto::getCreatedAt),
+    UPDATED_AT("updatedAt", OrderResponseDto::getUpdatedAt);
+
+    private final String jsonName;
+    private final Function<OrderResponseDto, Object> getter;
+
+    OrderField(String jsonName, Function<OrderResponseDto, Object> getter) {
+        this.jsonName = jsonName;
+        this.getter = getter;
+    }
+
+    @Override
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    @Override
+    public Object read(OrderResponseDto source) {
+        return getter.apply(source);
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.application.entity.enums;
+
+public enum OrderIntakeStatus {
+    QUEUED("Order accepted and waiting to be processed"),
+    CREATED("Order created"),
+    REJECTED("Order could not be created");
+
+    private final String description;
+
+    OrderIntakeStatus(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
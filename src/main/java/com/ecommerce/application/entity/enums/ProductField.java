@@ -0,0 +1,39 @@
+package com.ecommerce.application.entity.enums;
+
+import com.ecommerce.application.entity.dtos.ProductResponseDto;
+import java.util.function.Function;
+
+/**
+ * Enum of ProductResponseDto fields selectable with fields=
+ * Declaration order is the property order of sparse responses
+ */
+public enum ProductField implements ResponseField<ProductResponseDto> {
+    ID("id", ProductResponseDto::getId),
+    NAME("name", ProductResponseDto::getName),
+    DESCRIPTION("description", ProductResponseDto::getDescription),
+    PRICE("price", ProductResponseDto::getPrice),
+    STOCK("stock", ProductResponseDto::getStock),
+    CATEGORY_ID("categoryId", ProductResponseDto::getCategoryId),
+    CATEGORY_NAME("categoryName", ProductResponseDto::getCategoryName),
+    CREATED_AT("createdAt", ProductResponseDto::getCreatedAt),
+    UPDATED_AT("updatedAt", ProductResponseDto::getUpdatedAt),
+    VERSION("version", ProductResponseDto::getVersion);
+
+    private final String jsonName;
+    private final Function<ProductResponseDto, Object> getter;
+
+    ProductField(String jsonName, Function<ProductResponseDto, Object> getter) {
+        this.jsonName = jsonName;
+        this.getter = getter;
+    }
+
+    @Override
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    @Override
+    public Object read(ProductResponseDto source) {
+        return getter.apply(source);
+    }
+}
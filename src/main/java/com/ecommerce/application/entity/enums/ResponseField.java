@@ -0,0 +1,18 @@
+package com.ecommerce.application.entity.enums;
+
+/**
+ * A field clients may select with the fields= request parameter
+ * @param <T> the full response DTO the field is read from
+ */
+public interface ResponseField<T> {
+
+    /**
+     * Property name in the JSON response and in the fields= parameter
+     */
+    String getJsonName();
+
+    /**
+     * Read this field from a fully loaded response DTO
+     */
+    Object read(T source);
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.application.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Exception thrown when the server is temporarily overloaded (503)
+ * Carries the number of seconds the client should wait before retrying
+ */
+public class ServiceUnavailableException extends ApplicationException {
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message, HttpStatus.SERVICE_UNAVAILABLE.value());
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
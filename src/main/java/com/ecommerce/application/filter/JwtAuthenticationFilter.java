@@ -2,6 +2,7 @@ package com.ecommerce.application.filter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -10,7 +11,9 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
-import com.ecommerce.application.util.JwtUtil;
+import com.ecommerce.application.security.AuthenticatedUser;
+import com.ecommerce.application.util.JwtClaims;
+import com.ecommerce.application.util.JwtTokenCache;
 
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -22,12 +25,13 @@ import lombok.extern.slf4j.Slf4j;
 /**
  * JWT Authentication Filter
  * Validates JWT token on each request and sets authentication context
+ * The token signature is verified at most once per request and skipped for cached tokens
  */
 @Slf4j
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final JwtTokenCache jwtTokenCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -35,22 +39,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = extractTokenFromRequest(request);
 
-            if (jwt != null && jwtUtil.validateToken(jwt)) {
-                String email = jwtUtil.extractEmail(jwt);
-                Long userId = jwtUtil.extractUserId(jwt);
-                String role = jwtUtil.extractRole(jwt).name();
-
-                // Create authentication with role as authority
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(
-                        email, 
-                        null, 
-                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
-                    );
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                
-                SecurityContextHolder.getContext().setAuthentication(authentication);
-                log.debug("JWT validated for user: {} with role: {}", email, role);
+            if (jwt != null) {
+                Optional<JwtClaims> claims = jwtTokenCache.resolve(jwt);
+                if (claims.isPresent()) {
+                    authenticate(request, claims.get());
+                }
             }
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
@@ -59,6 +52,25 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Populate the security context from already-verified claims
+     */
+    private void authenticate(HttpServletRequest request, JwtClaims claims) {
+        String role = claims.role().name();
+
+        // Create authentication with the typed principal and role as authority
+        UsernamePasswordAuthenticationToken authentication = 
+            new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(claims.userId(), claims.email(), claims.role()), 
+                null, 
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+            );
+        authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        log.debug("JWT validated for user: {} with role: {}", claims.email(), role);
+    }
+
     /**
      * Extract JWT token from Authorization header
      */
@@ -0,0 +1,28 @@
+package com.ecommerce.application.repositary;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.application.entity.Order;
+import com.ecommerce.application.entity.enums.OrderField;
+
+/**
+ * Order Projection Repository
+ * Custom fragment of OrderRepository that reads only the columns a sparse fieldset asks for
+ */
+public interface OrderProjectionRepository {
+
+    /**
+     * Select the given fields of the matching orders
+     * The id is always read; the user is joined only for its email, and items cost one
+     * extra statement only when selected
+     * @param limit maximum number of orders, or null for all
+     * @return one row per order keyed by field JSON name
+     */
+    List<Map<String, Object>> findFields(Specification<Order> filter, Sort sort, Integer limit,
+            Set<OrderField> fields);
+}
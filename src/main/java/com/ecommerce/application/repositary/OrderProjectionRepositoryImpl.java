@@ -0,0 +1,134 @@
+package com.ecommerce.application.repositary;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.ecommerce.application.entity.Order;
+import com.ecommerce.application.entity.OrderItem;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.dtos.OrderResponseDto.OrderItemResponseDto;
+import com.ecommerce.application.entity.enums.OrderField;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Criteria implementation of OrderProjectionRepository
+ * Orders come from one tuple query over the selected columns; items, when selected, from a
+ * second tuple query keyed by the order ids of the first
+ */
+public class OrderProjectionRepositoryImpl implements OrderProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Specification<Order> filter, Sort sort, Integer limit,
+            Set<OrderField> fields) {
+        EnumSet<OrderField> selected = EnumSet.copyOf(fields);
+        selected.add(OrderField.ID);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Order> root = query.from(Order.class);
+
+        List<Selection<?>> selections = new ArrayList<>(selected.size());
+        for (OrderField field : selected) {
+            switch (field) {
+                // the foreign key column, no join needed
+                case USER_ID -> selections.add(root.get("user").get("id"));
+                case USER_EMAIL -> selections.add(root.join("user").get("email"));
+                case ID -> selections.add(root.get("id"));
+                case TOTAL_AMOUNT -> selections.add(root.get("totalAmount"));
+                case STATUS -> selections.add(root.get("status"));
+                case RESERVED_UNTIL -> selections.add(root.get("reservedUntil"));
+                case CREATED_AT -> selections.add(root.get("createdAt"));
+                case UPDATED_AT -> selections.add(root.get("updatedAt"));
+                case ITEMS -> {
+                    // loaded by the second query
+                }
+            }
+        }
+
+        query.multiselect(selections);
+        Predicate restriction = filter.toPredicate(root, query, cb);
+        if (restriction != null) {
+            query.where(restriction);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            int index = 0;
+            for (OrderField field : selected) {
+                // the items placeholder keeps the property in declaration order
+                row.put(field.getJsonName(), field == OrderField.ITEMS ? null : tuple.get(index++));
+            }
+            rows.add(row);
+        }
+
+        if (selected.contains(OrderField.ITEMS) && !rows.isEmpty()) {
+            addItems(rows);
+        }
+        return rows;
+    }
+
+    /**
+     * Load the items of all rows with one query and attach them in item id order
+     */
+    private void addItems(List<Map<String, Object>> rows) {
+        Map<Long, List<OrderItemResponseDto>> itemsByOrder = new HashMap<>();
+        for (Map<String, Object> row : rows) {
+            List<OrderItemResponseDto> items = new ArrayList<>();
+            itemsByOrder.put((Long) row.get(OrderField.ID.getJsonName()), items);
+            row.put(OrderField.ITEMS.getJsonName(), items);
+        }
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<OrderItem> item = query.from(OrderItem.class);
+        Join<OrderItem, Product> product = item.join("product");
+        query.multiselect(item.get("order").get("id"), product.get("id"), product.get("name"),
+                item.get("quantity"), item.get("price"));
+        query.where(item.get("order").get("id").in(itemsByOrder.keySet()));
+        query.orderBy(cb.asc(item.get("id")));
+
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Integer quantity = tuple.get(3, Integer.class);
+            BigDecimal price = tuple.get(4, BigDecimal.class);
+            itemsByOrder.get(tuple.get(0, Long.class)).add(OrderItemResponseDto.builder()
+                    .productId(tuple.get(1, Long.class))
+                    .productName(tuple.get(2, String.class))
+                    .quantity(quantity)
+                    .price(price)
+                    .lineTotal(price.multiply(BigDecimal.valueOf(quantity)))
+                    .build());
+        }
+    }
+}
@@ -1,17 +1,88 @@
 package com.ecommerce.application.repositary;
 
 import com.ecommerce.application.entity.Order;
+import com.ecommerce.application.entity.OrderItem;
 import com.ecommerce.application.entity.enums.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Order Repository
  * Handles database operations for Order entity
+ * Read queries fetch user, items and products in one statement to avoid N+1 loading
+ * Sparse fieldsets go through findFields, which reads only the selected columns
+ * History pages are keyset-paginated on createdAt, id descending; see OrderSpecifications
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserId(Long userId);
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderProjectionRepository {
     List<Order> findByStatus(OrderStatus status);
+
+    @EntityGraph(attributePaths = {"user", "items", "items.product"})
+    Optional<Order> findWithItemsById(Long id);
+
+    /**
+     * Lock one order row, so status changes and hold expiry never act on it at the same time
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Order> findForUpdateById(Long id);
+
+    /**
+     * Lock the orders among ids that still hold stock past the given time
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id in :ids and o.status = :status and o.reservedUntil <= :now")
+    List<Order> findExpiredHoldsForUpdate(@Param("ids") Collection<Long> ids,
+            @Param("status") OrderStatus status, @Param("now") LocalDateTime now);
+
+    /**
+     * Every order currently holding stock; read once at startup to rebuild the expiry schedule
+     * Must be consumed inside a transaction and closed afterwards
+     */
+    @Query("select o.id as id, o.reservedUntil as reservedUntil from Order o "
+            + "where o.status = :status and o.reservedUntil is not null")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<StockHold> streamStockHolds(@Param("status") OrderStatus status);
+
+    /**
+     * Orders with user, items and products, in no particular order; used to fill a page of ids
+     */
+    @EntityGraph(attributePaths = {"user", "items", "items.product"})
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+
+    /**
+     * Forward-only cursor over order items with their order, user and product, for streaming exports
+     * Items of one order are adjacent, orders come oldest first; every filter is optional
+     * Must be consumed inside a transaction and closed afterwards
+     */
+    @Query("select i from OrderItem i join fetch i.order o join fetch o.user join fetch i.product "
+            + "where (:status is null or o.status = :status) "
+            + "and (:from is null or o.createdAt >= :from) and (:to is null or o.createdAt < :to) "
+            + "order by o.createdAt, o.id, i.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<OrderItem> streamItemsForExport(@Param("status") OrderStatus status,
+            @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Id and hold end of an order holding stock
+     */
+    interface StockHold {
+        Long getId();
+        LocalDateTime getReservedUntil();
+    }
 }
@@ -0,0 +1,56 @@
+package com.ecommerce.application.repositary;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.application.entity.Order;
+import com.ecommerce.application.entity.enums.OrderStatus;
+
+/**
+ * Order Specifications
+ * Building blocks for dynamic order queries; combine them with Specification.allOf
+ */
+public final class OrderSpecifications {
+
+    private OrderSpecifications() {
+    }
+
+    public static Specification<Order> idIs(Long orderId) {
+        return (root, query, cb) -> cb.equal(root.get("id"), orderId);
+    }
+
+    /**
+     * Order placed by the user; compares the foreign key without joining
+     */
+    public static Specification<Order> userIs(Long userId) {
+        return (root, query, cb) -> cb.equal(root.get("user").get("id"), userId);
+    }
+
+    public static Specification<Order> statusIs(OrderStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    /**
+     * Placed at or after the given time
+     */
+    public static Specification<Order> createdFrom(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("createdAt"), from);
+    }
+
+    /**
+     * Placed strictly before the given time
+     */
+    public static Specification<Order> createdUntil(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("createdAt"), to);
+    }
+
+    /**
+     * Keyset condition for pages ordered by createdAt, id descending
+     */
+    public static Specification<Order> createdBefore(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.application.repositary;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.application.entity.Product;
+
+/**
+ * Product Facet Repository
+ * Custom fragment of ProductRepository for facet counts over a dynamic filter
+ */
+public interface ProductFacetRepository {
+
+    /**
+     * Count filtered products per category and price bucket in one grouped query
+     * @param priceBounds ascending bucket boundaries; n bounds give n + 1 buckets
+     * @return one row per category that has matching products
+     */
+    List<CategoryFacetRow> countFacets(Specification<Product> filter, List<BigDecimal> priceBounds);
+
+    /**
+     * Facet counts for one category
+     * @param bucketCounts products per price bucket, in bucket order
+     */
+    record CategoryFacetRow(Long categoryId, String categoryName, long count, long[] bucketCounts) {
+    }
+}
@@ -0,0 +1,76 @@
+package com.ecommerce.application.repositary;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.Product;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Criteria implementation of ProductFacetRepository
+ * Groups by category and counts price buckets with conditional aggregates, so
+ * every facet comes back from a single statement
+ */
+public class ProductFacetRepositoryImpl implements ProductFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<CategoryFacetRow> countFacets(Specification<Product> filter, List<BigDecimal> priceBounds) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Category> category = root.join("category");
+        Expression<BigDecimal> price = root.get("price");
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(category.get("id"));
+        selections.add(category.get("name"));
+        selections.add(cb.count(root));
+        for (int bucket = 0; bucket <= priceBounds.size(); bucket++) {
+            List<Predicate> inBucket = new ArrayList<>(2);
+            if (bucket > 0) {
+                inBucket.add(cb.greaterThanOrEqualTo(price, priceBounds.get(bucket - 1)));
+            }
+            if (bucket < priceBounds.size()) {
+                inBucket.add(cb.lessThan(price, priceBounds.get(bucket)));
+            }
+            // count() skips the nulls produced outside the bucket
+            selections.add(cb.count(cb.selectCase()
+                    .when(cb.and(inBucket.toArray(Predicate[]::new)), root.get("id"))));
+        }
+
+        query.multiselect(selections);
+        Predicate restriction = filter.toPredicate(root, query, cb);
+        if (restriction != null) {
+            query.where(restriction);
+        }
+        query.groupBy(category.get("id"), category.get("name"));
+
+        List<CategoryFacetRow> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            long[] bucketCounts = new long[priceBounds.size() + 1];
+            for (int bucket = 0; bucket < bucketCounts.length; bucket++) {
+                bucketCounts[bucket] = tuple.get(3 + bucket, Long.class);
+            }
+            rows.add(new CategoryFacetRow(tuple.get(0, Long.class), tuple.get(1, String.class),
+                    tuple.get(2, Long.class), bucketCounts));
+        }
+        return rows;
+    }
+}
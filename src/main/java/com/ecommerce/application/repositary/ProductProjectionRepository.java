@@ -0,0 +1,27 @@
+package com.ecommerce.application.repositary;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.enums.ProductField;
+
+/**
+ * Product Projection Repository
+ * Custom fragment of ProductRepository that reads only the columns a sparse fieldset asks for
+ */
+public interface ProductProjectionRepository {
+
+    /**
+     * Select the given fields of the matching products in one statement
+     * The id is always read; the category is joined only when its name is selected
+     * @param limit maximum number of rows, or null for all
+     * @return one row per product keyed by field JSON name
+     */
+    List<Map<String, Object>> findFields(Specification<Product> filter, Sort sort, Integer limit,
+            Set<ProductField> fields);
+}
@@ -0,0 +1,89 @@
+package com.ecommerce.application.repositary;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.enums.ProductField;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Criteria implementation of ProductProjectionRepository
+ * Builds a tuple query over just the selected columns, so an unselected TEXT description
+ * is never read
+ */
+public class ProductProjectionRepositoryImpl implements ProductProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Map<String, Object>> findFields(Specification<Product> filter, Sort sort, Integer limit,
+            Set<ProductField> fields) {
+        EnumSet<ProductField> selected = EnumSet.copyOf(fields);
+        selected.add(ProductField.ID);
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+
+        List<Selection<?>> selections = new ArrayList<>(selected.size());
+        for (ProductField field : selected) {
+            selections.add(switch (field) {
+                // the foreign key column, no join needed
+                case CATEGORY_ID -> root.get("category").get("id");
+                case CATEGORY_NAME -> root.join("category").get("name");
+                case ID -> root.get("id");
+                case NAME -> root.get("name");
+                case DESCRIPTION -> root.get("description");
+                case PRICE -> root.get("price");
+                case STOCK -> root.get("stock");
+                case CREATED_AT -> root.get("createdAt");
+                case UPDATED_AT -> root.get("updatedAt");
+                case VERSION -> root.get("version");
+            });
+        }
+
+        query.multiselect(selections);
+        Predicate restriction = filter.toPredicate(root, query, cb);
+        if (restriction != null) {
+            query.where(restriction);
+        }
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (limit != null) {
+            typedQuery.setMaxResults(limit);
+        }
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : typedQuery.getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            int index = 0;
+            for (ProductField field : selected) {
+                row.put(field.getJsonName(), tuple.get(index++));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -1,15 +1,76 @@
 package com.ecommerce.application.repositary;
 
 import com.ecommerce.application.entity.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Product Repository
  * Handles database operations for Product entity
+ * Page queries use keyset conditions (never OFFSET); pass PageRequest.of(0, size) to limit rows
+ * Read queries fetch the category in the same statement to avoid N+1 loading
+ * Dynamic filters go through JpaSpecificationExecutor with ProductSpecifications
+ * Sparse fieldsets go through findFields, which reads only the selected columns
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductStockRepository, ProductFacetRepository, ProductProjectionRepository {
     List<Product> findByCategoryId(Long categoryId);
+
+    @EntityGraph(attributePaths = "category")
+    Optional<Product> findWithCategoryById(Long id);
+
+    @EntityGraph(attributePaths = "category")
+    List<Product> findByIdIn(Collection<Long> ids);
+
+    @Query("select p from Product p join fetch p.category where p.id > :afterId order by p.id")
+    List<Product> findPageOrderById(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select p from Product p join fetch p.category where p.name > :afterName "
+            + "or (p.name = :afterName and p.id > :afterId) order by p.name, p.id")
+    List<Product> findPageOrderByName(@Param("afterName") String afterName,
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select p from Product p join fetch p.category where p.category.id = :categoryId and p.id > :afterId order by p.id")
+    List<Product> findCategoryPageOrderById(@Param("categoryId") Long categoryId,
+            @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select p from Product p join fetch p.category where p.category.id = :categoryId and (p.name > :afterName "
+            + "or (p.name = :afterName and p.id > :afterId)) order by p.name, p.id")
+    List<Product> findCategoryPageOrderByName(@Param("categoryId") Long categoryId,
+            @Param("afterName") String afterName, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Forward-only cursor over the whole catalog for streaming exports
+     * Must be consumed inside a transaction and closed afterwards
+     */
+    @Query("select p from Product p join fetch p.category order by p.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Product> streamAllWithCategory();
+
+    /**
+     * Atomically take stock only if enough is available
+     * @return 1 if the stock was reduced, 0 if the product is missing or has insufficient stock
+     */
+    @Modifying
+    @Query("update Product p set p.stock = p.stock - :quantity, p.updatedAt = :now, p.version = p.version + 1 "
+            + "where p.id = :id and p.stock >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,110 @@
+package com.ecommerce.application.repositary;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Locale;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.ecommerce.application.entity.Product;
+
+/**
+ * Product Specifications
+ * Building blocks for dynamic product filters; combine them with Specification.allOf
+ */
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    /**
+     * Case-insensitive substring match on the product name
+     */
+    public static Specification<Product> nameContains(String name) {
+        String pattern = "%" + name.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+        return (root, query, cb) -> cb.like(cb.lower(root.get("name")), pattern, '\\');
+    }
+
+    /**
+     * Product belongs to one of the categories; compares the foreign key without joining
+     */
+    public static Specification<Product> categoryIn(Collection<Long> categoryIds) {
+        return (root, query, cb) -> root.get("category").get("id").in(categoryIds);
+    }
+
+    public static Specification<Product> idIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Keyset condition for pages ordered by id ascending
+     */
+    public static Specification<Product> idAfter(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    /**
+     * Keyset condition for pages ordered by name, id ascending
+     */
+    public static Specification<Product> nameAfter(String name, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("name"), name),
+                cb.and(cb.equal(root.get("name"), name), cb.greaterThan(root.get("id"), id)));
+    }
+
+    public static Specification<Product> priceAtLeast(BigDecimal minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(BigDecimal maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    public static Specification<Product> inStock() {
+        return (root, query, cb) -> cb.greaterThan(root.get("stock"), 0);
+    }
+
+    /**
+     * Keyset condition for pages ordered by price, id ascending
+     */
+    public static Specification<Product> priceAfter(BigDecimal price, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("price"), price),
+                cb.and(cb.equal(root.get("price"), price), cb.greaterThan(root.get("id"), id)));
+    }
+
+    /**
+     * Keyset condition for pages ordered by price, id descending
+     */
+    public static Specification<Product> priceBefore(BigDecimal price, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("price"), price),
+                cb.and(cb.equal(root.get("price"), price), cb.lessThan(root.get("id"), id)));
+    }
+
+    /**
+     * Keyset condition for pages ordered by createdAt, id descending
+     */
+    public static Specification<Product> createdBefore(LocalDateTime createdAt, Long id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdAt"), createdAt),
+                cb.and(cb.equal(root.get("createdAt"), createdAt), cb.lessThan(root.get("id"), id)));
+    }
+
+    /**
+     * Fetch the category with entity queries so mapping to DTOs needs no extra statements
+     * Leaves count and tuple queries untouched
+     */
+    public static Specification<Product> fetchCategory() {
+        return (root, query, cb) -> {
+            if (query != null && Product.class.equals(query.getResultType())) {
+                root.fetch("category");
+            }
+            return cb.conjunction();
+        };
+    }
+}
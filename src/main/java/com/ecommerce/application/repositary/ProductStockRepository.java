@@ -0,0 +1,31 @@
+package com.ecommerce.application.repositary;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Product Stock Repository
+ * Custom fragment of ProductRepository for batched stock updates and stock reads
+ */
+public interface ProductStockRepository {
+
+    /**
+     * Conditionally decrement stock for many products in one JDBC batch
+     * @param quantitiesByProductId quantity to take per product, applied in iteration order
+     * @return update count per product in the same order; 0 means insufficient stock or missing product
+     */
+    int[] decrementStockBatch(Map<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Give stock back to many products in one JDBC batch
+     * @param quantitiesByProductId quantity to return per product, applied in iteration order
+     * @return update count per product in the same order; 0 means the product is missing
+     */
+    int[] incrementStockBatch(Map<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Current stock of the given products, read without loading entities
+     * @return stock per product id; ids that do not exist are absent
+     */
+    Map<Long, Integer> findStockByIds(Collection<Long> productIds);
+}
@@ -0,0 +1,63 @@
+package com.ecommerce.application.repositary;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC implementation of ProductStockRepository
+ * Runs inside the caller's JPA transaction through the shared DataSource
+ */
+@RequiredArgsConstructor
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE products SET stock = stock - ?, updated_at = ?, version = version + 1 WHERE id = ? AND stock >= ?";
+    private static final String INCREMENT_STOCK_SQL =
+            "UPDATE products SET stock = stock + ?, updated_at = ?, version = version + 1 WHERE id = ?";
+
+    private static final String SELECT_STOCK_SQL = "SELECT id, stock FROM products WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] decrementStockBatch(Map<Long, Integer> quantitiesByProductId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(quantitiesByProductId.size());
+        quantitiesByProductId.forEach((productId, quantity) ->
+                batchArgs.add(new Object[] { quantity, now, productId, quantity }));
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, batchArgs);
+    }
+
+    @Override
+    public int[] incrementStockBatch(Map<Long, Integer> quantitiesByProductId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(quantitiesByProductId.size());
+        quantitiesByProductId.forEach((productId, quantity) ->
+                batchArgs.add(new Object[] { quantity, now, productId }));
+        return jdbcTemplate.batchUpdate(INCREMENT_STOCK_SQL, batchArgs);
+    }
+
+    @Override
+    public Map<Long, Integer> findStockByIds(Collection<Long> productIds) {
+        Map<Long, Integer> stockById = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return stockById;
+        }
+        String placeholders = String.join(",", Collections.nCopies(productIds.size(), "?"));
+        jdbcTemplate.query(String.format(SELECT_STOCK_SQL, placeholders),
+                (RowCallbackHandler) rs -> stockById.put(rs.getLong("id"), rs.getInt("stock")),
+                productIds.toArray());
+        return stockById;
+    }
+}
@@ -0,0 +1,720 @@
+package com.ecommerce.application.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.dtos.ProductSuggestionDto;
+import com.ecommerce.application.repositary.ProductRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Prefix trie over product names for type-ahead suggestions
+ * Radix trie: single-child chains are compressed into one edge labelled with their text,
+ * so a name's unshared tail costs one node rather than one per character
+ * Every node keeps the top-k products of its subtree ranked by stock, so a
+ * lookup is a walk down the prefix with no subtree scan
+ * Names are indexed from their start and from the start of each of their first words
+ * Stock changes that bypass index(), such as orders and released reservations, re-rank
+ * through restockAfterCommit, which reads the new stock on a single background thread so
+ * the order path never takes a second pool connection
+ */
+@Slf4j
+@Component
+public class ProductAutocomplete {
+
+    private static final int MAX_WORD_STARTS = 4;
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final int BUILD_CHUNK_SIZE = 1000;
+    private static final long[] NO_IDS = new long[0];
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_NODES = new Node[0];
+
+    // rough HotSpot sizes with compressed oops, for the memory gauge
+    private static final long NODE_OVERHEAD_BYTES = 32;
+    private static final long STRING_OVERHEAD_BYTES = 40;
+    private static final long ARRAY_OVERHEAD_BYTES = 16;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int topK;
+    private final ExecutorService restocker;
+    // products whose stock changed since the restocker last read it; queued reads coalesce
+    private final Set<Long> pendingRestock = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean restockQueued = new AtomicBoolean();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Trie trie;
+    // trie being built, the products written since it started and the stock read for
+    // products not streamed yet; all guarded by the lock
+    private Trie building;
+    private final Set<Long> writtenDuringBuild = new HashSet<>();
+    private final Map<Long, Integer> restockedDuringBuild = new HashMap<>();
+
+    public ProductAutocomplete(ProductRepository productRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${catalog.autocomplete.top-k:10}") int topK) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+        this.topK = topK;
+        this.trie = new Trie(topK);
+        this.restocker = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "autocomplete-restock");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("product.autocomplete.products", this, ProductAutocomplete::size)
+                .description("Products in the autocomplete trie").register(meterRegistry);
+        Gauge.builder("product.autocomplete.nodes", this, ProductAutocomplete::nodeCount)
+                .description("Nodes in the autocomplete trie").register(meterRegistry);
+        Gauge.builder("product.autocomplete.bytes.per.product", this, ProductAutocomplete::bytesPerProduct)
+                .description("Estimated heap size of the autocomplete trie per product").register(meterRegistry);
+    }
+
+    /**
+     * Build the trie from the whole catalog and swap it in atomically
+     * Writes and restocks made while the build streams go to both the live and the new trie,
+     * and streamed rows of products written meanwhile are skipped, so the swap loses none of them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startNanos = System.nanoTime();
+        Trie rebuilt = new Trie(topK);
+        lock.writeLock().lock();
+        try {
+            building = rebuilt;
+            writtenDuringBuild.clear();
+            restockedDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        boolean built = false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Product> chunk = new ArrayList<>(BUILD_CHUNK_SIZE);
+                try (Stream<Product> products = productRepository.streamAllWithCategory()) {
+                    products.forEach(product -> {
+                        chunk.add(product);
+                        if (chunk.size() == BUILD_CHUNK_SIZE) {
+                            addStreamed(rebuilt, chunk);
+                            chunk.clear();
+                            entityManager.clear();
+                        }
+                    });
+                }
+                addStreamed(rebuilt, chunk);
+            });
+            built = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (built) {
+                    trie = rebuilt;
+                }
+                building = null;
+                writtenDuringBuild.clear();
+                restockedDuringBuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Autocomplete trie built with {} products and {} nodes (~{} bytes per product) in {} ms",
+                rebuilt.products.size(), rebuilt.nodeCount, Math.round(rebuilt.bytesPerProduct()),
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Add or replace a product
+     */
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            trie.remove(product.getId());
+            trie.put(product.getId(), product.getName(), product.getStock());
+            if (building != null) {
+                building.remove(product.getId());
+                building.put(product.getId(), product.getName(), product.getStock());
+                writtenDuringBuild.add(product.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-rank products by their committed stock once the surrounding transaction commits,
+     * or now if there is none
+     * The caller only queues the ids; the restocker reads their stock in its own read-only
+     * transaction, folding ids queued meanwhile into one query; products not in the trie
+     * are ignored
+     */
+    public void restockAfterCommit(Collection<Long> productIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    queueRestock(productIds);
+                }
+            });
+        } else {
+            queueRestock(productIds);
+        }
+    }
+
+    /**
+     * Wait until every restock queued so far has been applied
+     */
+    void awaitRestocks() throws InterruptedException, ExecutionException {
+        restocker.submit(() -> { }).get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        restocker.shutdownNow();
+    }
+
+    private void queueRestock(Collection<Long> productIds) {
+        pendingRestock.addAll(productIds);
+        if (restockQueued.compareAndSet(false, true)) {
+            try {
+                restocker.execute(this::drainRestock);
+            } catch (RejectedExecutionException e) {
+                restockQueued.set(false);
+                log.debug("Autocomplete restock skipped during shutdown");
+            }
+        }
+    }
+
+    private void drainRestock() {
+        // cleared before the ids are taken, so ids added from now on queue another drain
+        restockQueued.set(false);
+        List<Long> productIds = new ArrayList<>(pendingRestock);
+        if (productIds.isEmpty()) {
+            return;
+        }
+        pendingRestock.removeAll(productIds);
+        try {
+            restock(transactionTemplate.execute(status -> productRepository.findStockByIds(productIds)));
+        } catch (RuntimeException e) {
+            log.warn("Autocomplete restock of {} products failed; their ranking may lag until the next write",
+                    productIds.size(), e);
+        }
+    }
+
+    /**
+     * Re-rank products whose stock differs from the indexed one
+     */
+    void restock(Map<Long, Integer> stockById) {
+        lock.writeLock().lock();
+        try {
+            stockById.forEach((id, stock) -> {
+                trie.restock(id, stock);
+                if (building != null && !building.restock(id, stock) && !writtenDuringBuild.contains(id)) {
+                    // not streamed yet; its streamed row may be older than this stock
+                    restockedDuringBuild.put(id, stock);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product
+     */
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            trie.remove(productId);
+            if (building != null) {
+                building.remove(productId);
+                writtenDuringBuild.add(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suggest products whose name, or one of its first words, starts with the prefix
+     */
+    public List<ProductSuggestionDto> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = trie.find(key);
+            if (node == null) {
+                return List.of();
+            }
+            int count = Math.min(limit, node.top.length);
+            List<ProductSuggestionDto> suggestions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Entry entry = trie.products.get(node.top[i]);
+                suggestions.add(ProductSuggestionDto.builder()
+                        .id(node.top[i])
+                        .name(entry.name())
+                        .build());
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of products in the trie
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return trie.products.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of trie nodes
+     */
+    public long nodeCount() {
+        lock.readLock().lock();
+        try {
+            return trie.nodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Estimated heap bytes of the trie nodes per indexed product, excluding the product map
+     */
+    public double bytesPerProduct() {
+        lock.readLock().lock();
+        try {
+            return trie.bytesPerProduct();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add a chunk of streamed products to the trie being built, unless written since the build
+     * started; products restocked meanwhile take the newer stock
+     */
+    private void addStreamed(Trie rebuilt, List<Product> products) {
+        lock.writeLock().lock();
+        try {
+            for (Product product : products) {
+                if (!writtenDuringBuild.contains(product.getId())) {
+                    Integer stock = restockedDuringBuild.remove(product.getId());
+                    rebuilt.put(product.getId(), product.getName(), stock != null ? stock : product.getStock());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String normalize(String text) {
+        String key = String.join(" ", Tokenizer.tokenize(text));
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    /**
+     * Keys for a name: the whole name plus the remainder after each of its first word boundaries
+     */
+    private static List<String> keysFor(String name) {
+        List<String> tokens = Tokenizer.tokenize(name);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < tokens.size() && i < MAX_WORD_STARTS; i++) {
+            String key = String.join(" ", tokens.subList(i, tokens.size()));
+            key = key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+            if (!keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private static int commonPrefixLength(String key, int from, String label) {
+        int max = Math.min(label.length(), key.length() - from);
+        int length = 0;
+        while (length < max && key.charAt(from + length) == label.charAt(length)) {
+            length++;
+        }
+        return length;
+    }
+
+    private static long arrayBytes(int length, int elementBytes) {
+        return length == 0 ? 0 : ARRAY_OVERHEAD_BYTES + (long) length * elementBytes;
+    }
+
+    private record Entry(String name, int score) {
+    }
+
+    /**
+     * Radix trie node: the label of the edge into it, children sorted by the first
+     * character of their label, and the ranked product ids of its subtree
+     */
+    private static final class Node {
+        private String label;
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_NODES;
+        private long[] terminals = NO_IDS;
+        private long[] top = NO_IDS;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        void addChild(Node child) {
+            char c = child.label.charAt(0);
+            int index = -Arrays.binarySearch(keys, c) - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            newKeys[index] = c;
+            newChildren[index] = child;
+            System.arraycopy(keys, index, newKeys, index + 1, keys.length - index);
+            System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        /**
+         * Replace the child whose label starts with the same character
+         */
+        void replaceChild(Node child) {
+            children[Arrays.binarySearch(keys, child.label.charAt(0))] = child;
+        }
+
+        void removeChild(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            if (index < 0) {
+                return;
+            }
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        /**
+         * Absorb the only child, joining the two edges into one
+         */
+        void mergeWithChild() {
+            Node child = children[0];
+            label = label + child.label;
+            keys = child.keys;
+            children = child.children;
+            terminals = child.terminals;
+            top = child.top;
+        }
+
+        boolean isEmpty() {
+            return keys.length == 0 && terminals.length == 0;
+        }
+
+        long estimatedBytes() {
+            return NODE_OVERHEAD_BYTES + STRING_OVERHEAD_BYTES + label.length()
+                    + arrayBytes(keys.length, Character.BYTES) + arrayBytes(children.length, Integer.BYTES)
+                    + arrayBytes(terminals.length, Long.BYTES) + arrayBytes(top.length, Long.BYTES);
+        }
+    }
+
+    /**
+     * Trie state; guarded by the enclosing lock once published
+     * estimatedBytes is kept current by taking out each touched node's size before a
+     * change and adding it back afterwards
+     */
+    private static final class Trie {
+        private final int topK;
+        private final Node root = new Node("");
+        private final Map<Long, Entry> products = new HashMap<>();
+        private long nodeCount = 1;
+        private long estimatedBytes = root.estimatedBytes();
+
+        Trie(int topK) {
+            this.topK = topK;
+        }
+
+        /**
+         * Node whose subtree holds every key starting with the given one; a key that ends
+         * inside an edge finds the node below it
+         */
+        Node find(String key) {
+            Node node = root;
+            int position = 0;
+            while (position < key.length()) {
+                Node child = node.child(key.charAt(position));
+                if (child == null) {
+                    return null;
+                }
+                int matched = commonPrefixLength(key, position, child.label);
+                if (matched < child.label.length() && position + matched < key.length()) {
+                    return null;
+                }
+                position += matched;
+                node = child;
+            }
+            return node;
+        }
+
+        double bytesPerProduct() {
+            return products.isEmpty() ? 0 : (double) estimatedBytes / products.size();
+        }
+
+        void put(Long id, String name, Integer stock) {
+            Entry entry = new Entry(name, stock != null ? stock : 0);
+            products.put(id, entry);
+            for (String key : keysFor(name)) {
+                List<Node> path = new ArrayList<>();
+                path.add(root);
+                estimatedBytes -= root.estimatedBytes();
+                Node node = root;
+                int position = 0;
+                while (position < key.length()) {
+                    Node child = node.child(key.charAt(position));
+                    if (child == null) {
+                        child = new Node(key.substring(position));
+                        node.addChild(child);
+                        nodeCount++;
+                        path.add(child);
+                        node = child;
+                        break;
+                    }
+                    int matched = commonPrefixLength(key, position, child.label);
+                    if (matched < child.label.length()) {
+                        // split the edge at the first differing character
+                        estimatedBytes -= child.estimatedBytes();
+                        Node middle = new Node(child.label.substring(0, matched));
+                        child.label = child.label.substring(matched);
+                        estimatedBytes += child.estimatedBytes();
+                        middle.addChild(child);
+                        middle.top = child.top;
+                        node.replaceChild(middle);
+                        nodeCount++;
+                        child = middle;
+                    } else {
+                        estimatedBytes -= child.estimatedBytes();
+                    }
+                    path.add(child);
+                    node = child;
+                    position += matched;
+                }
+                node.terminals = append(node.terminals, id);
+                for (int i = path.size() - 1; i >= 0; i--) {
+                    recompute(path.get(i));
+                    estimatedBytes += path.get(i).estimatedBytes();
+                }
+            }
+        }
+
+        void remove(Long id) {
+            Entry entry = products.remove(id);
+            if (entry == null) {
+                return;
+            }
+            for (String key : keysFor(entry.name())) {
+                List<Node> path = findPath(key);
+                if (path == null) {
+                    continue;
+                }
+                for (Node node : path) {
+                    estimatedBytes -= node.estimatedBytes();
+                }
+                // nodes no longer in the trie, whose size must not be added back
+                boolean[] detached = new boolean[path.size()];
+                Node last = path.get(path.size() - 1);
+                last.terminals = without(last.terminals, id);
+                for (int i = path.size() - 1; i >= 0; i--) {
+                    Node node = path.get(i);
+                    recompute(node);
+                    if (i == 0) {
+                        continue;
+                    }
+                    if (node.isEmpty()) {
+                        path.get(i - 1).removeChild(node.label.charAt(0));
+                        nodeCount--;
+                        detached[i] = true;
+                    } else if (node.terminals.length == 0 && node.children.length == 1) {
+                        Node child = node.children[0];
+                        if (i + 1 < path.size() && path.get(i + 1) == child) {
+                            detached[i + 1] = true;
+                        } else {
+                            estimatedBytes -= child.estimatedBytes();
+                        }
+                        node.mergeWithChild();
+                        nodeCount--;
+                    }
+                }
+                for (int i = 0; i < path.size(); i++) {
+                    if (!detached[i]) {
+                        estimatedBytes += path.get(i).estimatedBytes();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Re-rank a product if its stock changed
+         * @return false if the product is not in the trie
+         */
+        boolean restock(Long id, int stock) {
+            Entry entry = products.get(id);
+            if (entry == null) {
+                return false;
+            }
+            if (entry.score() != stock) {
+                remove(id);
+                put(id, entry.name(), stock);
+            }
+            return true;
+        }
+
+        /**
+         * Nodes from the root to the one the key ends at, or null if the key is not in the trie
+         */
+        private List<Node> findPath(String key) {
+            List<Node> path = new ArrayList<>();
+            path.add(root);
+            Node node = root;
+            int position = 0;
+            while (position < key.length()) {
+                node = node.child(key.charAt(position));
+                if (node == null || !key.startsWith(node.label, position)) {
+                    return null;
+                }
+                path.add(node);
+                position += node.label.length();
+            }
+            return path;
+        }
+
+        /**
+         * Rebuild a node's ranking from its own terminals and its children's rankings
+         */
+        private void recompute(Node node) {
+            long[] best = new long[topK];
+            int size = 0;
+            size = offerAll(best, size, node.terminals);
+            for (Node child : node.children) {
+                size = offerAll(best, size, child.top);
+            }
+            node.top = size == best.length ? best : Arrays.copyOf(best, size);
+        }
+
+        /**
+         * Insert candidates into a list kept sorted by descending score, then ascending id
+         * Ids already dropped from the product map are stale entries of a path not yet recomputed
+         */
+        private int offerAll(long[] best, int size, long[] candidates) {
+            for (long candidate : candidates) {
+                Entry entry = products.get(candidate);
+                if (entry == null || contains(best, size, candidate)) {
+                    continue;
+                }
+                int score = entry.score();
+                int position = size;
+                while (position > 0 && ranksBefore(score, candidate, best[position - 1])) {
+                    position--;
+                }
+                if (position >= best.length) {
+                    continue;
+                }
+                int end = Math.min(size, best.length - 1);
+                System.arraycopy(best, position, best, position + 1, end - position);
+                best[position] = candidate;
+                size = Math.min(size + 1, best.length);
+            }
+            return size;
+        }
+
+        private boolean ranksBefore(int score, long id, long other) {
+            int otherScore = products.get(other).score();
+            return score > otherScore || (score == otherScore && id < other);
+        }
+
+        private static boolean contains(long[] ids, int size, long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static long[] append(long[] ids, long id) {
+            for (long existing : ids) {
+                if (existing == id) {
+                    return ids;
+                }
+            }
+            long[] result = Arrays.copyOf(ids, ids.length + 1);
+            result[ids.length] = id;
+            return result;
+        }
+
+        private static long[] without(long[] ids, long id) {
+            int count = 0;
+            long[] result = new long[ids.length];
+            for (long existing : ids) {
+                if (existing != id) {
+                    result[count++] = existing;
+                }
+            }
+            return count == ids.length ? ids : Arrays.copyOf(result, count);
+        }
+    }
+}
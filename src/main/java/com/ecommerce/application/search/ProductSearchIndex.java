@@ -0,0 +1,584 @@
+package com.ecommerce.application.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.dtos.ProductSearchResultDto;
+import com.ecommerce.application.repositary.ProductRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory inverted index over product name and description
+ * Built from the database at startup and kept current by ProductService writes
+ * Postings are primitive arrays of document ordinals; removed products are
+ * tombstoned and compacted away once they make up a large share of the index
+ * A query token also matches terms it is a prefix of; when a prefix has more than
+ * MAX_PREFIX_EXPANSIONS completions only those with the most postings are used, so
+ * common completions are never crowded out by rare ones that sort earlier
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+    private static final float EXACT_MATCH_BOOST = 2f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int MIN_COMPACTION_TOMBSTONES = 1000;
+    private static final int BUILD_CHUNK_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private State state = new State();
+    // index being built and the products written since it started; both guarded by the lock
+    private State building;
+    private final Set<Long> writtenDuringBuild = new HashSet<>();
+
+    public ProductSearchIndex(ProductRepository productRepository,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+
+        Gauge.builder("product.search.index.documents", this, ProductSearchIndex::size)
+                .description("Products in the search index").register(meterRegistry);
+        Gauge.builder("product.search.index.terms", this, ProductSearchIndex::termCount)
+                .description("Distinct terms in the search index").register(meterRegistry);
+        Gauge.builder("product.search.index.postings", this, ProductSearchIndex::postingCount)
+                .description("Posting entries held by the search index").register(meterRegistry);
+    }
+
+    /**
+     * Build the index from the whole catalog and swap it in atomically
+     * Writes made while the build streams go to both the live and the new index, and
+     * streamed rows of products written meanwhile are skipped, so the swap loses none of them
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startNanos = System.nanoTime();
+        State rebuilt = new State();
+        lock.writeLock().lock();
+        try {
+            building = rebuilt;
+            writtenDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        boolean built = false;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Product> chunk = new ArrayList<>(BUILD_CHUNK_SIZE);
+                try (Stream<Product> products = productRepository.streamAllWithCategory()) {
+                    products.forEach(product -> {
+                        chunk.add(product);
+                        if (chunk.size() == BUILD_CHUNK_SIZE) {
+                            addStreamed(rebuilt, chunk);
+                            chunk.clear();
+                            entityManager.clear();
+                        }
+                    });
+                }
+                addStreamed(rebuilt, chunk);
+            });
+            built = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (built) {
+                    state = rebuilt;
+                }
+                building = null;
+                writtenDuringBuild.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Search index built with {} products and {} terms in {} ms",
+                rebuilt.ordinals.size(), rebuilt.terms.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * Add or replace a product in the index
+     */
+    public void index(Product product) {
+        lock.writeLock().lock();
+        try {
+            state.remove(product.getId());
+            state.add(product);
+            if (building != null) {
+                building.remove(product.getId());
+                building.add(product);
+                writtenDuringBuild.add(product.getId());
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a product from the index
+     */
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            state.remove(productId);
+            if (building != null) {
+                building.remove(productId);
+                writtenDuringBuild.add(productId);
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find products matching every query token, by exact term or prefix
+     * @param categoryId optional category filter
+     * @return up to limit hits ordered by descending score
+     */
+    public List<ProductSearchResultDto> search(String query, Long categoryId, int limit) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Scores scores = new Scores();
+            state.match(tokens.get(0), scores);
+            if (tokens.size() > 1) {
+                Scores tokenScores = new Scores();
+                for (String token : tokens.subList(1, tokens.size())) {
+                    tokenScores.clear();
+                    state.match(token, tokenScores);
+                    scores.intersect(tokenScores);
+                    if (scores.size == 0) {
+                        break;
+                    }
+                }
+            }
+
+            TopHits top = new TopHits(limit);
+            for (int i = 0; i < scores.size; i++) {
+                int ordinal = scores.doc(i);
+                IndexedProduct product = state.documents.get(ordinal);
+                if (product == null || (categoryId != null && product.categoryId() != categoryId)) {
+                    continue;
+                }
+                top.offer(ordinal, scores.score(i));
+            }
+
+            top.sortBestFirst();
+            List<ProductSearchResultDto> results = new ArrayList<>(top.size);
+            for (int i = 0; i < top.size; i++) {
+                IndexedProduct product = state.documents.get(top.ordinals[i]);
+                results.add(ProductSearchResultDto.builder()
+                        .id(product.id())
+                        .name(product.name())
+                        .price(product.price())
+                        .categoryId(product.categoryId())
+                        .score(top.scores[i])
+                        .build());
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of live products in the index
+     */
+    public int size() {
+        return read(s -> s.ordinals.size());
+    }
+
+    /**
+     * Number of distinct terms in the index
+     */
+    public int termCount() {
+        return read(s -> s.terms.size());
+    }
+
+    /**
+     * Number of posting entries, a proxy for the index memory footprint
+     */
+    public long postingCount() {
+        return read(State::postingCount);
+    }
+
+    private <T> T read(Function<State, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(state);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add a chunk of streamed products to the index being built, unless written since the build started
+     */
+    private void addStreamed(State rebuilt, List<Product> products) {
+        lock.writeLock().lock();
+        try {
+            for (Product product : products) {
+                if (!writtenDuringBuild.contains(product.getId())) {
+                    rebuilt.add(product);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild postings without tombstones once they exceed a quarter of the documents
+     * Caller must hold the write lock
+     */
+    private void compactIfNeeded() {
+        if (state.tombstones >= MIN_COMPACTION_TOMBSTONES && state.tombstones * 4 > state.documents.size()) {
+            state = state.compact();
+        }
+    }
+
+    private record IndexedProduct(long id, long categoryId, String name, BigDecimal price) {
+    }
+
+    /**
+     * Mutable index structures; guarded by the enclosing lock once published
+     */
+    private static final class State {
+        private final TreeMap<String, Postings> terms = new TreeMap<>();
+        private final List<IndexedProduct> documents = new ArrayList<>();
+        private final Map<Long, Integer> ordinals = new HashMap<>();
+        private int tombstones;
+
+        void add(Product product) {
+            IndexedProduct indexed = new IndexedProduct(product.getId(), product.getCategory().getId(),
+                    product.getName(), product.getPrice());
+            Map<String, Float> weights = new HashMap<>();
+            for (String token : Tokenizer.tokenize(product.getName())) {
+                weights.merge(token, NAME_WEIGHT, Float::sum);
+            }
+            for (String token : Tokenizer.tokenize(product.getDescription())) {
+                weights.merge(token, DESCRIPTION_WEIGHT, Float::sum);
+            }
+            add(indexed, weights);
+        }
+
+        void add(IndexedProduct product, Map<String, Float> weights) {
+            int ordinal = documents.size();
+            documents.add(product);
+            ordinals.put(product.id(), ordinal);
+            weights.forEach((token, weight) -> terms.computeIfAbsent(token, t -> new Postings()).add(ordinal, weight));
+        }
+
+        void remove(Long productId) {
+            Integer ordinal = ordinals.remove(productId);
+            if (ordinal != null) {
+                documents.set(ordinal, null);
+                tombstones++;
+            }
+        }
+
+        /**
+         * Add the best score of each document matching the token to scores
+         */
+        void match(String token, Scores scores) {
+            Postings exact = terms.get(token);
+            if (exact != null) {
+                exact.collect(scores, EXACT_MATCH_BOOST);
+            }
+            if (token.length() >= MIN_PREFIX_LENGTH) {
+                for (Postings postings : expansions(token)) {
+                    postings.collect(scores, 1f);
+                }
+            }
+        }
+
+        /**
+         * Postings of the terms the token is a strict prefix of, capped to the largest ones
+         */
+        private Collection<Postings> expansions(String token) {
+            Collection<Postings> completions = terms.subMap(token, false, token + Character.MAX_VALUE, false).values();
+            if (completions.size() <= MAX_PREFIX_EXPANSIONS) {
+                return completions;
+            }
+            // stable sort, so equally sized completions keep their term order
+            List<Postings> largest = new ArrayList<>(completions);
+            largest.sort((a, b) -> Integer.compare(b.size, a.size));
+            return largest.subList(0, MAX_PREFIX_EXPANSIONS);
+        }
+
+        long postingCount() {
+            long count = 0;
+            for (Postings postings : terms.values()) {
+                count += postings.size;
+            }
+            return count;
+        }
+
+        State compact() {
+            int[] remap = new int[documents.size()];
+            State compacted = new State();
+            for (int ordinal = 0; ordinal < documents.size(); ordinal++) {
+                IndexedProduct product = documents.get(ordinal);
+                if (product == null) {
+                    remap[ordinal] = -1;
+                } else {
+                    remap[ordinal] = compacted.documents.size();
+                    compacted.documents.add(product);
+                    compacted.ordinals.put(product.id(), remap[ordinal]);
+                }
+            }
+            terms.forEach((token, postings) -> {
+                Postings remapped = postings.remap(remap);
+                if (remapped.size > 0) {
+                    compacted.terms.put(token, remapped);
+                }
+            });
+            return compacted;
+        }
+    }
+
+    /**
+     * Growable parallel arrays of document ordinals and term weights
+     * Ordinals are appended in increasing order
+     */
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private float[] weights = new float[2];
+        private int size;
+
+        void add(int doc, float weight) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            docs[size] = doc;
+            weights[size] = weight;
+            size++;
+        }
+
+        void collect(Scores scores, float boost) {
+            for (int i = 0; i < size; i++) {
+                scores.max(docs[i], weights[i] * boost);
+            }
+        }
+
+        Postings remap(int[] remap) {
+            Postings remapped = new Postings();
+            for (int i = 0; i < size; i++) {
+                int doc = remap[docs[i]];
+                if (doc >= 0) {
+                    remapped.add(doc, weights[i]);
+                }
+            }
+            return remapped;
+        }
+    }
+
+    /**
+     * Score per matched document ordinal in an open-addressing int to float map
+     * Sized by the number of matches rather than the catalog, so a query allocates little
+     * Entries are listed in insertion order; weights are always positive, so 0 means no match
+     * Once intersected a map is only read, since dropped entries stay in its table
+     */
+    private static final class Scores {
+        private static final int INITIAL_CAPACITY = 64;
+
+        // ordinal + 1 per slot, 0 for an empty one; at most half the slots are used
+        private int[] keys = new int[INITIAL_CAPACITY];
+        private float[] values = new float[INITIAL_CAPACITY];
+        private int[] slots = new int[INITIAL_CAPACITY / 2];
+        private int size;
+
+        int doc(int index) {
+            return keys[slots[index]] - 1;
+        }
+
+        float score(int index) {
+            return values[slots[index]];
+        }
+
+        void max(int doc, float score) {
+            int slot = slotOf(doc);
+            if (keys[slot] == 0) {
+                if (size == slots.length) {
+                    grow();
+                    slot = slotOf(doc);
+                }
+                keys[slot] = doc + 1;
+                values[slot] = score;
+                slots[size++] = slot;
+            } else if (score > values[slot]) {
+                values[slot] = score;
+            }
+        }
+
+        float get(int doc) {
+            int slot = slotOf(doc);
+            return keys[slot] == 0 ? 0f : values[slot];
+        }
+
+        /**
+         * Keep only documents also matched by other, adding their scores
+         */
+        void intersect(Scores other) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int slot = slots[i];
+                float score = other.get(keys[slot] - 1);
+                if (score > 0f) {
+                    values[slot] += score;
+                    slots[kept++] = slot;
+                }
+            }
+            size = kept;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0);
+            size = 0;
+        }
+
+        private int slotOf(int doc) {
+            int mask = keys.length - 1;
+            int hash = doc * 0x9E3779B9;
+            int slot = (hash ^ (hash >>> 16)) & mask;
+            while (keys[slot] != 0 && keys[slot] != doc + 1) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            int[] oldKeys = keys;
+            float[] oldValues = values;
+            int[] oldSlots = slots;
+            keys = new int[oldKeys.length * 2];
+            values = new float[oldValues.length * 2];
+            slots = new int[oldSlots.length * 2];
+            for (int i = 0; i < size; i++) {
+                int slot = slotOf(oldKeys[oldSlots[i]] - 1);
+                keys[slot] = oldKeys[oldSlots[i]];
+                values[slot] = oldValues[oldSlots[i]];
+                slots[i] = slot;
+            }
+        }
+    }
+
+    /**
+     * Bounded min-heap of (score, ordinal) in parallel primitive arrays
+     * Equal scores rank the lower ordinal, the earlier indexed product, first
+     */
+    private static final class TopHits {
+        private final int[] ordinals;
+        private final float[] scores;
+        private int size;
+
+        TopHits(int limit) {
+            ordinals = new int[limit];
+            scores = new float[limit];
+        }
+
+        void offer(int ordinal, float score) {
+            if (size < ordinals.length) {
+                ordinals[size] = ordinal;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (ranksBefore(score, ordinal, scores[0], ordinals[0])) {
+                ordinals[0] = ordinal;
+                scores[0] = score;
+                siftDown(0, size);
+            }
+        }
+
+        /**
+         * Heap sort in place, best hit first; the heap is unusable afterwards
+         */
+        void sortBestFirst() {
+            for (int end = size - 1; end > 0; end--) {
+                swap(0, end);
+                siftDown(0, end);
+            }
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!ranksBefore(scores[parent], ordinals[parent], scores[index], ordinals[index])) {
+                    return;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index, int end) {
+            while (true) {
+                int lowest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < end && ranksBefore(scores[lowest], ordinals[lowest], scores[left], ordinals[left])) {
+                    lowest = left;
+                }
+                if (right < end && ranksBefore(scores[lowest], ordinals[lowest], scores[right], ordinals[right])) {
+                    lowest = right;
+                }
+                if (lowest == index) {
+                    return;
+                }
+                swap(index, lowest);
+                index = lowest;
+            }
+        }
+
+        private static boolean ranksBefore(float score, int ordinal, float otherScore, int otherOrdinal) {
+            return score > otherScore || (score == otherScore && ordinal < otherOrdinal);
+        }
+
+        private void swap(int i, int j) {
+            int ordinal = ordinals[i];
+            ordinals[i] = ordinals[j];
+            ordinals[j] = ordinal;
+            float score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.application.security;
+
+import java.security.Principal;
+
+import com.ecommerce.application.entity.enums.Role;
+
+/**
+ * Authenticated principal built from a verified JWT
+ * Carries the user ID and role so controllers never need to reload the user
+ */
+public record AuthenticatedUser(Long userId, String email, Role role) implements Principal {
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
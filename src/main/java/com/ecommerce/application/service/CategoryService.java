@@ -1,5 +1,8 @@
 package com.ecommerce.application.service;
 
+import com.ecommerce.application.cache.CatalogSnapshotStore;
+import com.ecommerce.application.cache.CatalogVersion;
+import com.ecommerce.application.cache.ProductCache;
 import com.ecommerce.application.entity.Category;
 import com.ecommerce.application.entity.dtos.CategoryRequestDto;
 import com.ecommerce.application.entity.dtos.CategoryResponseDto;
@@ -12,7 +15,10 @@ import com.ecommerce.application.util.ValidationUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -28,6 +34,9 @@ public class CategoryService implements ICategoryService {
     private final CategoryRepository categoryRepository;
     private final ValidationUtil validationUtil;
     private final AuthorizationUtil authorizationUtil;
+    private final ProductCache productCache;
+    private final CatalogVersion catalogVersion;
+    private final CatalogSnapshotStore catalogSnapshotStore;
 
     /**
      * Create a new category (ADMIN only)
@@ -53,6 +62,8 @@ public class CategoryService implements ICategoryService {
                 .build();
 
         Category savedCategory = categoryRepository.save(category);
+        catalogVersion.bump();
+        refreshCatalogSnapshot();
         log.info("Category created with id: {}", savedCategory.getId());
 
         return mapToCategoryResponseDto(savedCategory);
@@ -87,6 +98,10 @@ public class CategoryService implements ICategoryService {
         category.setDescription(dto.getDescription() != null ? dto.getDescription().trim() : null);
 
         Category updatedCategory = categoryRepository.save(category);
+        // Cached product snapshots embed the category name
+        productCache.invalidateAll();
+        catalogVersion.bump();
+        refreshCatalogSnapshot();
         log.info("Category updated with id: {}", updatedCategory.getId());
 
         return mapToCategoryResponseDto(updatedCategory);
@@ -109,6 +124,8 @@ public class CategoryService implements ICategoryService {
         }
 
         categoryRepository.deleteById(id);
+        catalogVersion.bump();
+        refreshCatalogSnapshot();
         log.info("Category deleted with id: {}", id);
     }
 
@@ -146,6 +163,28 @@ public class CategoryService implements ICategoryService {
                 .orElseThrow(() -> new ResourceNotFoundException("Category", id));
     }
 
+    /**
+     * Get many category entities with a single query (internal use)
+     * @return the categories that exist, keyed by id; missing ids are left out
+     */
+    @Override
+    public Map<Long, Category> getCategoryEntities(Collection<Long> ids) {
+        return categoryRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+    }
+
+    /**
+     * Re-read all categories after commit and patch the catalog snapshot, renaming products as needed
+     */
+    private void refreshCatalogSnapshot() {
+        catalogSnapshotStore.patchAfterCommit(() -> {
+            List<CategoryResponseDto> categories = categoryRepository.findAll().stream()
+                    .map(this::mapToCategoryResponseDto)
+                    .collect(Collectors.toList());
+            return snapshot -> snapshot.withCategories(categories);
+        });
+    }
+
     /**
      * Map Category entity to CategoryResponseDto
      */
@@ -156,6 +195,7 @@ public class CategoryService implements ICategoryService {
                 .description(category.getDescription())
                 .createdAt(category.getCreatedAt())
                 .updatedAt(category.getUpdatedAt())
+                .version(category.getVersion())
                 .build();
     }
 }
@@ -4,7 +4,9 @@ import com.ecommerce.application.entity.Category;
 import com.ecommerce.application.entity.dtos.CategoryRequestDto;
 import com.ecommerce.application.entity.dtos.CategoryResponseDto;
 import com.ecommerce.application.entity.enums.Role;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Category Service Interface
@@ -17,4 +19,5 @@ public interface ICategoryService {
     CategoryResponseDto getCategoryById(Long id);
     List<CategoryResponseDto> getAllCategories();
     Category getCategoryEntity(Long id);
+    Map<Long, Category> getCategoryEntities(Collection<Long> ids);
 }
@@ -1,19 +1,25 @@
 package com.ecommerce.application.service;
 
+import com.ecommerce.application.entity.dtos.CursorPageDto;
+import com.ecommerce.application.entity.dtos.OrderFilterDto;
 import com.ecommerce.application.entity.dtos.OrderRequestDto;
 import com.ecommerce.application.entity.dtos.OrderResponseDto;
 import com.ecommerce.application.entity.enums.OrderStatus;
 import com.ecommerce.application.entity.enums.Role;
-import java.util.List;
+import java.util.Map;
 
 /**
  * Order Service Interface
  * Defines contracts for order-related business operations
  */
 public interface IOrderService {
-    OrderResponseDto createOrder(OrderRequestDto dto, Long userId, Role userRole);
+    OrderResponseDto createOrder(OrderRequestDto dto, Long userId, String userEmail, Role userRole);
     OrderResponseDto updateOrderStatus(Long orderId, OrderStatus status, Role userRole);
     OrderResponseDto getOrderById(Long orderId, Long userId, Role userRole);
-    List<OrderResponseDto> getUserOrders(Long userId, Role userRole);
-    List<OrderResponseDto> getAllOrders(Role userRole);
+    CursorPageDto<OrderResponseDto> getUserOrders(Long userId, OrderFilterDto filter, Long currentUserId, Role userRole);
+    CursorPageDto<OrderResponseDto> getAllOrders(OrderFilterDto filter, Role userRole);
+    Map<String, Object> getOrderFieldsById(Long orderId, Long userId, Role userRole, String fields);
+    CursorPageDto<Map<String, Object>> getUserOrderFields(Long userId, OrderFilterDto filter, Long currentUserId, Role userRole,
+            String fields);
+    CursorPageDto<Map<String, Object>> getAllOrderFields(OrderFilterDto filter, Role userRole, String fields);
 }
@@ -1,10 +1,18 @@
 package com.ecommerce.application.service;
 
 import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.dtos.CursorPageDto;
+import com.ecommerce.application.entity.dtos.ProductBatchResponseDto;
+import com.ecommerce.application.entity.dtos.ProductFilterDto;
+import com.ecommerce.application.entity.dtos.ProductFilterResponseDto;
 import com.ecommerce.application.entity.dtos.ProductRequestDto;
 import com.ecommerce.application.entity.dtos.ProductResponseDto;
+import com.ecommerce.application.entity.dtos.ProductSearchResultDto;
+import com.ecommerce.application.entity.dtos.ProductSuggestionDto;
 import com.ecommerce.application.entity.enums.Role;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Product Service Interface
@@ -15,8 +23,19 @@ public interface IProductService {
     ProductResponseDto updateProduct(Long id, ProductRequestDto dto, Role userRole);
     void deleteProduct(Long id, Role userRole);
     ProductResponseDto getProductById(Long id);
-    List<ProductResponseDto> getAllProducts();
-    List<ProductResponseDto> getProductsByCategory(Long categoryId);
+    ProductBatchResponseDto<ProductResponseDto> getProductsByIds(List<Long> ids);
+    ProductBatchResponseDto<Map<String, Object>> getProductFieldsByIds(List<Long> ids, String fields);
+    CursorPageDto<ProductResponseDto> getAllProducts(String cursor, Integer limit, String sort);
+    CursorPageDto<ProductResponseDto> getProductsByCategory(Long categoryId, String cursor, Integer limit, String sort);
+    CursorPageDto<Map<String, Object>> getProductFieldsPage(Long categoryId, String cursor, Integer limit, String sort, String fields);
+    ProductFilterResponseDto filterProducts(ProductFilterDto filter);
+    List<ProductSearchResultDto> searchProducts(String query, Long categoryId, Integer limit);
+    List<ProductSuggestionDto> suggestProducts(String prefix, Integer limit);
     Product getProductEntity(Long id);
+    Map<Long, Product> getProductEntities(Collection<Long> ids);
     void reduceStock(Long productId, Integer quantity);
+    void reduceStock(Map<Long, Integer> quantitiesByProductId);
+    List<Long> reduceStockPerOrder(List<Map<Long, Integer>> quantitiesPerOrder);
+    void releaseStock(Map<Long, Integer> quantitiesByProductId);
+    void refreshCatalogSnapshot(Collection<Long> productIds);
 }
@@ -0,0 +1,186 @@
+package com.ecommerce.application.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.application.entity.Order;
+import com.ecommerce.application.entity.OrderItem;
+import com.ecommerce.application.entity.dtos.OrderFilterDto;
+import com.ecommerce.application.entity.enums.ExportFormat;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.exception.BadRequestException;
+import com.ecommerce.application.repositary.OrderRepository;
+import com.ecommerce.application.util.AuthorizationUtil;
+import com.ecommerce.application.util.ExportWriter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Order Export Service
+ * Streams orders with their line items from a database cursor straight to the response
+ * The cursor walks items grouped by order, so an order is written as soon as its last
+ * item is read; nothing beyond the current row is held and the persistence context is
+ * cleared after every chunk
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    private final OrderRepository orderRepository;
+    private final AuthorizationUtil authorizationUtil;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${orders.export.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Check access and the filter before the response starts streaming (ADMIN only)
+     */
+    public void checkExport(OrderFilterDto filter, Role userRole) {
+        authorizationUtil.checkAdminAccess(userRole, "export orders");
+
+        if (filter.getFrom() != null && filter.getTo() != null && !filter.getTo().isAfter(filter.getFrom())) {
+            throw new BadRequestException("to", "Must be after from");
+        }
+    }
+
+    /**
+     * Write the matching orders to the output stream
+     * NDJSON has one line per order with its items nested; CSV has one row per line item
+     * @return number of line items written
+     */
+    @Transactional(readOnly = true)
+    public long exportOrders(OutputStream outputStream, ExportFormat format, OrderFilterDto filter) throws IOException {
+        log.info("Exporting orders as {}", format);
+        long startNanos = System.nanoTime();
+        long rows = 0;
+        long orders = 0;
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            out.write("orderId,userId,userEmail,status,totalAmount,createdAt,updatedAt,"
+                    + "productId,productName,quantity,price,lineTotal\n");
+        }
+
+        Long currentOrderId = null;
+        try (Stream<OrderItem> items = orderRepository.streamItemsForExport(
+                filter.getStatus(), filter.getFrom(), filter.getTo())) {
+            Iterator<OrderItem> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                OrderItem item = iterator.next();
+                Order order = item.getOrder();
+                boolean firstItem = !order.getId().equals(currentOrderId);
+                if (firstItem) {
+                    orders++;
+                }
+
+                if (format == ExportFormat.CSV) {
+                    writeCsv(out, order, item);
+                } else {
+                    if (firstItem) {
+                        if (currentOrderId != null) {
+                            out.write("]}\n");
+                        }
+                        writeNdjsonOrder(out, order);
+                    } else {
+                        out.write(',');
+                    }
+                    writeNdjsonItem(out, item);
+                }
+                currentOrderId = order.getId();
+
+                if (++rows % chunkSize == 0) {
+                    out.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        if (format == ExportFormat.NDJSON && currentOrderId != null) {
+            out.write("]}\n");
+        }
+        out.flush();
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Exported {} orders with {} items in {} ms ({} rows/sec)",
+                orders, rows, elapsedMillis, rows * 1000 / elapsedMillis);
+        return rows;
+    }
+
+    /**
+     * Open an order object up to its items array; items and the closing brackets follow
+     */
+    private void writeNdjsonOrder(Writer out, Order order) throws IOException {
+        out.write("{\"id\":");
+        ExportWriter.writeJsonRaw(out, order.getId());
+        out.write(",\"userId\":");
+        ExportWriter.writeJsonRaw(out, order.getUser().getId());
+        out.write(",\"userEmail\":");
+        ExportWriter.writeJsonString(out, order.getUser().getEmail());
+        out.write(",\"status\":");
+        ExportWriter.writeJsonString(out, order.getStatus().name());
+        out.write(",\"totalAmount\":");
+        ExportWriter.writeJsonRaw(out, order.getTotalAmount());
+        out.write(",\"createdAt\":");
+        ExportWriter.writeJsonString(out, order.getCreatedAt() != null ? order.getCreatedAt().toString() : null);
+        out.write(",\"updatedAt\":");
+        ExportWriter.writeJsonString(out, order.getUpdatedAt() != null ? order.getUpdatedAt().toString() : null);
+        out.write(",\"items\":[");
+    }
+
+    private void writeNdjsonItem(Writer out, OrderItem item) throws IOException {
+        out.write("{\"productId\":");
+        ExportWriter.writeJsonRaw(out, item.getProduct().getId());
+        out.write(",\"productName\":");
+        ExportWriter.writeJsonString(out, item.getProduct().getName());
+        out.write(",\"quantity\":");
+        ExportWriter.writeJsonRaw(out, item.getQuantity());
+        out.write(",\"price\":");
+        ExportWriter.writeJsonRaw(out, item.getPrice());
+        out.write(",\"lineTotal\":");
+        ExportWriter.writeJsonRaw(out, item.getLineTotal());
+        out.write('}');
+    }
+
+    private void writeCsv(Writer out, Order order, OrderItem item) throws IOException {
+        ExportWriter.writeCsvField(out, order.getId());
+        out.write(',');
+        ExportWriter.writeCsvField(out, order.getUser().getId());
+        out.write(',');
+        ExportWriter.writeCsvField(out, order.getUser().getEmail());
+        out.write(',');
+        ExportWriter.writeCsvField(out, order.getStatus());
+        out.write(',');
+        ExportWriter.writeCsvField(out, order.getTotalAmount());
+        out.write(',');
+        ExportWriter.writeCsvField(out, order.getCreatedAt());
+        out.write(',');
+        ExportWriter.writeCsvField(out, order.getUpdatedAt());
+        out.write(',');
+        ExportWriter.writeCsvField(out, item.getProduct().getId());
+        out.write(',');
+        ExportWriter.writeCsvField(out, item.getProduct().getName());
+        out.write(',');
+        ExportWriter.writeCsvField(out, item.getQuantity());
+        out.write(',');
+        ExportWriter.writeCsvField(out, item.getPrice());
+        out.write(',');
+        ExportWriter.writeCsvField(out, item.getLineTotal());
+        out.write('\n');
+    }
+}
@@ -0,0 +1,169 @@
+package com.ecommerce.application.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.application.cache.IdempotencyKeyStore;
+import com.ecommerce.application.entity.IdempotencyRecord;
+import com.ecommerce.application.entity.dtos.OrderRequestDto;
+import com.ecommerce.application.entity.dtos.OrderResponseDto;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.exception.BadRequestException;
+import com.ecommerce.application.repositary.IdempotencyRecordRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Order Idempotency Service
+ * Creates an order at most once per user and Idempotency-Key
+ * Keys are answered from the in-memory IdempotencyKeyStore; on a miss the idempotency_keys
+ * table is checked, so replays still work after a restart or on another instance
+ * The key row is claimed before the order is created and committed with it, so two
+ * instances racing on the same key cannot both create an order
+ */
+@Slf4j
+@Service
+public class OrderIdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IOrderService orderService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final IdempotencyKeyStore idempotencyKeyStore;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonMapper jsonMapper;
+    private final long retentionHours;
+    private final AtomicLong nextPurgeNanos = new AtomicLong(System.nanoTime());
+
+    private final Counter recovered;
+
+    public OrderIdempotencyService(IOrderService orderService,
+            IdempotencyRecordRepository idempotencyRecordRepository, IdempotencyKeyStore idempotencyKeyStore,
+            TransactionTemplate transactionTemplate, JsonMapper jsonMapper, MeterRegistry meterRegistry,
+            @Value("${orders.idempotency.retention-hours:24}") long retentionHours) {
+        this.orderService = orderService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.idempotencyKeyStore = idempotencyKeyStore;
+        this.transactionTemplate = transactionTemplate;
+        this.jsonMapper = jsonMapper;
+        this.retentionHours = retentionHours;
+        this.recovered = Counter.builder("orders.idempotency.requests").tag("result", "recovered")
+                .description("Order submissions with an Idempotency-Key").register(meterRegistry);
+    }
+
+    /**
+     * Create an order once per key; repeated submissions return the original order
+     * @throws BadRequestException if the key is invalid or was used for a different request
+     */
+    public IdempotencyKeyStore.Result createOrder(OrderRequestDto dto, String idempotencyKey, Long userId,
+            String userEmail, Role userRole) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key", "Must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(dto);
+
+        return idempotencyKeyStore.get(userId + ":" + idempotencyKey, requestHash,
+                () -> createOrRecover(dto, idempotencyKey, requestHash, userId, userEmail, userRole));
+    }
+
+    /**
+     * Replay the order recorded in the database, or create it and record the key
+     */
+    private IdempotencyKeyStore.Result createOrRecover(OrderRequestDto dto, String idempotencyKey,
+            String requestHash, Long userId, String userEmail, Role userRole) {
+        purgeExpiredRecords();
+
+        Optional<IdempotencyRecord> recorded = findRecord(userId, idempotencyKey);
+        if (recorded.isPresent()) {
+            return recover(recorded.get(), requestHash, userId, userRole);
+        }
+
+        try {
+            OrderResponseDto order = transactionTemplate.execute(status -> {
+                IdempotencyRecord record = idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.builder()
+                        .userId(userId)
+                        .idempotencyKey(idempotencyKey)
+                        .requestHash(requestHash)
+                        .build());
+                OrderResponseDto created = orderService.createOrder(dto, userId, userEmail, userRole);
+                record.setOrderId(created.getId());
+                return created;
+            });
+            return new IdempotencyKeyStore.Result(order, false);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance claimed the key first; its order stands and nothing was created here
+            log.info("Idempotency key for user {} claimed concurrently, replaying", userId);
+            IdempotencyRecord winner = idempotencyRecordRepository
+                    .findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .orElseThrow(() -> e);
+            return recover(winner, requestHash, userId, userRole);
+        }
+    }
+
+    private IdempotencyKeyStore.Result recover(IdempotencyRecord record, String requestHash, Long userId,
+            Role userRole) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new BadRequestException("Idempotency-Key", "Already used for a different request");
+        }
+        recovered.increment();
+        log.info("Replaying order {} from the idempotency table", record.getOrderId());
+        return new IdempotencyKeyStore.Result(orderService.getOrderById(record.getOrderId(), userId, userRole), true);
+    }
+
+    /**
+     * Look up a live record; one past its retention period is deleted and ignored
+     */
+    private Optional<IdempotencyRecord> findRecord(Long userId, String idempotencyKey) {
+        Optional<IdempotencyRecord> record = idempotencyRecordRepository
+                .findByUserIdAndIdempotencyKey(userId, idempotencyKey);
+        if (record.isPresent() && record.get().getCreatedAt().isBefore(retentionCutoff())) {
+            idempotencyRecordRepository.delete(record.get());
+            return Optional.empty();
+        }
+        return record;
+    }
+
+    /**
+     * Delete expired records in bulk, at most once per hour across all callers
+     */
+    private void purgeExpiredRecords() {
+        long now = System.nanoTime();
+        long next = nextPurgeNanos.get();
+        if (now - next < 0 || !nextPurgeNanos.compareAndSet(next, now + 3_600_000_000_000L)) {
+            return;
+        }
+        Integer purged = transactionTemplate.execute(
+                status -> idempotencyRecordRepository.deleteCreatedBefore(retentionCutoff()));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private LocalDateTime retentionCutoff() {
+        return LocalDateTime.now().minusHours(retentionHours);
+    }
+
+    /**
+     * SHA-256 of the request body, to detect a key reused for a different order
+     */
+    private String hash(OrderRequestDto dto) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(jsonMapper.writeValueAsBytes(dto)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
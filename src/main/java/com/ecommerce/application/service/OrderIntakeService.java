@@ -0,0 +1,380 @@
+package com.ecommerce.application.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.application.entity.Order;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.dtos.OrderIntakeDto;
+import com.ecommerce.application.entity.dtos.OrderRequestDto;
+import com.ecommerce.application.entity.enums.OrderIntakeStatus;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.exception.BadRequestException;
+import com.ecommerce.application.exception.ResourceNotFoundException;
+import com.ecommerce.application.exception.ServiceUnavailableException;
+import com.ecommerce.application.repositary.OrderRepository;
+import com.ecommerce.application.repositary.ProductRepository;
+import com.ecommerce.application.repositary.UserRepositary;
+import com.ecommerce.application.util.AuthorizationUtil;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Order Intake Service
+ * Asynchronous order submission: requests are validated and put on a bounded queue,
+ * and a few consumer threads drain it in batches, each batch one transaction that
+ * loads products once, reduces stock for all orders together and inserts the orders
+ * as JDBC batches
+ * A full queue rejects new submissions with 503 and Retry-After instead of blocking, and so
+ * does a full status map once no finished order is left to evict
+ */
+@Slf4j
+@Service
+public class OrderIntakeService {
+
+    private final OrderService orderService;
+    private final IProductService productService;
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final UserRepositary userRepositary;
+    private final AuthorizationUtil authorizationUtil;
+    private final TransactionTemplate transactionTemplate;
+    private final StockReservationService stockReservationService;
+
+    private final BlockingQueue<Intake> queue;
+    private final Map<String, Intake> intakes = new ConcurrentHashMap<>();
+    private final Object trackLock = new Object();
+    private final List<Thread> consumers = new ArrayList<>();
+    private final int consumerCount;
+    private final int batchSize;
+    private final int maxTracked;
+    private final long statusTtlNanos;
+    private final long retryAfterSeconds;
+    private volatile boolean running = true;
+
+    private final Counter rejections;
+    private final Counter evictions;
+    private final Counter created;
+    private final Counter failed;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSizes;
+
+    public OrderIntakeService(OrderService orderService, IProductService productService,
+            ProductRepository productRepository, OrderRepository orderRepository, UserRepositary userRepositary,
+            AuthorizationUtil authorizationUtil, TransactionTemplate transactionTemplate,
+            StockReservationService stockReservationService, MeterRegistry meterRegistry,
+            @Value("${orders.intake.queue-capacity:10000}") int queueCapacity,
+            @Value("${orders.intake.consumers:2}") int consumerCount,
+            @Value("${orders.intake.batch-size:100}") int batchSize,
+            @Value("${orders.intake.max-tracked:100000}") int maxTracked,
+            @Value("${orders.intake.status-ttl-seconds:3600}") long statusTtlSeconds,
+            @Value("${orders.intake.retry-after-seconds:1}") long retryAfterSeconds) {
+        this.orderService = orderService;
+        this.productService = productService;
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        this.userRepositary = userRepositary;
+        this.authorizationUtil = authorizationUtil;
+        this.transactionTemplate = transactionTemplate;
+        this.stockReservationService = stockReservationService;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.consumerCount = consumerCount;
+        this.batchSize = batchSize;
+        this.maxTracked = maxTracked;
+        this.statusTtlNanos = statusTtlSeconds * 1_000_000_000L;
+        this.retryAfterSeconds = retryAfterSeconds;
+
+        this.rejections = Counter.builder("orders.intake.rejections")
+                .description("Submissions rejected because the intake queue or status map was full")
+                .register(meterRegistry);
+        this.evictions = Counter.builder("orders.intake.evictions")
+                .description("Finished orders forgotten before their status TTL to stay within max-tracked")
+                .register(meterRegistry);
+        this.created = Counter.builder("orders.intake.orders").tag("result", "created")
+                .description("Queued orders processed").register(meterRegistry);
+        this.failed = Counter.builder("orders.intake.orders").tag("result", "rejected")
+                .description("Queued orders processed").register(meterRegistry);
+        this.batchTimer = Timer.builder("orders.intake.batch.duration")
+                .description("Time spent processing one batch of queued orders")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("orders.intake.batch.size")
+                .description("Orders processed per transaction").register(meterRegistry);
+        Gauge.builder("orders.intake.queue.depth", queue, BlockingQueue::size)
+                .description("Orders waiting for a consumer").register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 1; i <= consumerCount; i++) {
+            Thread thread = new Thread(this::consume, "order-intake-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            consumers.add(thread);
+        }
+    }
+
+    /**
+     * Validate an order and queue it for processing (CUSTOMER only)
+     * Stock is checked when the order is processed, not here
+     * @throws ServiceUnavailableException if the queue or the status map is full
+     */
+    public OrderIntakeDto submit(OrderRequestDto dto, Long userId, Role userRole) {
+        Map<Long, Integer> quantities = orderService.validateOrderRequest(dto, userRole);
+
+        Intake intake = new Intake(UUID.randomUUID().toString(), userId, quantities, LocalDateTime.now());
+        track(intake);
+        if (!queue.offer(intake)) {
+            intakes.remove(intake.handle);
+            log.warn("Order intake queue full, rejecting submission");
+            throw rejected();
+        }
+
+        log.info("Order queued with handle: {}", intake.handle);
+        return intake.toDto();
+    }
+
+    /**
+     * Get the state of a queued order (CUSTOMER views own, ADMIN can view any)
+     */
+    public OrderIntakeDto getIntake(String handle, Long userId, Role userRole) {
+        Intake intake = intakes.get(handle);
+        if (intake == null) {
+            throw new ResourceNotFoundException("Order intake", "handle", handle);
+        }
+        authorizationUtil.checkUserOrAdmin(userRole, userId, intake.userId);
+        return intake.toDto();
+    }
+
+    /**
+     * Consumer loop: wait for one order, then take whatever else is queued up to the batch size
+     * Keeps draining after shutdown starts so accepted orders are not lost
+     */
+    private void consume() {
+        List<Intake> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Intake first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batchSizes.record(batch.size());
+                batchTimer.record(() -> process(batch));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order intake consumer failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Create a batch of orders in one transaction and publish the outcomes after commit
+     * If the transaction fails as a whole, each order is retried in its own transaction
+     */
+    private void process(List<Intake> batch) {
+        long startNanos = System.nanoTime();
+        List<Outcome> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> createOrders(batch));
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                log.warn("Queued order {} failed: {}", batch.get(0).handle, e.getMessage());
+                batch.get(0).finish(null, e.getMessage());
+                failed.increment();
+                return;
+            }
+            log.warn("Batch of {} queued orders failed, retrying one by one: {}", batch.size(), e.getMessage());
+            batch.forEach(intake -> process(List.of(intake)));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Outcome outcome = outcomes.get(i);
+            batch.get(i).finish(outcome.orderId(), outcome.error());
+            (outcome.orderId() != null ? created : failed).increment();
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Processed {} queued orders in {} ms ({} orders/sec)",
+                batch.size(), elapsedMillis, batch.size() * 1000L / elapsedMillis);
+    }
+
+    /**
+     * Resolve products once, reduce stock for all orders together and insert the orders
+     * Orders with a missing product or short stock are rejected without affecting the rest
+     */
+    private List<Outcome> createOrders(List<Intake> batch) {
+        Set<Long> productIds = new HashSet<>();
+        batch.forEach(intake -> productIds.addAll(intake.quantities.keySet()));
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        List<Outcome> outcomes = new ArrayList<>(batch.size());
+        List<Integer> stockable = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Long missingId = batch.get(i).quantities.keySet().stream()
+                    .filter(id -> !products.containsKey(id))
+                    .findFirst()
+                    .orElse(null);
+            if (missingId != null) {
+                outcomes.add(new Outcome(null, new ResourceNotFoundException("Product", missingId).getMessage()));
+            } else {
+                outcomes.add(null);
+                stockable.add(i);
+            }
+        }
+
+        List<Long> shortages = productService.reduceStockPerOrder(
+                stockable.stream().map(i -> batch.get(i).quantities).toList());
+
+        List<Order> orders = new ArrayList<>(stockable.size());
+        List<Integer> orderIndexes = new ArrayList<>(stockable.size());
+        for (int j = 0; j < stockable.size(); j++) {
+            int i = stockable.get(j);
+            Long shortProductId = shortages.get(j);
+            if (shortProductId != null) {
+                outcomes.set(i, new Outcome(null, new BadRequestException("stock",
+                        "Insufficient stock available for product: " + shortProductId).getMessage()));
+                continue;
+            }
+            Intake intake = batch.get(i);
+            orders.add(orderService.buildOrder(userRepositary.getReferenceById(intake.userId),
+                    intake.quantities, products));
+            orderIndexes.add(i);
+        }
+        orderRepository.saveAll(orders);
+        stockReservationService.schedule(orders);
+
+        for (int k = 0; k < orders.size(); k++) {
+            outcomes.set(orderIndexes.get(k), new Outcome(orders.get(k).getId(), null));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Add an order to the status map without ever going past maxTracked
+     * Adding is serialized so no two submissions can take the last free slot
+     */
+    private void track(Intake intake) {
+        synchronized (trackLock) {
+            if (intakes.size() >= maxTracked) {
+                makeRoom(System.nanoTime());
+            }
+            if (intakes.size() >= maxTracked) {
+                log.warn("Order intake tracking {} unfinished orders, rejecting submission", intakes.size());
+                throw rejected();
+            }
+            intakes.put(intake.handle, intake);
+        }
+    }
+
+    /**
+     * Forget finished orders past their status TTL, then the oldest finished ones
+     * Frees a tenth of maxTracked at once, so a full map is not swept on every submission
+     */
+    private void makeRoom(long now) {
+        intakes.values().removeIf(intake -> intake.isExpiredAt(now, statusTtlNanos));
+
+        int excess = intakes.size() - (maxTracked - Math.max(1, maxTracked / 10));
+        if (excess <= 0) {
+            return;
+        }
+        List<Intake> oldest = intakes.values().stream()
+                .filter(Intake::isFinished)
+                .sorted(Comparator.comparingLong(intake -> intake.finishedAtNanos))
+                .limit(excess)
+                .toList();
+        oldest.forEach(intake -> intakes.remove(intake.handle));
+        evictions.increment(oldest.size());
+    }
+
+    private ServiceUnavailableException rejected() {
+        rejections.increment();
+        return new ServiceUnavailableException("Order intake is full, please retry later", retryAfterSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread consumer : consumers) {
+            consumer.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    private record Outcome(Long orderId, String error) {
+    }
+
+    /**
+     * One submitted order; status fields are written by a consumer and read by status requests
+     */
+    private static final class Intake {
+        private final String handle;
+        private final Long userId;
+        private final Map<Long, Integer> quantities;
+        private final LocalDateTime submittedAt;
+        private volatile OrderIntakeStatus status = OrderIntakeStatus.QUEUED;
+        private volatile Long orderId;
+        private volatile String error;
+        private volatile long finishedAtNanos;
+
+        private Intake(String handle, Long userId, Map<Long, Integer> quantities, LocalDateTime submittedAt) {
+            this.handle = handle;
+            this.userId = userId;
+            this.quantities = quantities;
+            this.submittedAt = submittedAt;
+        }
+
+        private void finish(Long orderId, String error) {
+            this.orderId = orderId;
+            this.error = error;
+            this.finishedAtNanos = System.nanoTime();
+            this.status = orderId != null ? OrderIntakeStatus.CREATED : OrderIntakeStatus.REJECTED;
+        }
+
+        private boolean isFinished() {
+            return status != OrderIntakeStatus.QUEUED;
+        }
+
+        private boolean isExpiredAt(long now, long ttlNanos) {
+            return isFinished() && now - finishedAtNanos >= ttlNanos;
+        }
+
+        private OrderIntakeDto toDto() {
+            return OrderIntakeDto.builder()
+                    .handle(handle)
+                    .status(status)
+                    .orderId(orderId)
+                    .error(error)
+                    .submittedAt(submittedAt)
+                    .build();
+        }
+    }
+}
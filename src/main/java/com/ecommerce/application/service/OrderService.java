@@ -4,23 +4,40 @@ import com.ecommerce.application.entity.Order;
 import com.ecommerce.application.entity.OrderItem;
 import com.ecommerce.application.entity.Product;
 import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.dtos.CursorPageDto;
+import com.ecommerce.application.entity.dtos.OrderFilterDto;
 import com.ecommerce.application.entity.dtos.OrderRequestDto;
 import com.ecommerce.application.entity.dtos.OrderResponseDto;
+import com.ecommerce.application.entity.enums.OrderField;
 import com.ecommerce.application.entity.enums.OrderStatus;
 import com.ecommerce.application.entity.enums.Role;
 import com.ecommerce.application.exception.BadRequestException;
 import com.ecommerce.application.exception.ResourceNotFoundException;
 import com.ecommerce.application.repositary.OrderRepository;
+import com.ecommerce.application.repositary.OrderSpecifications;
+import com.ecommerce.application.repositary.UserRepositary;
 import com.ecommerce.application.util.AuthorizationUtil;
+import com.ecommerce.application.util.CursorUtil;
+import com.ecommerce.application.util.FieldsUtil;
 import com.ecommerce.application.util.ValidationUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -34,11 +51,24 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class OrderService implements IOrderService {
 
+    private static final String SORT_NEWEST = "newest";
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+    private static final String USER_FOREIGN_KEY = "fk_order_user";
+
     private final OrderRepository orderRepository;
     private final IProductService productService;
-    private final UserService userService;
+    private final UserRepositary userRepositary;
     private final AuthorizationUtil authorizationUtil;
     private final ValidationUtil validationUtil;
+    private final FieldsUtil fieldsUtil;
+    private final CursorUtil cursorUtil;
+    private final StockReservationService stockReservationService;
+
+    @Value("${orders.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${orders.page.max-size:100}")
+    private int maxPageSize;
 
     /**
      * Create a new order (CUSTOMER only)
@@ -47,9 +77,55 @@ public class OrderService implements IOrderService {
      */
     @Override
     @Transactional
-    public OrderResponseDto createOrder(OrderRequestDto dto, Long userId, Role userRole) {
+    public OrderResponseDto createOrder(OrderRequestDto dto, Long userId, String userEmail, Role userRole) {
         log.info("Create order request for user: {}", userId);
 
+        Map<Long, Integer> quantitiesByProduct = validateOrderRequest(dto, userRole);
+
+        // Reference the authenticated user by id; the users table is never read, a user
+        // deleted since the token was issued is caught by the foreign key on save
+        User user = userRepositary.getReferenceById(userId);
+
+        // Resolve all products with a single query
+        Map<Long, Product> products = productService.getProductEntities(quantitiesByProduct.keySet());
+
+        Order order = buildOrder(user, quantitiesByProduct, products);
+
+        // Reserve stock for all products in one batch of atomic conditional decrements
+        // Any shortfall throws and rolls back the whole order
+        productService.reduceStock(quantitiesByProduct);
+
+        // Save order; its stock hold expires unless confirmed in time
+        Order savedOrder = saveOrder(order, userId);
+        stockReservationService.schedule(List.of(savedOrder));
+        log.info("Order created with id: {} and total: {}", savedOrder.getId(), savedOrder.getTotalAmount());
+
+        return mapToOrderResponseDto(savedOrder, userEmail);
+    }
+
+    /**
+     * Insert the order now rather than at commit, so a missing user surfaces as a 404
+     * instead of a foreign key violation once the transaction ends
+     */
+    private Order saveOrder(Order order, Long userId) {
+        try {
+            return orderRepository.saveAndFlush(order);
+        } catch (DataIntegrityViolationException e) {
+            if (e.getCause() instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null
+                    && violation.getConstraintName().toLowerCase().contains(USER_FOREIGN_KEY)) {
+                throw new ResourceNotFoundException("User", userId);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Check the caller may order and the items are valid (CUSTOMER only)
+     * Shared with OrderIntakeService, which validates before queueing
+     * @return quantity per product, aggregated over repeated items in first-seen order
+     */
+    public Map<Long, Integer> validateOrderRequest(OrderRequestDto dto, Role userRole) {
         // Service-level authorization: Only CUSTOMER can create orders
         if (userRole != Role.CUSTOMER) {
             authorizationUtil.checkRoleAccess(userRole, Role.CUSTOMER);
@@ -60,39 +136,38 @@ public class OrderService implements IOrderService {
             throw new BadRequestException("items", "Order must contain at least one item");
         }
 
-        // Get user
-        User user = userService.getUserEntityById(userId);
-
-        // Create order items and calculate total using Java Streams
-        List<OrderItem> orderItems = new ArrayList<>();
-        BigDecimal totalAmount = BigDecimal.ZERO;
-
+        // Validate quantities and aggregate them per product, keeping first-seen order
+        Map<Long, Integer> quantitiesByProduct = new LinkedHashMap<>();
         for (OrderRequestDto.OrderItemRequestDto itemDto : dto.getItems()) {
-            // Validate quantity
             validationUtil.validatePositive(itemDto.getQuantity(), "quantity");
-
-            // Get product
-            Product product = productService.getProductEntity(itemDto.getProductId());
-
-            // Check stock availability
-            if (product.getStock() < itemDto.getQuantity()) {
-                throw new BadRequestException("stock", 
-                    "Insufficient stock for product: " + product.getName());
+            if (itemDto.getProductId() == null) {
+                throw new BadRequestException("productId", "Cannot be empty");
             }
+            quantitiesByProduct.merge(itemDto.getProductId(), itemDto.getQuantity(), Integer::sum);
+        }
+        return quantitiesByProduct;
+    }
 
-            // Create order item
-            OrderItem orderItem = OrderItem.builder()
+    /**
+     * Build a new CREATED order with one item per product at its current price
+     * Stock is not touched; callers reduce it in the same transaction and schedule
+     * the hold's expiry with StockReservationService once the order is saved
+     */
+    public Order buildOrder(User user, Map<Long, Integer> quantitiesByProduct, Map<Long, Product> products) {
+        // Create one order item per distinct product
+        List<OrderItem> orderItems = new ArrayList<>(quantitiesByProduct.size());
+        quantitiesByProduct.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            orderItems.add(OrderItem.builder()
                     .product(product)
-                    .quantity(itemDto.getQuantity())
+                    .quantity(quantity)
                     .price(product.getPrice())
-                    .build();
-
-            orderItems.add(orderItem);
-        }
+                    .build());
+        });
 
         // Calculate total using Java Streams - demonstrates Stream usage
         // This is a key requirement: "Calculate total using Java Streams"
-        totalAmount = orderItems.stream()
+        BigDecimal totalAmount = orderItems.stream()
                 .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
@@ -103,6 +178,7 @@ public class OrderService implements IOrderService {
                 .user(user)
                 .totalAmount(totalAmount)
                 .status(OrderStatus.CREATED)
+                .reservedUntil(stockReservationService.holdUntil())
                 .items(orderItems)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
@@ -110,23 +186,15 @@ public class OrderService implements IOrderService {
 
         // Set order reference in items
         orderItems.forEach(item -> item.setOrder(order));
-
-        // Save order
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order created with id: {} and total: {}", savedOrder.getId(), totalAmount);
-
-        // Reduce stock for each product
-        orderItems.forEach(item -> 
-            productService.reduceStock(item.getProduct().getId(), item.getQuantity())
-        );
-
-        return mapToOrderResponseDto(savedOrder);
+        return order;
     }
 
     /**
      * Update order status (ADMIN only)
      * Service-level authorization check
      * Only ADMIN can update order status
+     * Confirming ends the stock hold and keeps the stock taken; cancelling gives it back
+     * Cancelled orders cannot be reopened and confirmed ones cannot go back to CREATED
      */
     @Override
     @Transactional
@@ -136,10 +204,27 @@ public class OrderService implements IOrderService {
         // Service-level authorization: Only ADMIN can update status
         authorizationUtil.checkAdminAccess(userRole, "update order status");
 
-        Order order = orderRepository.findById(orderId)
+        // Lock the row first so hold expiry cannot cancel the order at the same time
+        orderRepository.findForUpdateById(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
 
+        OrderStatus current = order.getStatus();
+        if (current == OrderStatus.CANCELLED && status != OrderStatus.CANCELLED) {
+            throw new BadRequestException("status", "Cancelled orders cannot be reopened");
+        }
+        if (current == OrderStatus.CONFIRMED && status == OrderStatus.CREATED) {
+            throw new BadRequestException("status", "Confirmed orders cannot go back to CREATED");
+        }
+        if (status == OrderStatus.CANCELLED && current != OrderStatus.CANCELLED) {
+            stockReservationService.releaseStock(List.of(order));
+        }
+
         order.setStatus(status);
+        if (status != OrderStatus.CREATED) {
+            order.setReservedUntil(null);
+        }
         order.setUpdatedAt(LocalDateTime.now());
 
         Order updatedOrder = orderRepository.save(order);
@@ -156,7 +241,7 @@ public class OrderService implements IOrderService {
     public OrderResponseDto getOrderById(Long orderId, Long userId, Role userRole) {
         log.info("Fetch order by id: {}", orderId);
 
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findWithItemsById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order", orderId));
 
         // Authorization: User can view own order or ADMIN can view any
@@ -166,39 +251,194 @@ public class OrderService implements IOrderService {
     }
 
     /**
-     * Get user's orders (CUSTOMER views own, ADMIN can view any user's)
-     * Uses Java Streams for filtering and mapping
+     * Get a page of a user's orders, newest first (CUSTOMER views own, ADMIN can view any user's)
+     * Keyset-paginated on createdAt, id so every page costs the same regardless of depth
      */
     @Override
-    public List<OrderResponseDto> getUserOrders(Long userId, Role userRole) {
-        log.info("Fetch orders for user: {}", userId);
+    public CursorPageDto<OrderResponseDto> getUserOrders(Long userId, OrderFilterDto filter, Long currentUserId,
+            Role userRole) {
+        log.info("Fetch orders page for user: {}", userId);
 
         // Authorization: Can only view own orders unless ADMIN
-        if (userRole != Role.ADMIN) {
-            authorizationUtil.checkUserOrAdmin(userRole, userId, userId);
+        authorizationUtil.checkUserOrAdmin(userRole, currentUserId, userId);
+
+        return getOrderPage(OrderSpecifications.userIs(userId), filter);
+    }
+
+    /**
+     * Get a page of all orders, newest first (ADMIN only)
+     * Keyset-paginated on createdAt, id so every page costs the same regardless of depth
+     */
+    @Override
+    public CursorPageDto<OrderResponseDto> getAllOrders(OrderFilterDto filter, Role userRole) {
+        log.info("Fetch all orders page");
+
+        // Service-level authorization: Only ADMIN can view all orders
+        authorizationUtil.checkAdminAccess(userRole, "view all orders");
+
+        return getOrderPage(null, filter);
+    }
+
+    /**
+     * Get the selected fields of an order (CUSTOMER can view own, ADMIN can view any)
+     * Only the selected columns are read; the owner id is read for the authorization check
+     */
+    @Override
+    public Map<String, Object> getOrderFieldsById(Long orderId, Long userId, Role userRole, String fields) {
+        log.info("Fetch order by id: {}, fields: {}", orderId, fields);
+
+        EnumSet<OrderField> selected = fieldsUtil.parse(fields, OrderField.class);
+        EnumSet<OrderField> queried = selected.clone();
+        queried.add(OrderField.USER_ID);
+
+        List<Map<String, Object>> rows = orderRepository.findFields(
+                OrderSpecifications.idIs(orderId), Sort.unsorted(), 1, queried);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Order", orderId);
         }
+        Map<String, Object> order = rows.get(0);
 
-        // Use Streams to filter and map - demonstrates Stream usage
-        return orderRepository.findByUserId(userId).stream()
-                .map(this::mapToOrderResponseDto)
-                .collect(Collectors.toList());
+        // Authorization: User can view own order or ADMIN can view any
+        authorizationUtil.checkUserOrAdmin(userRole, userId, (Long) order.get(OrderField.USER_ID.getJsonName()));
+
+        return fieldsUtil.retain(order, selected);
+    }
+
+    /**
+     * Get a page of a user's orders with only the selected fields
+     * Only the selected columns are read; items cost a second statement only when selected
+     */
+    @Override
+    public CursorPageDto<Map<String, Object>> getUserOrderFields(Long userId, OrderFilterDto filter,
+            Long currentUserId, Role userRole, String fields) {
+        log.info("Fetch orders page for user: {}, fields: {}", userId, fields);
+
+        // Authorization: Can only view own orders unless ADMIN
+        authorizationUtil.checkUserOrAdmin(userRole, currentUserId, userId);
+
+        return getOrderFieldsPage(OrderSpecifications.userIs(userId), filter, fields);
     }
 
     /**
-     * Get all orders (ADMIN only)
-     * Uses Java Streams for mapping
+     * Get a page of all orders with only the selected fields (ADMIN only)
      */
     @Override
-    public List<OrderResponseDto> getAllOrders(Role userRole) {
-        log.info("Fetch all orders");
+    public CursorPageDto<Map<String, Object>> getAllOrderFields(OrderFilterDto filter, Role userRole, String fields) {
+        log.info("Fetch all orders page, fields: {}", fields);
 
         // Service-level authorization: Only ADMIN can view all orders
         authorizationUtil.checkAdminAccess(userRole, "view all orders");
 
-        // Use Streams to map - demonstrates Stream usage
-        return orderRepository.findAll().stream()
+        return getOrderFieldsPage(null, filter, fields);
+    }
+
+    /**
+     * Load one page of orders with their items
+     * The first statement reads only the keys of the page, the second loads those orders with
+     * user, items and products; paging a collection fetch directly would happen in memory
+     */
+    private CursorPageDto<OrderResponseDto> getOrderPage(Specification<Order> scope, OrderFilterDto filter) {
+        int pageSize = resolvePageSize(filter.getLimit());
+        List<Map<String, Object>> keys = orderRepository.findFields(buildHistorySpecification(scope, filter),
+                NEWEST_FIRST, pageSize + 1, EnumSet.of(OrderField.CREATED_AT));
+
+        boolean hasMore = keys.size() > pageSize;
+        List<Map<String, Object>> pageKeys = hasMore ? keys.subList(0, pageSize) : keys;
+        List<Long> ids = pageKeys.stream()
+                .map(key -> (Long) key.get(OrderField.ID.getJsonName()))
+                .collect(Collectors.toList());
+
+        Map<Long, Order> orders = ids.isEmpty() ? Map.of() : orderRepository.findWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        List<OrderResponseDto> page = ids.stream()
+                .map(orders::get)
+                // skips an order deleted between the two statements
+                .filter(Objects::nonNull)
                 .map(this::mapToOrderResponseDto)
                 .collect(Collectors.toList());
+
+        return CursorPageDto.<OrderResponseDto>builder()
+                .items(page)
+                .nextCursor(hasMore ? encodeCursor(pageKeys.get(pageKeys.size() - 1)) : null)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
+    }
+
+    /**
+     * Load one page of orders reading only the selected columns
+     * createdAt is read for the cursor even when it is not selected
+     */
+    private CursorPageDto<Map<String, Object>> getOrderFieldsPage(Specification<Order> scope, OrderFilterDto filter,
+            String fields) {
+        EnumSet<OrderField> selected = fieldsUtil.parse(fields, OrderField.class);
+        EnumSet<OrderField> queried = selected.clone();
+        queried.add(OrderField.CREATED_AT);
+
+        int pageSize = resolvePageSize(filter.getLimit());
+        List<Map<String, Object>> rows = orderRepository.findFields(buildHistorySpecification(scope, filter),
+                NEWEST_FIRST, pageSize + 1, queried);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<Map<String, Object>> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? encodeCursor(page.get(page.size() - 1)) : null;
+        page.forEach(order -> fieldsUtil.retain(order, selected));
+
+        return CursorPageDto.<Map<String, Object>>builder()
+                .items(page)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
+    }
+
+    /**
+     * Validate the history filter and combine it with the scope and the cursor position
+     * @param scope restriction applied before the filter, or null for all orders
+     */
+    private Specification<Order> buildHistorySpecification(Specification<Order> scope, OrderFilterDto filter) {
+        List<Specification<Order>> criteria = new ArrayList<>();
+        if (scope != null) {
+            criteria.add(scope);
+        }
+        if (filter.getStatus() != null) {
+            criteria.add(OrderSpecifications.statusIs(filter.getStatus()));
+        }
+        if (filter.getFrom() != null) {
+            criteria.add(OrderSpecifications.createdFrom(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            if (filter.getFrom() != null && !filter.getTo().isAfter(filter.getFrom())) {
+                throw new BadRequestException("to", "Must be after from");
+            }
+            criteria.add(OrderSpecifications.createdUntil(filter.getTo()));
+        }
+        if (filter.getCursor() != null) {
+            String[] values = cursorUtil.decode(filter.getCursor(), SORT_NEWEST, 2);
+            criteria.add(OrderSpecifications.createdBefore(
+                    cursorUtil.parseDateTime(values[0]), cursorUtil.parseLong(values[1])));
+        }
+        return Specification.allOf(criteria);
+    }
+
+    /**
+     * Cursor pointing after the given row of a createdAt, id descending page
+     */
+    private String encodeCursor(Map<String, Object> last) {
+        return cursorUtil.encode(SORT_NEWEST,
+                last.get(OrderField.CREATED_AT.getJsonName()).toString(),
+                last.get(OrderField.ID.getJsonName()).toString());
+    }
+
+    /**
+     * Apply the default page size and cap it at the configured maximum
+     */
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        validationUtil.validatePositive(limit, "limit");
+        return Math.min(limit, maxPageSize);
     }
 
     /**
@@ -206,6 +446,13 @@ public class OrderService implements IOrderService {
      * Uses Java Streams to map OrderItems
      */
     private OrderResponseDto mapToOrderResponseDto(Order order) {
+        return mapToOrderResponseDto(order, order.getUser().getEmail());
+    }
+
+    /**
+     * Map Order entity to OrderResponseDto with a known user email, so the user is not loaded
+     */
+    private OrderResponseDto mapToOrderResponseDto(Order order, String userEmail) {
         // Using Streams to map order items - demonstrates Stream usage
         List<OrderResponseDto.OrderItemResponseDto> itemDtos = order.getItems().stream()
                 .map(item -> OrderResponseDto.OrderItemResponseDto.builder()
@@ -220,9 +467,10 @@ public class OrderService implements IOrderService {
         return OrderResponseDto.builder()
                 .id(order.getId())
                 .userId(order.getUser().getId())
-                .userEmail(order.getUser().getEmail())
+                .userEmail(userEmail)
                 .totalAmount(order.getTotalAmount())
                 .status(order.getStatus())
+                .reservedUntil(order.getReservedUntil())
                 .items(itemDtos)
                 .createdAt(order.getCreatedAt())
                 .updatedAt(order.getUpdatedAt())
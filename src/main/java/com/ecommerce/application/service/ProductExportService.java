@@ -0,0 +1,125 @@
+package com.ecommerce.application.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.enums.ExportFormat;
+import com.ecommerce.application.repositary.ProductRepository;
+import com.ecommerce.application.util.ExportWriter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Product Export Service
+ * Streams the whole catalog from a database cursor straight to the response
+ * Memory stays constant: rows are written as they are read and the persistence
+ * context is cleared after every chunk
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductExportService {
+
+    private final ProductRepository productRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${catalog.export.chunk-size:500}")
+    private int chunkSize;
+
+    /**
+     * Write every product to the output stream in the requested format
+     * @return number of products written
+     */
+    @Transactional(readOnly = true)
+    public long exportProducts(OutputStream outputStream, ExportFormat format) throws IOException {
+        log.info("Exporting catalog as {}", format);
+        long startNanos = System.nanoTime();
+        long rows = 0;
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            out.write("id,name,description,price,stock,categoryId,categoryName,createdAt,updatedAt\n");
+        }
+
+        try (Stream<Product> products = productRepository.streamAllWithCategory()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsv(out, product);
+                } else {
+                    writeNdjson(out, product);
+                }
+
+                if (++rows % chunkSize == 0) {
+                    out.flush();
+                    entityManager.clear();
+                }
+            }
+        }
+        out.flush();
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Exported {} products in {} ms ({} rows/sec)", rows, elapsedMillis, rows * 1000 / elapsedMillis);
+        return rows;
+    }
+
+    private void writeNdjson(Writer out, Product product) throws IOException {
+        out.write("{\"id\":");
+        ExportWriter.writeJsonRaw(out, product.getId());
+        out.write(",\"name\":");
+        ExportWriter.writeJsonString(out, product.getName());
+        out.write(",\"description\":");
+        ExportWriter.writeJsonString(out, product.getDescription());
+        out.write(",\"price\":");
+        ExportWriter.writeJsonRaw(out, product.getPrice());
+        out.write(",\"stock\":");
+        ExportWriter.writeJsonRaw(out, product.getStock());
+        out.write(",\"categoryId\":");
+        ExportWriter.writeJsonRaw(out, product.getCategory().getId());
+        out.write(",\"categoryName\":");
+        ExportWriter.writeJsonString(out, product.getCategory().getName());
+        out.write(",\"createdAt\":");
+        ExportWriter.writeJsonString(out, product.getCreatedAt() != null ? product.getCreatedAt().toString() : null);
+        out.write(",\"updatedAt\":");
+        ExportWriter.writeJsonString(out, product.getUpdatedAt() != null ? product.getUpdatedAt().toString() : null);
+        out.write("}\n");
+    }
+
+    private void writeCsv(Writer out, Product product) throws IOException {
+        ExportWriter.writeCsvField(out, product.getId());
+        out.write(',');
+        ExportWriter.writeCsvField(out, product.getName());
+        out.write(',');
+        ExportWriter.writeCsvField(out, product.getDescription());
+        out.write(',');
+        ExportWriter.writeCsvField(out, product.getPrice());
+        out.write(',');
+        ExportWriter.writeCsvField(out, product.getStock());
+        out.write(',');
+        ExportWriter.writeCsvField(out, product.getCategory().getId());
+        out.write(',');
+        ExportWriter.writeCsvField(out, product.getCategory().getName());
+        out.write(',');
+        ExportWriter.writeCsvField(out, product.getCreatedAt());
+        out.write(',');
+        ExportWriter.writeCsvField(out, product.getUpdatedAt());
+        out.write('\n');
+    }
+}
@@ -0,0 +1,385 @@
+package com.ecommerce.application.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.application.cache.CatalogVersion;
+import com.ecommerce.application.cache.ProductCache;
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.dtos.BulkRowErrorDto;
+import com.ecommerce.application.entity.dtos.BulkUpsertResultDto;
+import com.ecommerce.application.entity.dtos.ProductUpsertDto;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.exception.BadRequestException;
+import com.ecommerce.application.repositary.ProductRepository;
+import com.ecommerce.application.search.ProductAutocomplete;
+import com.ecommerce.application.search.ProductSearchIndex;
+import com.ecommerce.application.util.AuthorizationUtil;
+import com.ecommerce.application.util.CsvReader;
+import com.ecommerce.application.util.ValidationUtil;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Product Import Service
+ * Bulk upsert for catalog syncs: validates every row up front, resolves all
+ * categories with one query and writes in chunks, each chunk one transaction
+ * flushed as Hibernate JDBC batches
+ * Invalid rows are reported individually and never block the valid ones; a chunk that
+ * fails at the database is retried row by row so only the offending rows fail
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+
+    private static final int MAX_NAME_LENGTH = 100;
+
+    private final ProductRepository productRepository;
+    private final IProductService productService;
+    private final ICategoryService categoryService;
+    private final ValidationUtil validationUtil;
+    private final AuthorizationUtil authorizationUtil;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductCache productCache;
+    private final CatalogVersion catalogVersion;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductAutocomplete productAutocomplete;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${catalog.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${catalog.import.max-rows:100000}")
+    private int maxRows;
+
+    @Value("${catalog.import.max-errors:1000}")
+    private int maxErrors;
+
+    /**
+     * Upsert products from a JSON array (ADMIN only)
+     */
+    public BulkUpsertResultDto upsertProducts(List<ProductUpsertDto> rows, Role userRole) {
+        authorizationUtil.checkAdminAccess(userRole, "bulk upsert products");
+        if (rows == null || rows.isEmpty()) {
+            throw new BadRequestException("rows", "Cannot be empty");
+        }
+        checkRowLimit(rows.size());
+
+        return upsert(rows, new RowErrors(maxErrors));
+    }
+
+    /**
+     * Upsert products from CSV with a header row (ADMIN only)
+     * Recognised columns: id, name, description, price, stock, categoryId; others are ignored,
+     * so a catalog export can be edited and uploaded again
+     * Rows are numbered from 1 after the header
+     * Malformed CSV, such as an unterminated quote, rejects the upload with the line it starts on
+     */
+    public BulkUpsertResultDto upsertProductsCsv(InputStream csv, Role userRole) throws IOException {
+        authorizationUtil.checkAdminAccess(userRole, "bulk upsert products");
+
+        BufferedReader input = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        skipByteOrderMark(input);
+        CsvReader reader = new CsvReader(input);
+        List<String> header = reader.readRecord();
+        if (header == null) {
+            throw new BadRequestException("file", "CSV is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("name", "price", "stock", "categoryid")) {
+            if (!columns.containsKey(required)) {
+                throw new BadRequestException("file", "Missing CSV column " + required);
+            }
+        }
+
+        RowErrors errors = new RowErrors(maxErrors);
+        List<ProductUpsertDto> rows = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            checkRowLimit(rows.size() + 1);
+            try {
+                rows.add(parseCsvRow(record, columns));
+            } catch (BadRequestException e) {
+                errors.add(rows.size() + 1, null, e.getMessage());
+                rows.add(null);
+            }
+        }
+        if (rows.isEmpty()) {
+            throw new BadRequestException("file", "CSV has no rows");
+        }
+
+        return upsert(rows, errors);
+    }
+
+    /**
+     * Validate, resolve categories and write the rows; null rows already failed parsing
+     */
+    private BulkUpsertResultDto upsert(List<ProductUpsertDto> rows, RowErrors errors) {
+        log.info("Bulk upsert of {} products", rows.size());
+        long startNanos = System.nanoTime();
+
+        // Pass 1: validate every row before touching the database
+        List<Integer> accepted = new ArrayList<>(rows.size());
+        Set<Long> seenIds = new HashSet<>();
+        Set<Long> categoryIds = new HashSet<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ProductUpsertDto row = rows.get(i);
+            if (row == null) {
+                continue;
+            }
+            try {
+                validateRow(row);
+            } catch (BadRequestException e) {
+                errors.add(i + 1, row.getId(), e.getMessage());
+                continue;
+            }
+            if (row.getId() != null && !seenIds.add(row.getId())) {
+                errors.add(i + 1, row.getId(), "Duplicate id in request");
+                continue;
+            }
+            accepted.add(i);
+            categoryIds.add(row.getCategoryId());
+        }
+
+        // Pass 2: one query for every referenced category
+        Map<Long, Category> categories = categoryService.getCategoryEntities(categoryIds);
+        List<Integer> writable = new ArrayList<>(accepted.size());
+        for (Integer index : accepted) {
+            ProductUpsertDto row = rows.get(index);
+            if (categories.containsKey(row.getCategoryId())) {
+                writable.add(index);
+            } else {
+                errors.add(index + 1, row.getId(), "Category not found with id: " + row.getCategoryId());
+            }
+        }
+
+        // Pass 3: chunked writes
+        int created = 0;
+        int updated = 0;
+        for (int from = 0; from < writable.size(); from += chunkSize) {
+            List<Integer> chunk = writable.subList(from, Math.min(from + chunkSize, writable.size()));
+            ChunkResult result = writeChunk(rows, chunk, categories, errors);
+            created += result.created();
+            updated += result.updated();
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        log.info("Bulk upsert finished: {} created, {} updated, {} failed in {} ms ({} rows/sec)",
+                created, updated, errors.count, elapsedMillis, rows.size() * 1000L / elapsedMillis);
+
+        errors.list.sort(Comparator.comparingInt(BulkRowErrorDto::getRow));
+        return BulkUpsertResultDto.builder()
+                .received(rows.size())
+                .created(created)
+                .updated(updated)
+                .failed(errors.count)
+                .errors(errors.list)
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    /**
+     * Write one chunk in its own transaction
+     * Existing products are loaded with one query; a failing chunk is retried one row per
+     * transaction, so the rows that can be written still commit and only the failing ones are reported
+     */
+    private ChunkResult writeChunk(List<ProductUpsertDto> rows, List<Integer> chunk,
+            Map<Long, Category> categories, RowErrors errors) {
+        List<Product> written = new ArrayList<>(chunk.size());
+        Map<Integer, Long> missing = new HashMap<>();
+        int[] created = new int[1];
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> ids = chunk.stream()
+                        .map(index -> rows.get(index).getId())
+                        .filter(id -> id != null)
+                        .collect(Collectors.toSet());
+                Map<Long, Product> existing = productRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+                for (Integer index : chunk) {
+                    ProductUpsertDto row = rows.get(index);
+                    Category category = categories.get(row.getCategoryId());
+                    Product product;
+                    if (row.getId() == null) {
+                        product = Product.builder().category(category).build();
+                        created[0]++;
+                    } else {
+                        product = existing.get(row.getId());
+                        if (product == null) {
+                            missing.put(index, row.getId());
+                            continue;
+                        }
+                        product.setCategory(category);
+                    }
+                    product.setName(row.getName());
+                    product.setDescription(row.getDescription());
+                    product.setPrice(row.getPrice());
+                    product.setStock(row.getStock());
+                    written.add(product);
+                }
+
+                productRepository.saveAll(written);
+                productRepository.flush();
+                entityManager.clear();
+            });
+        } catch (DataAccessException | TransactionException e) {
+            if (chunk.size() == 1) {
+                Integer index = chunk.get(0);
+                errors.add(index + 1, rows.get(index).getId(), "Write failed: " + e.getMostSpecificCause().getMessage());
+                return new ChunkResult(0, 0);
+            }
+            log.warn("Bulk upsert chunk of {} rows failed, retrying row by row: {}", chunk.size(), e.getMessage());
+            int retriedCreated = 0;
+            int retriedUpdated = 0;
+            for (Integer index : chunk) {
+                ChunkResult result = writeChunk(rows, List.of(index), categories, errors);
+                retriedCreated += result.created();
+                retriedUpdated += result.updated();
+            }
+            return new ChunkResult(retriedCreated, retriedUpdated);
+        }
+
+        missing.forEach((index, id) -> errors.add(index + 1, id, "Product not found with id: " + id));
+        productCache.invalidate(written.stream().map(Product::getId).toList());
+        catalogVersion.bump();
+        productService.refreshCatalogSnapshot(written.stream().map(Product::getId).toList());
+        for (Product product : written) {
+            productSearchIndex.index(product);
+            productAutocomplete.index(product);
+        }
+        return new ChunkResult(created[0], written.size() - created[0]);
+    }
+
+    private void validateRow(ProductUpsertDto row) {
+        validationUtil.validateNotEmpty(row.getName(), "name");
+        if (row.getName().length() > MAX_NAME_LENGTH) {
+            throw new BadRequestException("name", "Must be at most " + MAX_NAME_LENGTH + " characters");
+        }
+        validationUtil.validatePrice(row.getPrice());
+        validationUtil.validateStock(row.getStock());
+        if (row.getCategoryId() == null) {
+            throw new BadRequestException("categoryId", "Cannot be empty");
+        }
+    }
+
+    /**
+     * Skip a UTF-8 byte order mark, as written by Excel's "CSV UTF-8", so it does not
+     * become part of the first column name
+     */
+    private static void skipByteOrderMark(BufferedReader input) throws IOException {
+        input.mark(1);
+        if (input.read() != '\uFEFF') {
+            input.reset();
+        }
+    }
+
+    private ProductUpsertDto parseCsvRow(List<String> record, Map<String, Integer> columns) {
+        return ProductUpsertDto.builder()
+                .id(parseCsvLong(csvValue(record, columns, "id"), "id"))
+                .name(csvValue(record, columns, "name"))
+                .description(csvValue(record, columns, "description"))
+                .price(parseCsvDecimal(csvValue(record, columns, "price")))
+                .stock(parseCsvInteger(csvValue(record, columns, "stock")))
+                .categoryId(parseCsvLong(csvValue(record, columns, "categoryid"), "categoryId"))
+                .build();
+    }
+
+    /**
+     * Field value for a column, or null when the column or field is absent or empty
+     */
+    private String csvValue(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size() || record.get(index).isEmpty()) {
+            return null;
+        }
+        return record.get(index);
+    }
+
+    private Long parseCsvLong(String value, String field) {
+        try {
+            return value == null ? null : Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException(field, "Not a number: " + value);
+        }
+    }
+
+    private Integer parseCsvInteger(String value) {
+        try {
+            return value == null ? null : Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("stock", "Not a number: " + value);
+        }
+    }
+
+    private BigDecimal parseCsvDecimal(String value) {
+        try {
+            return value == null ? null : new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("price", "Not a number: " + value);
+        }
+    }
+
+    private void checkRowLimit(int rows) {
+        if (rows > maxRows) {
+            throw new BadRequestException("rows", "At most " + maxRows + " rows per request");
+        }
+    }
+
+    private record ChunkResult(int created, int updated) {
+    }
+
+    /**
+     * Collects row errors, keeping at most a fixed number of details but counting all of them
+     */
+    private static final class RowErrors {
+        private final int maxDetails;
+        private final List<BulkRowErrorDto> list = new ArrayList<>();
+        private int count;
+
+        RowErrors(int maxDetails) {
+            this.maxDetails = maxDetails;
+        }
+
+        void add(int row, Long id, String message) {
+            count++;
+            if (list.size() < maxDetails) {
+                list.add(BulkRowErrorDto.builder().row(row).id(id).message(message).build());
+            }
+        }
+    }
+}
@@ -1,21 +1,60 @@
 package com.ecommerce.application.service;
 
+import com.ecommerce.application.cache.CatalogSnapshot;
+import com.ecommerce.application.cache.CatalogSnapshotStore;
+import com.ecommerce.application.cache.CatalogVersion;
+import com.ecommerce.application.cache.ProductCache;
 import com.ecommerce.application.entity.Category;
 import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.dtos.CategoryFacetDto;
+import com.ecommerce.application.entity.dtos.CursorPageDto;
+import com.ecommerce.application.entity.dtos.PriceRangeFacetDto;
+import com.ecommerce.application.entity.dtos.ProductBatchResponseDto;
+import com.ecommerce.application.entity.dtos.ProductFilterDto;
+import com.ecommerce.application.entity.dtos.ProductFilterResponseDto;
 import com.ecommerce.application.entity.dtos.ProductRequestDto;
 import com.ecommerce.application.entity.dtos.ProductResponseDto;
+import com.ecommerce.application.entity.dtos.ProductSearchResultDto;
+import com.ecommerce.application.entity.dtos.ProductSuggestionDto;
+import com.ecommerce.application.entity.enums.ProductField;
 import com.ecommerce.application.entity.enums.Role;
 import com.ecommerce.application.exception.BadRequestException;
 import com.ecommerce.application.exception.ResourceNotFoundException;
+import com.ecommerce.application.repositary.ProductFacetRepository.CategoryFacetRow;
 import com.ecommerce.application.repositary.ProductRepository;
+import com.ecommerce.application.repositary.ProductSpecifications;
+import com.ecommerce.application.search.ProductAutocomplete;
+import com.ecommerce.application.search.ProductSearchIndex;
 import com.ecommerce.application.util.AuthorizationUtil;
+import com.ecommerce.application.util.CursorUtil;
+import com.ecommerce.application.util.FieldsUtil;
 import com.ecommerce.application.util.ValidationUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Product Service Implementation
@@ -27,10 +66,38 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProductService implements IProductService {
 
+    private static final String SORT_BY_ID = "id";
+    private static final String SORT_BY_NAME = "name";
+    private static final String SORT_NEWEST = "newest";
+    private static final String SORT_BY_PRICE = "price";
+    private static final String SORT_BY_PRICE_DESC = "price_desc";
+
     private final ProductRepository productRepository;
     private final ICategoryService categoryService;
     private final ValidationUtil validationUtil;
     private final AuthorizationUtil authorizationUtil;
+    private final CursorUtil cursorUtil;
+    private final FieldsUtil fieldsUtil;
+    private final ProductCache productCache;
+    private final CatalogVersion catalogVersion;
+    private final CatalogSnapshotStore catalogSnapshotStore;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductAutocomplete productAutocomplete;
+
+    @Value("${catalog.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${catalog.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${catalog.batch.max-ids:200}")
+    private int maxBatchSize;
+
+    @Value("${catalog.autocomplete.top-k:10}")
+    private int autocompleteMaxSize;
+
+    @Value("${catalog.filter.price-buckets:25,50,100,250,500}")
+    private List<BigDecimal> priceBucketBounds;
 
     /**
      * Create a new product (ADMIN only)
@@ -63,6 +130,11 @@ public class ProductService implements IProductService {
                 .build();
 
         Product savedProduct = productRepository.save(product);
+        productCache.invalidate(savedProduct.getId());
+        catalogVersion.bump();
+        refreshCatalogSnapshot(List.of(savedProduct.getId()));
+        productSearchIndex.index(savedProduct);
+        productAutocomplete.index(savedProduct);
         log.info("Product created with id: {}", savedProduct.getId());
 
         return mapToProductResponseDto(savedProduct);
@@ -100,6 +172,11 @@ public class ProductService implements IProductService {
         product.setUpdatedAt(LocalDateTime.now());
 
         Product updatedProduct = productRepository.save(product);
+        productCache.invalidate(id);
+        catalogVersion.bump();
+        refreshCatalogSnapshot(List.of(id));
+        productSearchIndex.index(updatedProduct);
+        productAutocomplete.index(updatedProduct);
         log.info("Product updated with id: {}", updatedProduct.getId());
 
         return mapToProductResponseDto(updatedProduct);
@@ -122,49 +199,338 @@ public class ProductService implements IProductService {
         }
 
         productRepository.deleteById(id);
+        productCache.invalidate(id);
+        catalogVersion.bump();
+        refreshCatalogSnapshot(List.of(id));
+        productSearchIndex.remove(id);
+        productAutocomplete.remove(id);
         log.info("Product deleted with id: {}", id);
     }
 
     /**
      * Get product by ID (Public)
+     * Served from the catalog snapshot when enabled, otherwise from the product cache
+     * where concurrent misses share one database load
+     * A product missing from the snapshot is looked up in the database, since it may have
+     * been created before its patch was published
      */
     @Override
     public ProductResponseDto getProductById(Long id) {
         log.info("Fetching product with id: {}", id);
 
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", id));
+        CatalogSnapshot snapshot = catalogSnapshotStore.current();
+        if (snapshot != null) {
+            ProductResponseDto product = snapshot.product(id);
+            if (product != null) {
+                return product;
+            }
+        }
+        return productCache.get(id, this::loadProductResponseDto);
+    }
 
-        return mapToProductResponseDto(product);
+    /**
+     * Get many products by id (Public)
+     * Resolved from the catalog snapshot when enabled, otherwise with one query that fetches
+     * the categories too; products keep the request order and unknown ids are reported
+     */
+    @Override
+    public ProductBatchResponseDto<ProductResponseDto> getProductsByIds(List<Long> ids) {
+        Set<Long> requested = resolveBatchIds(ids);
+        log.info("Fetching {} products by id", requested.size());
+
+        CatalogSnapshot snapshot = catalogSnapshotStore.current();
+        Map<Long, ProductResponseDto> found = new HashMap<>();
+        Set<Long> unresolved = requested;
+        if (snapshot != null) {
+            unresolved = new LinkedHashSet<>();
+            for (Long id : requested) {
+                ProductResponseDto product = snapshot.product(id);
+                if (product != null) {
+                    found.put(id, product);
+                } else {
+                    unresolved.add(id);
+                }
+            }
+        }
+        // ids the snapshot lacks may have been created before their patch was published
+        if (!unresolved.isEmpty()) {
+            for (Product product : productRepository.findByIdIn(unresolved)) {
+                found.put(product.getId(), mapToProductResponseDto(product));
+            }
+        }
+        return toBatchResponse(requested, found);
+    }
+
+    /**
+     * Get the selected fields of many products by id (Public)
+     * Without a snapshot only the selected columns are read from the database
+     */
+    @Override
+    public ProductBatchResponseDto<Map<String, Object>> getProductFieldsByIds(List<Long> ids, String fields) {
+        EnumSet<ProductField> selected = fieldsUtil.parse(fields, ProductField.class);
+        Set<Long> requested = resolveBatchIds(ids);
+        log.info("Fetching {} products by id, fields: {}", requested.size(), fields);
+
+        CatalogSnapshot snapshot = catalogSnapshotStore.current();
+        Map<Long, Map<String, Object>> found = new HashMap<>();
+        Set<Long> unresolved = requested;
+        if (snapshot != null) {
+            unresolved = new LinkedHashSet<>();
+            for (Long id : requested) {
+                ProductResponseDto product = snapshot.product(id);
+                if (product != null) {
+                    found.put(id, fieldsUtil.select(product, selected));
+                } else {
+                    unresolved.add(id);
+                }
+            }
+        }
+        if (!unresolved.isEmpty()) {
+            for (Map<String, Object> row : productRepository.findFields(
+                    ProductSpecifications.idIn(unresolved), Sort.unsorted(), null, selected)) {
+                found.put((Long) row.get(ProductField.ID.getJsonName()), fieldsUtil.retain(row, selected));
+            }
+        }
+        return toBatchResponse(requested, found);
     }
 
     /**
      * Get all products (Public)
-     * Uses Java Streams for filtering
+     * Keyset-paginated so every page costs the same regardless of depth
      */
     @Override
-    public List<ProductResponseDto> getAllProducts() {
-        log.info("Fetching all products");
+    public CursorPageDto<ProductResponseDto> getAllProducts(String cursor, Integer limit, String sort) {
+        log.info("Fetching products page, sort: {}", sort);
 
-        return productRepository.findAll().stream()
-                .map(this::mapToProductResponseDto)
-                .collect(Collectors.toList());
+        return getProductPage(null, cursor, limit, sort);
     }
 
     /**
      * Get products by category (Public)
-     * Uses Java Streams for filtering
+     * Keyset-paginated so every page costs the same regardless of depth
      */
     @Override
-    public List<ProductResponseDto> getProductsByCategory(Long categoryId) {
-        log.info("Fetching products for category: {}", categoryId);
+    public CursorPageDto<ProductResponseDto> getProductsByCategory(Long categoryId, String cursor,
+            Integer limit, String sort) {
+        log.info("Fetching products page for category: {}", categoryId);
 
-        // Verify category exists
-        categoryService.getCategoryEntity(categoryId);
+        verifyCategoryExists(categoryId);
+        return getProductPage(categoryId, cursor, limit, sort);
+    }
 
-        return productRepository.findByCategoryId(categoryId).stream()
-                .map(this::mapToProductResponseDto)
-                .collect(Collectors.toList());
+    /**
+     * Get a page of products with only the selected fields (Public)
+     * Same keyset pages and cursors as getAllProducts and getProductsByCategory
+     * Without a snapshot only the selected columns are read from the database
+     * @param categoryId optional category restriction
+     */
+    @Override
+    public CursorPageDto<Map<String, Object>> getProductFieldsPage(Long categoryId, String cursor, Integer limit,
+            String sort, String fields) {
+        log.info("Fetching products page, sort: {}, fields: {}", sort, fields);
+
+        EnumSet<ProductField> selected = fieldsUtil.parse(fields, ProductField.class);
+        if (categoryId != null) {
+            verifyCategoryExists(categoryId);
+        }
+
+        if (catalogSnapshotStore.current() != null) {
+            CursorPageDto<ProductResponseDto> page = getProductPage(categoryId, cursor, limit, sort);
+            return CursorPageDto.<Map<String, Object>>builder()
+                    .items(page.getItems().stream()
+                            .map(product -> fieldsUtil.select(product, selected))
+                            .collect(Collectors.toList()))
+                    .nextCursor(page.getNextCursor())
+                    .hasMore(page.isHasMore())
+                    .limit(page.getLimit())
+                    .build();
+        }
+
+        int pageSize = resolvePageSize(limit);
+        List<Specification<Product>> criteria = new ArrayList<>();
+        if (categoryId != null) {
+            criteria.add(ProductSpecifications.categoryIn(List.of(categoryId)));
+        }
+        // the cursor needs the sort key of the last row even when it is not selected
+        EnumSet<ProductField> queried = selected.clone();
+        Sort order;
+        if (SORT_BY_NAME.equals(sort)) {
+            queried.add(ProductField.NAME);
+            order = Sort.by("name", "id");
+            if (cursor != null) {
+                String[] values = cursorUtil.decode(cursor, SORT_BY_NAME, 2);
+                criteria.add(ProductSpecifications.nameAfter(values[0], cursorUtil.parseLong(values[1])));
+            }
+        } else if (sort == null || SORT_BY_ID.equals(sort)) {
+            order = Sort.by("id");
+            if (cursor != null) {
+                criteria.add(ProductSpecifications.idAfter(
+                        cursorUtil.parseLong(cursorUtil.decode(cursor, SORT_BY_ID, 1)[0])));
+            }
+        } else {
+            throw new BadRequestException("sort", "Must be one of: id, name");
+        }
+
+        List<Map<String, Object>> rows = productRepository.findFields(
+                Specification.allOf(criteria), order, pageSize + 1, queried);
+        boolean hasMore = rows.size() > pageSize;
+        List<Map<String, Object>> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Map<String, Object> last = page.get(page.size() - 1);
+            String lastId = last.get(ProductField.ID.getJsonName()).toString();
+            nextCursor = SORT_BY_NAME.equals(sort)
+                    ? cursorUtil.encode(SORT_BY_NAME, (String) last.get(ProductField.NAME.getJsonName()), lastId)
+                    : cursorUtil.encode(SORT_BY_ID, lastId);
+        }
+        page.forEach(row -> fieldsUtil.retain(row, selected));
+
+        return CursorPageDto.<Map<String, Object>>builder()
+                .items(page)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
+    }
+
+    /**
+     * Filter products by name, categories, price range and availability (Public)
+     * Keyset-paginated; the first page also carries facet counts from one grouped query
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public ProductFilterResponseDto filterProducts(ProductFilterDto filter) {
+        log.info("Filtering products, sort: {}", filter.getSort());
+
+        Specification<Product> criteria = buildFilterSpecification(filter);
+        String sort = filter.getSort() != null ? filter.getSort() : SORT_NEWEST;
+        int pageSize = resolvePageSize(filter.getLimit());
+
+        List<Specification<Product>> pageCriteria = new ArrayList<>();
+        pageCriteria.add(criteria);
+        pageCriteria.add(ProductSpecifications.fetchCategory());
+        Sort order;
+        switch (sort) {
+            case SORT_BY_PRICE -> {
+                order = Sort.by("price", "id");
+                if (filter.getCursor() != null) {
+                    String[] values = cursorUtil.decode(filter.getCursor(), SORT_BY_PRICE, 2);
+                    pageCriteria.add(ProductSpecifications.priceAfter(
+                            cursorUtil.parseDecimal(values[0]), cursorUtil.parseLong(values[1])));
+                }
+            }
+            case SORT_BY_PRICE_DESC -> {
+                order = Sort.by(Sort.Direction.DESC, "price", "id");
+                if (filter.getCursor() != null) {
+                    String[] values = cursorUtil.decode(filter.getCursor(), SORT_BY_PRICE_DESC, 2);
+                    pageCriteria.add(ProductSpecifications.priceBefore(
+                            cursorUtil.parseDecimal(values[0]), cursorUtil.parseLong(values[1])));
+                }
+            }
+            case SORT_NEWEST -> {
+                order = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+                if (filter.getCursor() != null) {
+                    String[] values = cursorUtil.decode(filter.getCursor(), SORT_NEWEST, 2);
+                    pageCriteria.add(ProductSpecifications.createdBefore(
+                            cursorUtil.parseDateTime(values[0]), cursorUtil.parseLong(values[1])));
+                }
+            }
+            default -> throw new BadRequestException("sort", "Must be one of: newest, price, price_desc");
+        }
+
+        List<Product> rows = productRepository.findBy(Specification.allOf(pageCriteria),
+                query -> query.sortBy(order).limit(pageSize + 1).all());
+        boolean hasMore = rows.size() > pageSize;
+        List<Product> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Product last = page.get(page.size() - 1);
+            String key = SORT_NEWEST.equals(sort) ? last.getCreatedAt().toString() : last.getPrice().toPlainString();
+            nextCursor = cursorUtil.encode(sort, key, last.getId().toString());
+        }
+
+        ProductFilterResponseDto.ProductFilterResponseDtoBuilder response = ProductFilterResponseDto.builder()
+                .products(CursorPageDto.<ProductResponseDto>builder()
+                        .items(page.stream()
+                                .map(this::mapToProductResponseDto)
+                                .collect(Collectors.toList()))
+                        .nextCursor(nextCursor)
+                        .hasMore(hasMore)
+                        .limit(pageSize)
+                        .build());
+        if (filter.getCursor() == null) {
+            addFacets(response, productRepository.countFacets(criteria, priceBucketBounds));
+        }
+        return response.build();
+    }
+
+    /**
+     * Search products by name and description (Public)
+     * Served entirely from the in-memory search index
+     */
+    @Override
+    public List<ProductSearchResultDto> searchProducts(String query, Long categoryId, Integer limit) {
+        log.info("Searching products for: {}", query);
+
+        validationUtil.validateNotEmpty(query, "q");
+        return productSearchIndex.search(query, categoryId, resolvePageSize(limit));
+    }
+
+    /**
+     * Suggest product names for a typed prefix (Public)
+     * Served from the in-memory autocomplete trie; logged at debug since it runs per keystroke
+     */
+    @Override
+    public List<ProductSuggestionDto> suggestProducts(String prefix, Integer limit) {
+        log.debug("Autocomplete request for: {}", prefix);
+
+        validationUtil.validateNotEmpty(prefix, "q");
+        return productAutocomplete.suggest(prefix, Math.min(resolvePageSize(limit), autocompleteMaxSize));
+    }
+
+    /**
+     * Re-read products after the current transaction commits and patch the catalog snapshot
+     * Ids that no longer exist are removed; no-op unless the snapshot mode is enabled
+     */
+    @Override
+    public void refreshCatalogSnapshot(Collection<Long> productIds) {
+        if (!catalogSnapshotStore.isEnabled()) {
+            return;
+        }
+        catalogSnapshotStore.patchAfterCommit(() -> {
+            List<ProductResponseDto> refreshed = mapToProductResponseDtos(productRepository.findByIdIn(productIds));
+            return snapshot -> snapshot.withProducts(refreshed, productIds);
+        });
+    }
+
+    /**
+     * Like refreshCatalogSnapshot for stock-only changes, which advance the stock version
+     * rather than the catalog version once patched
+     */
+    private void refreshCatalogStock(Collection<Long> productIds) {
+        if (!catalogSnapshotStore.isEnabled()) {
+            return;
+        }
+        catalogSnapshotStore.patchStockAfterCommit(() -> {
+            List<ProductResponseDto> refreshed = mapToProductResponseDtos(productRepository.findByIdIn(productIds));
+            return snapshot -> snapshot.withProducts(refreshed, productIds);
+        });
+    }
+
+    /**
+     * Build the catalog snapshot at startup when the snapshot mode is enabled
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildCatalogSnapshot() {
+        catalogSnapshotStore.rebuild(() -> {
+            List<ProductResponseDto> products = new ArrayList<>();
+            try (Stream<Product> stream = productRepository.streamAllWithCategory()) {
+                stream.forEach(product -> products.add(mapToProductResponseDto(product)));
+            }
+            return CatalogSnapshot.of(products, categoryService.getAllCategories());
+        });
     }
 
     /**
@@ -176,22 +542,310 @@ public class ProductService implements IProductService {
                 .orElseThrow(() -> new ResourceNotFoundException("Product", id));
     }
 
+    /**
+     * Get many product entities with a single query (internal use)
+     * @throws ResourceNotFoundException for the first id that does not exist
+     */
+    @Override
+    public Map<Long, Product> getProductEntities(Collection<Long> ids) {
+        Map<Long, Product> products = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        for (Long id : ids) {
+            if (!products.containsKey(id)) {
+                throw new ResourceNotFoundException("Product", id);
+            }
+        }
+        return products;
+    }
+
     /**
      * Reduce product stock after order
+     * Single conditional UPDATE, so concurrent orders can never oversell
      */
     @Override
+    @Transactional
     public void reduceStock(Long productId, Integer quantity) {
         log.info("Reducing stock for product: {} by quantity: {}", productId, quantity);
 
-        Product product = getProductEntity(productId);
-        
-        if (product.getStock() < quantity) {
-            throw new BadRequestException("stock", "Insufficient stock available");
+        int updated = productRepository.decrementStock(productId, quantity, LocalDateTime.now());
+        if (updated == 0) {
+            if (!productRepository.existsById(productId)) {
+                throw new ResourceNotFoundException("Product", productId);
+            }
+            throw new BadRequestException("stock", "Insufficient stock available for product: " + productId);
         }
+        productCache.invalidate(productId);
+        catalogVersion.bumpStock();
+        refreshCatalogStock(List.of(productId));
+        productAutocomplete.restockAfterCommit(List.of(productId));
+        log.info("Stock reduced for product: {}", productId);
+    }
+
+    /**
+     * Reduce stock for many products in one JDBC batch
+     * Rows are updated in product id order so concurrent orders lock in the same order
+     */
+    @Override
+    @Transactional
+    public void reduceStock(Map<Long, Integer> quantitiesByProductId) {
+        log.info("Reducing stock for {} products", quantitiesByProductId.size());
+
+        Map<Long, Integer> ordered = new TreeMap<>(quantitiesByProductId);
+        int[] updated = productRepository.decrementStockBatch(ordered);
+
+        int index = 0;
+        for (Long productId : ordered.keySet()) {
+            if (updated[index++] == 0) {
+                throw new BadRequestException("stock", "Insufficient stock available for product: " + productId);
+            }
+        }
+        productCache.invalidate(ordered.keySet());
+        catalogVersion.bumpStock();
+        refreshCatalogStock(List.copyOf(ordered.keySet()));
+        productAutocomplete.restockAfterCommit(List.copyOf(ordered.keySet()));
+    }
+
+    /**
+     * Reduce stock for many orders at once; each order takes all of its items or none
+     * The combined quantities go out as one batch; only if some product runs short is that
+     * undone and the orders applied one by one, so earlier orders win the remaining stock
+     * @return per order, the id of a product it was short of, or null if its stock was taken
+     */
+    @Override
+    @Transactional
+    public List<Long> reduceStockPerOrder(List<Map<Long, Integer>> quantitiesPerOrder) {
+        log.info("Reducing stock for {} orders", quantitiesPerOrder.size());
+
+        Map<Long, Integer> combined = new TreeMap<>();
+        for (Map<Long, Integer> quantities : quantitiesPerOrder) {
+            quantities.forEach((productId, quantity) -> combined.merge(productId, quantity, Integer::sum));
+        }
+
+        List<Long> shortages = new ArrayList<>(Collections.nCopies(quantitiesPerOrder.size(), null));
+        Long shortProductId = decrementAllOrNothing(combined);
+        if (shortProductId != null) {
+            log.info("Combined stock short for product {}, applying orders one by one", shortProductId);
+            for (int i = 0; i < quantitiesPerOrder.size(); i++) {
+                shortages.set(i, decrementAllOrNothing(new TreeMap<>(quantitiesPerOrder.get(i))));
+            }
+        }
+
+        productCache.invalidate(combined.keySet());
+        catalogVersion.bumpStock();
+        refreshCatalogStock(List.copyOf(combined.keySet()));
+        productAutocomplete.restockAfterCommit(List.copyOf(combined.keySet()));
+        return shortages;
+    }
+
+    /**
+     * Return stock held by cancelled or expired orders, for many products in one JDBC batch
+     * Products deleted in the meantime are skipped
+     */
+    @Override
+    @Transactional
+    public void releaseStock(Map<Long, Integer> quantitiesByProductId) {
+        log.info("Releasing stock for {} products", quantitiesByProductId.size());
+
+        Map<Long, Integer> ordered = new TreeMap<>(quantitiesByProductId);
+        productRepository.incrementStockBatch(ordered);
 
-        product.setStock(product.getStock() - quantity);
-        productRepository.save(product);
-        log.info("Stock reduced. New stock: {}", product.getStock());
+        productCache.invalidate(ordered.keySet());
+        catalogVersion.bumpStock();
+        refreshCatalogStock(List.copyOf(ordered.keySet()));
+        productAutocomplete.restockAfterCommit(List.copyOf(ordered.keySet()));
+    }
+
+    /**
+     * Load one keyset page ordered by id or by name+id, optionally restricted to a category
+     * Fetches one extra row to know whether another page exists
+     * Served from the catalog snapshot when one is published
+     */
+    private CursorPageDto<ProductResponseDto> getProductPage(Long categoryId, String cursor,
+            Integer limit, String sort) {
+        int pageSize = resolvePageSize(limit);
+        Pageable firstRows = PageRequest.of(0, pageSize + 1);
+        CatalogSnapshot snapshot = catalogSnapshotStore.current();
+        List<ProductResponseDto> rows;
+
+        if (SORT_BY_NAME.equals(sort)) {
+            String afterName = "";
+            Long afterId = 0L;
+            if (cursor != null) {
+                String[] values = cursorUtil.decode(cursor, SORT_BY_NAME, 2);
+                afterName = values[0];
+                afterId = cursorUtil.parseLong(values[1]);
+            }
+            rows = snapshot != null
+                    ? snapshot.pageByName(categoryId, afterName, afterId, pageSize + 1)
+                    : mapToProductResponseDtos(categoryId == null
+                            ? productRepository.findPageOrderByName(afterName, afterId, firstRows)
+                            : productRepository.findCategoryPageOrderByName(categoryId, afterName, afterId, firstRows));
+        } else if (sort == null || SORT_BY_ID.equals(sort)) {
+            Long afterId = 0L;
+            if (cursor != null) {
+                afterId = cursorUtil.parseLong(cursorUtil.decode(cursor, SORT_BY_ID, 1)[0]);
+            }
+            rows = snapshot != null
+                    ? snapshot.pageById(categoryId, afterId, pageSize + 1)
+                    : mapToProductResponseDtos(categoryId == null
+                            ? productRepository.findPageOrderById(afterId, firstRows)
+                            : productRepository.findCategoryPageOrderById(categoryId, afterId, firstRows));
+        } else {
+            throw new BadRequestException("sort", "Must be one of: id, name");
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<ProductResponseDto> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ProductResponseDto last = page.get(page.size() - 1);
+            nextCursor = SORT_BY_NAME.equals(sort)
+                    ? cursorUtil.encode(SORT_BY_NAME, last.getName(), last.getId().toString())
+                    : cursorUtil.encode(SORT_BY_ID, last.getId().toString());
+        }
+
+        return CursorPageDto.<ProductResponseDto>builder()
+                .items(page)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .limit(pageSize)
+                .build();
+    }
+
+    private List<ProductResponseDto> mapToProductResponseDtos(List<Product> products) {
+        return products.stream()
+                .map(this::mapToProductResponseDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Validate the filter and combine its criteria; facets are counted over the same criteria
+     */
+    private Specification<Product> buildFilterSpecification(ProductFilterDto filter) {
+        List<Specification<Product>> criteria = new ArrayList<>();
+        if (filter.getName() != null && !filter.getName().isBlank()) {
+            criteria.add(ProductSpecifications.nameContains(filter.getName()));
+        }
+        if (filter.getCategoryIds() != null && !filter.getCategoryIds().isEmpty()) {
+            criteria.add(ProductSpecifications.categoryIn(filter.getCategoryIds()));
+        }
+        if (filter.getMinPrice() != null) {
+            if (filter.getMinPrice().signum() < 0) {
+                throw new BadRequestException("minPrice", "Cannot be negative");
+            }
+            criteria.add(ProductSpecifications.priceAtLeast(filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            if (filter.getMinPrice() != null && filter.getMaxPrice().compareTo(filter.getMinPrice()) < 0) {
+                throw new BadRequestException("maxPrice", "Must not be less than minPrice");
+            }
+            criteria.add(ProductSpecifications.priceAtMost(filter.getMaxPrice()));
+        }
+        if (filter.isInStock()) {
+            criteria.add(ProductSpecifications.inStock());
+        }
+        return Specification.allOf(criteria);
+    }
+
+    /**
+     * Turn per-category facet rows into category counts and price range totals
+     */
+    private void addFacets(ProductFilterResponseDto.ProductFilterResponseDtoBuilder response,
+            List<CategoryFacetRow> rows) {
+        long[] bucketTotals = new long[priceBucketBounds.size() + 1];
+        List<CategoryFacetDto> categories = new ArrayList<>(rows.size());
+        for (CategoryFacetRow row : rows) {
+            categories.add(CategoryFacetDto.builder()
+                    .categoryId(row.categoryId())
+                    .categoryName(row.categoryName())
+                    .count(row.count())
+                    .build());
+            for (int bucket = 0; bucket < bucketTotals.length; bucket++) {
+                bucketTotals[bucket] += row.bucketCounts()[bucket];
+            }
+        }
+        categories.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+
+        List<PriceRangeFacetDto> priceRanges = new ArrayList<>(bucketTotals.length);
+        for (int bucket = 0; bucket < bucketTotals.length; bucket++) {
+            priceRanges.add(PriceRangeFacetDto.builder()
+                    .min(bucket > 0 ? priceBucketBounds.get(bucket - 1) : null)
+                    .max(bucket < priceBucketBounds.size() ? priceBucketBounds.get(bucket) : null)
+                    .count(bucketTotals[bucket])
+                    .build());
+        }
+        response.categories(categories).priceRanges(priceRanges);
+    }
+
+    /**
+     * Check the category against the snapshot when one is published, otherwise the database
+     */
+    private void verifyCategoryExists(Long categoryId) {
+        CatalogSnapshot snapshot = catalogSnapshotStore.current();
+        if (snapshot == null) {
+            categoryService.getCategoryEntity(categoryId);
+        } else if (!snapshot.hasCategory(categoryId)) {
+            throw new ResourceNotFoundException("Category", categoryId);
+        }
+    }
+
+    /**
+     * Validate a multi-get id list; duplicates are collapsed keeping the first position
+     */
+    private Set<Long> resolveBatchIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("ids", "At least one product id is required");
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.size() > maxBatchSize) {
+            throw new BadRequestException("ids", "At most " + maxBatchSize + " distinct ids are allowed");
+        }
+        return requested;
+    }
+
+    /**
+     * Put found products in request order and list the ids that were not found
+     */
+    private <T> ProductBatchResponseDto<T> toBatchResponse(Set<Long> requested, Map<Long, T> found) {
+        List<T> products = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            T product = found.get(id);
+            if (product != null) {
+                products.add(product);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return ProductBatchResponseDto.<T>builder()
+                .products(products)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    /**
+     * Apply the default page size and cap it at the configured maximum
+     */
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        validationUtil.validatePositive(limit, "limit");
+        return Math.min(limit, maxPageSize);
+    }
+
+    /**
+     * Load a product with its category from the database (cache loader)
+     */
+    private ProductResponseDto loadProductResponseDto(Long id) {
+        Product product = productRepository.findWithCategoryById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product", id));
+
+        return mapToProductResponseDto(product);
     }
 
     /**
@@ -208,6 +862,30 @@ public class ProductService implements IProductService {
                 .categoryName(product.getCategory().getName())
                 .createdAt(product.getCreatedAt())
                 .updatedAt(product.getUpdatedAt())
+                .version(product.getVersion())
                 .build();
     }
+
+    /**
+     * Decrement every product or, if one is short, give back what was taken
+     * @return id of the first short product, or null if all were decremented
+     */
+    private Long decrementAllOrNothing(Map<Long, Integer> ordered) {
+        int[] updated = productRepository.decrementStockBatch(ordered);
+
+        Long shortProductId = null;
+        Map<Long, Integer> taken = new TreeMap<>();
+        int index = 0;
+        for (Map.Entry<Long, Integer> entry : ordered.entrySet()) {
+            if (updated[index++] == 0) {
+                shortProductId = shortProductId != null ? shortProductId : entry.getKey();
+            } else {
+                taken.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (shortProductId != null && !taken.isEmpty()) {
+            productRepository.incrementStockBatch(taken);
+        }
+        return shortProductId;
+    }
 }
@@ -0,0 +1,222 @@
+package com.ecommerce.application.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.application.entity.Order;
+import com.ecommerce.application.entity.OrderItem;
+import com.ecommerce.application.entity.enums.OrderStatus;
+import com.ecommerce.application.repositary.OrderRepository;
+import com.ecommerce.application.util.HierarchicalTimingWheel;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stock Reservation Service
+ * A CREATED order holds its stock until reservedUntil; confirming keeps the stock taken,
+ * cancelling or letting the hold run out gives it back
+ * Hold ends are kept in a hierarchical timing wheel, so scheduling is O(1) and expiry
+ * never scans the orders table; a ticker thread advances the wheel and cancels the due
+ * orders in batches, each batch one transaction with one stock update batch
+ * Confirmed or cancelled orders stay in the wheel and are skipped when they come due
+ */
+@Slf4j
+@Service
+public class StockReservationService {
+
+    private final OrderRepository orderRepository;
+    private final IProductService productService;
+    private final TransactionTemplate transactionTemplate;
+    private final long ttlSeconds;
+    private final long tickMillis;
+    private final int releaseBatchSize;
+    private final HierarchicalTimingWheel wheel;
+    private final ScheduledExecutorService ticker;
+
+    private final Counter expired;
+    private final Timer releaseTimer;
+
+    public StockReservationService(OrderRepository orderRepository, IProductService productService,
+            TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+            @Value("${orders.reservation.ttl-seconds:900}") long ttlSeconds,
+            @Value("${orders.reservation.tick-millis:1000}") long tickMillis,
+            @Value("${orders.reservation.wheel-size:64}") int wheelSize,
+            @Value("${orders.reservation.release-batch-size:500}") int releaseBatchSize) {
+        this.orderRepository = orderRepository;
+        this.productService = productService;
+        this.transactionTemplate = transactionTemplate;
+        this.ttlSeconds = ttlSeconds;
+        this.tickMillis = tickMillis;
+        this.releaseBatchSize = releaseBatchSize;
+        this.wheel = new HierarchicalTimingWheel(tickMillis, wheelSize, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-reservation-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.expired = Counter.builder("orders.reservation.expired")
+                .description("Orders cancelled because their stock hold ran out").register(meterRegistry);
+        this.releaseTimer = Timer.builder("orders.reservation.release.duration")
+                .description("Time spent releasing one batch of expired holds")
+                .register(meterRegistry);
+        Gauge.builder("orders.reservation.scheduled", this, StockReservationService::scheduledCount)
+                .description("Hold expiries waiting in the timing wheel, including settled orders")
+                .register(meterRegistry);
+    }
+
+    /**
+     * End of the hold for an order created now
+     */
+    public LocalDateTime holdUntil() {
+        return LocalDateTime.now().plusSeconds(ttlSeconds);
+    }
+
+    /**
+     * Schedule the expiry of new CREATED orders once the current transaction commits
+     */
+    public void schedule(Collection<Order> orders) {
+        List<long[]> holds = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            if (order.getReservedUntil() != null) {
+                holds.add(new long[] { order.getId(), toEpochMillis(order.getReservedUntil()) });
+            }
+        }
+        Runnable action = () -> {
+            synchronized (wheel) {
+                holds.forEach(hold -> wheel.schedule(hold[0], hold[1]));
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Give back the stock taken by the orders' items, in one batch
+     * Callers hold the orders' row locks and update their status
+     */
+    public void releaseStock(Collection<Order> orders) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (Order order : orders) {
+            for (OrderItem item : order.getItems()) {
+                quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        if (!quantities.isEmpty()) {
+            productService.releaseStock(quantities);
+        }
+    }
+
+    /**
+     * Rebuild the schedule from the orders still holding stock, then start ticking
+     * The only full read of held orders, done once per start
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Long recovered = transactionTemplate.execute(status -> {
+            try (Stream<OrderRepository.StockHold> holds = orderRepository.streamStockHolds(OrderStatus.CREATED)) {
+                long count = 0;
+                synchronized (wheel) {
+                    for (OrderRepository.StockHold hold : (Iterable<OrderRepository.StockHold>) holds::iterator) {
+                        wheel.schedule(hold.getId(), toEpochMillis(hold.getReservedUntil()));
+                        count++;
+                    }
+                }
+                return count;
+            }
+        });
+        log.info("Scheduled expiry of {} stock holds", recovered);
+        ticker.scheduleWithFixedDelay(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Advance the wheel and cancel whatever came due
+     * A batch that fails is scheduled again for the next tick
+     */
+    private void tick() {
+        List<Long> due = new ArrayList<>();
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), due::add);
+        }
+
+        for (int from = 0; from < due.size(); from += releaseBatchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + releaseBatchSize, due.size()));
+            try {
+                releaseTimer.record(() -> releaseExpired(batch));
+            } catch (RuntimeException e) {
+                log.error("Releasing {} expired holds failed, retrying next tick", batch.size(), e);
+                long retryAt = System.currentTimeMillis() + tickMillis;
+                synchronized (wheel) {
+                    batch.forEach(id -> wheel.schedule(id, retryAt));
+                }
+            }
+        }
+    }
+
+    /**
+     * Cancel the orders among ids still holding stock past their hold and return the stock
+     */
+    private void releaseExpired(List<Long> ids) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Order> orders = orderRepository.findExpiredHoldsForUpdate(ids, OrderStatus.CREATED, now);
+            if (orders.isEmpty()) {
+                return;
+            }
+
+            releaseStock(orders);
+            for (Order order : orders) {
+                order.setStatus(OrderStatus.CANCELLED);
+                order.setReservedUntil(null);
+                order.setUpdatedAt(now);
+            }
+            expired.increment(orders.size());
+            log.info("Released stock of {} expired orders", orders.size());
+        });
+    }
+
+    private double scheduledCount() {
+        synchronized (wheel) {
+            return wheel.size();
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+}
@@ -1,6 +1,5 @@
 package com.ecommerce.application.service;
 
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.ecommerce.application.entity.User;
@@ -29,7 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepositary userRepositary;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtUtil jwtUtil;
     private final ValidationUtil validationUtil;
     private final AuthorizationUtil authorizationUtil;
@@ -53,8 +52,8 @@ public class UserService {
             throw new BadRequestException("email", "Email already registered");
         }
 
-        // Encode password
-        String encodedPassword = passwordEncoder.encode(userRegisterDto.getPassword());
+        // Encode password on the bounded hashing pool
+        String encodedPassword = passwordHashingService.encode(userRegisterDto.getPassword());
 
         // Create user with CUSTOMER role
         User user = User.builder()
@@ -86,12 +85,19 @@ public class UserService {
                     return new UnauthorizedException();
                 });
 
-        // Verify password
-        if (!passwordEncoder.matches(userLoginDto.getPassword(), user.getPassword())) {
+        // Verify password on the bounded hashing pool
+        if (!passwordHashingService.matches(userLoginDto.getPassword(), user.getPassword())) {
             log.warn("Login failed: Invalid password for email {}", userLoginDto.getEmail());
             throw new UnauthorizedException();
         }
 
+        // Transparently rehash if the stored BCrypt cost differs from the configured one
+        if (passwordHashingService.needsRehash(user.getPassword())) {
+            user.setPassword(passwordHashingService.encode(userLoginDto.getPassword()));
+            userRepositary.save(user);
+            log.info("Password rehashed with current BCrypt strength for user: {}", user.getEmail());
+        }
+
         // Generate JWT token with role
         String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole());
         log.info("User logged in successfully: {}", user.getEmail());
@@ -0,0 +1,92 @@
+package com.ecommerce.application.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ecommerce.application.exception.BadRequestException;
+
+/**
+ * Minimal streaming CSV reader, the counterpart of ExportWriter.writeCsvField
+ * Handles quoted fields with embedded separators, doubled quotes and line breaks
+ * Malformed input is reported as a BadRequestException naming the line it starts on
+ */
+public class CsvReader {
+
+    private final Reader reader;
+    private int next = -2;
+    private int line = 1;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Read the next record
+     * @return the record's fields, or null at end of input
+     */
+    public List<String> readRecord() throws IOException {
+        int startLine = line;
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new BadRequestException("file", "Unterminated quoted field starting on line " + startLine);
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        int c;
+        if (next != -2) {
+            c = next;
+            next = -2;
+        } else {
+            c = reader.read();
+        }
+        if (c == '\n' || (c == '\r' && peek() != '\n')) {
+            line++;
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (next == -2) {
+            next = reader.read();
+        }
+        return next;
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.application.util;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.application.exception.BadRequestException;
+
+/**
+ * Encodes and decodes opaque keyset pagination cursors
+ * A cursor carries the sort key it was issued for followed by the last row's key values
+ */
+@Component
+public class CursorUtil {
+
+    private static final String SEPARATOR = "\u0000";
+
+    /**
+     * Build an opaque cursor from the sort key and the last row's key values
+     */
+    public String encode(String sortKey, String... values) {
+        String raw = sortKey + SEPARATOR + String.join(SEPARATOR, values);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor issued for the given sort key
+     * @return the key values stored in the cursor
+     * @throws BadRequestException if the cursor is malformed or was issued for another sort
+     */
+    public String[] decode(String cursor, String sortKey, int valueCount) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split(SEPARATOR, -1);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("cursor", "Malformed cursor");
+        }
+
+        if (parts.length != valueCount + 1 || !parts[0].equals(sortKey)) {
+            throw new BadRequestException("cursor", "Cursor does not match sort order " + sortKey);
+        }
+
+        String[] values = new String[valueCount];
+        System.arraycopy(parts, 1, values, 0, valueCount);
+        return values;
+    }
+
+    /**
+     * Parse a numeric key value from a decoded cursor
+     */
+    public Long parseLong(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("cursor", "Malformed cursor");
+        }
+    }
+
+    /**
+     * Parse a decimal key value from a decoded cursor
+     */
+    public BigDecimal parseDecimal(String value) {
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("cursor", "Malformed cursor");
+        }
+    }
+
+    /**
+     * Parse a timestamp key value from a decoded cursor
+     */
+    public LocalDateTime parseDateTime(String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("cursor", "Malformed cursor");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.ecommerce.application.util;
+
+import java.util.Objects;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import com.ecommerce.application.cache.CatalogResponseCache.CachedResponse;
+import com.ecommerce.application.cache.CatalogVersion;
+import com.ecommerce.application.entity.dtos.ProductResponseDto;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * ETags and conditional GET handling for catalog reads
+ * List endpoints are tagged with the catalog version so a matching If-None-Match
+ * is answered before any data is loaded
+ * Gzip'd bodies are tagged apart from identity ones, since strong tags must differ between
+ * byte-different representations
+ * Product list and batch tags are weak while stock may lag the catalog version, since a
+ * freshly rendered body can then show newer stock under an unchanged version
+ */
+@Component
+@RequiredArgsConstructor
+public class EtagUtil {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+    private static final String GZIP_SUFFIX = "-gz";
+
+    private final CatalogVersion catalogVersion;
+
+    /**
+     * ETag for catalog list responses; take it before loading the data
+     */
+    public String catalogEtag() {
+        return catalogVersion.etag();
+    }
+
+    /**
+     * ETag for catalog list responses sent with ok(String, CachedResponse, WebRequest)
+     * Chosen by Accept-Encoding alone, so it is known before the body is loaded
+     */
+    public String catalogEtag(WebRequest request) {
+        return acceptsGzip(request) ? catalogEtag() + GZIP_SUFFIX : catalogEtag();
+    }
+
+    /**
+     * ETag for responses that embed product stock; take it before loading the data
+     */
+    public String productListEtag() {
+        return stockTag(catalogEtag());
+    }
+
+    /**
+     * ETag for product list responses sent with ok(String, CachedResponse, WebRequest)
+     */
+    public String productListEtag(WebRequest request) {
+        return stockTag(catalogEtag(request));
+    }
+
+    /**
+     * ETag for a single product: its entity version plus the embedded category name
+     */
+    public String productEtag(ProductResponseDto product) {
+        return "product-" + product.getId() + "-" + product.getVersion()
+                + "-" + Integer.toHexString(Objects.hashCode(product.getCategoryName()));
+    }
+
+    /**
+     * True if the client already holds this version; the response is then a bodiless 304
+     */
+    public boolean isNotModified(WebRequest request, String etag) {
+        return request.checkNotModified(etag);
+    }
+
+    /**
+     * 200 response carrying the ETag; clients may store it but must revalidate
+     */
+    public <T> ResponseEntity<T> ok(String etag, T body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .body(body);
+    }
+
+    /**
+     * 200 response with pre-encoded JSON, gzip'd when the client accepts it and a gzip copy exists
+     * The bytes are copied straight to the response without another serialization pass
+     * Pass the tag from catalogEtag(WebRequest), which differs between the two encodings
+     */
+    public ResponseEntity<byte[]> ok(String etag, CachedResponse body, WebRequest request) {
+        boolean gzip = body.gzip() != null && acceptsGzip(request);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(gzip ? body.gzip() : body.json());
+    }
+
+    private String stockTag(String tag) {
+        return catalogVersion.stockLags() ? "W/\"" + tag + "\"" : tag;
+    }
+
+    private static boolean acceptsGzip(WebRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.application.util;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Minimal escaping helpers for streaming NDJSON and CSV exports
+ * Values are written straight to the output so no per-row document is built
+ */
+public final class ExportWriter {
+
+    private ExportWriter() {
+    }
+
+    /**
+     * Write a JSON string literal (including quotes), or null
+     */
+    public static void writeJsonString(Writer out, String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.write("\\\"");
+                case '\\' -> out.write("\\\\");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                case '\t' -> out.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write('"');
+    }
+
+    /**
+     * Write a JSON value that needs no escaping (numbers), or null
+     */
+    public static void writeJsonRaw(Writer out, Object value) throws IOException {
+        out.write(value == null ? "null" : value.toString());
+    }
+
+    /**
+     * Write a CSV field, quoting it when it contains separators, quotes or line breaks
+     */
+    public static void writeCsvField(Writer out, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+    }
+}
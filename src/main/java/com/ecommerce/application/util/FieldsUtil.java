@@ -0,0 +1,70 @@
+package com.ecommerce.application.util;
+
+import com.ecommerce.application.entity.enums.ResponseField;
+import com.ecommerce.application.exception.BadRequestException;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Parses and applies sparse fieldsets (fields=id,name,price)
+ * Sparse responses are maps keyed by field JSON name, in field declaration order
+ */
+@Component
+public class FieldsUtil {
+
+    /**
+     * Parse a comma-separated fields parameter
+     * @throws BadRequestException for unknown names or an empty selection
+     */
+    public <F extends Enum<F> & ResponseField<?>> EnumSet<F> parse(String fields, Class<F> type) {
+        EnumSet<F> selected = EnumSet.noneOf(type);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            selected.add(find(type, trimmed));
+        }
+        if (selected.isEmpty()) {
+            throw new BadRequestException("fields", "At least one field is required");
+        }
+        return selected;
+    }
+
+    /**
+     * Copy the selected fields out of a fully loaded response DTO
+     */
+    public <T, F extends Enum<F> & ResponseField<T>> Map<String, Object> select(T source, Set<F> fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (F field : fields) {
+            values.put(field.getJsonName(), field.read(source));
+        }
+        return values;
+    }
+
+    /**
+     * Drop the properties of a projected row that were only read for internal use
+     */
+    public <F extends Enum<F> & ResponseField<?>> Map<String, Object> retain(Map<String, Object> row, Set<F> fields) {
+        Set<String> names = fields.stream().map(ResponseField::getJsonName).collect(Collectors.toSet());
+        row.keySet().retainAll(names);
+        return row;
+    }
+
+    private <F extends Enum<F> & ResponseField<?>> F find(Class<F> type, String name) {
+        for (F field : type.getEnumConstants()) {
+            if (field.getJsonName().equals(name)) {
+                return field;
+            }
+        }
+        String allowed = EnumSet.allOf(type).stream()
+                .map(ResponseField::getJsonName)
+                .collect(Collectors.joining(", "));
+        throw new BadRequestException("fields", "Unknown field " + name + "; allowed: " + allowed);
+    }
+}
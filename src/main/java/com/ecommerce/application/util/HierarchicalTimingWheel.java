@@ -0,0 +1,151 @@
+package com.ecommerce.application.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+/**
+ * Hierarchical timing wheel of long ids with millisecond deadlines
+ * Level 0 has wheelSize buckets of tickMillis each; every level above has buckets as wide
+ * as one full turn of the level below, added lazily as far-off deadlines need them
+ * Scheduling is O(1) and nothing is ever scanned for expiry: advancing visits one bucket
+ * per tick and moves the entries of a higher-level bucket down once its turn comes
+ * Ids fire no earlier than their deadline and at most one tick after it
+ * Not thread-safe; callers synchronize
+ */
+public class HierarchicalTimingWheel {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final List<Bucket[]> levels = new ArrayList<>();
+    private final List<Long> levelTicks = new ArrayList<>();
+    private long currentTime;
+    private long size;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize at least 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+        addLevel();
+    }
+
+    /**
+     * Schedule an id; a deadline already passed fires on the next advance
+     */
+    public void schedule(long id, long deadlineMillis) {
+        place(id, Math.max(deadlineMillis, currentTime));
+        size++;
+    }
+
+    /**
+     * Move time forward and hand every id whose deadline is at or before now to the consumer
+     */
+    public void advance(long nowMillis, LongConsumer expired) {
+        while (currentTime + tickMillis <= nowMillis) {
+            Bucket due = levels.get(0)[bucketIndex(0, currentTime)];
+            size -= due.size;
+            due.drain((id, deadline) -> expired.accept(id));
+            currentTime += tickMillis;
+            cascade();
+        }
+    }
+
+    /**
+     * Number of ids scheduled and not yet fired
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Put a deadline in the lowest level whose current turn covers it
+     */
+    private void place(long id, long deadline) {
+        int level = 0;
+        while (deadline / turnMillis(level) != currentTime / turnMillis(level)) {
+            level++;
+            if (level == levels.size()) {
+                addLevel();
+            }
+        }
+        levels.get(level)[bucketIndex(level, deadline)].add(id, deadline);
+    }
+
+    /**
+     * On entering a new bucket of a higher level, spread its entries over the levels below
+     * Highest level first, so entries can fall through several levels in one step
+     */
+    private void cascade() {
+        for (int level = levels.size() - 1; level > 0; level--) {
+            if (currentTime % levelTicks.get(level) == 0) {
+                levels.get(level)[bucketIndex(level, currentTime)].drain(this::place);
+            }
+        }
+    }
+
+    private void addLevel() {
+        long tick = levels.isEmpty() ? tickMillis : turnMillis(levels.size() - 1);
+        Bucket[] buckets = new Bucket[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new Bucket();
+        }
+        levels.add(buckets);
+        levelTicks.add(tick);
+    }
+
+    /**
+     * Span of one full turn of a level, saturating instead of overflowing
+     */
+    private long turnMillis(int level) {
+        long tick = levelTicks.get(level);
+        return tick > Long.MAX_VALUE / wheelSize ? Long.MAX_VALUE : tick * wheelSize;
+    }
+
+    private int bucketIndex(int level, long time) {
+        return (int) ((time / levelTicks.get(level)) % wheelSize);
+    }
+
+    @FunctionalInterface
+    private interface Entry {
+        void accept(long id, long deadline);
+    }
+
+    /**
+     * Growable parallel arrays, so millions of entries cost 16 bytes each and no boxing
+     */
+    private static final class Bucket {
+        private long[] ids = new long[0];
+        private long[] deadlines = new long[0];
+        private int size;
+
+        void add(long id, long deadline) {
+            if (size == ids.length) {
+                int capacity = Math.max(8, size * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                deadlines = Arrays.copyOf(deadlines, capacity);
+            }
+            ids[size] = id;
+            deadlines[size] = deadline;
+            size++;
+        }
+
+        /**
+         * Empty the bucket, then hand each entry over; entries may be added back meanwhile
+         */
+        void drain(Entry consumer) {
+            long[] drainedIds = ids;
+            long[] drainedDeadlines = deadlines;
+            int drainedSize = size;
+            ids = new long[0];
+            deadlines = new long[0];
+            size = 0;
+            for (int i = 0; i < drainedSize; i++) {
+                consumer.accept(drainedIds[i], drainedDeadlines[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.application.util;
+
+import java.time.Instant;
+
+import com.ecommerce.application.entity.enums.Role;
+
+/**
+ * Immutable view of a verified JWT
+ * Produced once per token by JwtUtil.parseToken so callers never re-verify the signature
+ */
+public record JwtClaims(String email, Long userId, Role role, Instant expiresAt) {
+
+    /**
+     * Check whether the token has expired at the given instant
+     */
+    public boolean isExpiredAt(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,189 @@
+package com.ecommerce.application.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bounded cache of already-verified JWT tokens
+ * Keyed by a SHA-256 digest of the token so raw tokens are never retained
+ * Lookups and inserts take no shared lock: an insert first reserves a slot on an atomic
+ * counter, so the size bound is strict, and a full cache drops the token expiring soonest
+ * from a concurrent expiry-ordered map
+ * A sweeper is always scheduled for the earliest expiry, so each token leaves the cache
+ * at its own exp even if it is never looked up again
+ */
+@Component
+public class JwtTokenCache {
+
+    private final JwtUtil jwtUtil;
+    private final int maxSize;
+    private final Map<String, JwtClaims> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Expiry, String> expiries = new ConcurrentSkipListMap<>(
+            Comparator.comparing(Expiry::at).thenComparing(Expiry::key));
+    // reserved slots; never below the number of entries
+    private final AtomicInteger reserved = new AtomicInteger();
+    private final AtomicReference<Instant> nextSweepAt = new AtomicReference<>();
+    private final ScheduledExecutorService sweeper;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public JwtTokenCache(JwtUtil jwtUtil, MeterRegistry meterRegistry,
+            @Value("${jwt.cache.max-size:10000}") int maxSize) {
+        this.jwtUtil = jwtUtil;
+        this.maxSize = maxSize;
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwt-cache-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.hits = Counter.builder("jwt.cache.requests").tag("result", "hit")
+                .description("Verified-token cache lookups").register(meterRegistry);
+        this.misses = Counter.builder("jwt.cache.requests").tag("result", "miss")
+                .description("Verified-token cache lookups").register(meterRegistry);
+        this.evictions = Counter.builder("jwt.cache.evictions")
+                .description("Tokens removed from the verified-token cache").register(meterRegistry);
+        Gauge.builder("jwt.cache.size", entries, Map::size)
+                .description("Tokens currently held in the verified-token cache").register(meterRegistry);
+    }
+
+    /**
+     * Return the claims of a token, verifying its signature only on a cache miss
+     * @return claims, or empty if the token is invalid or expired
+     */
+    public Optional<JwtClaims> resolve(String token) {
+        String key = digest(token);
+        Instant now = Instant.now();
+
+        JwtClaims cached = entries.get(key);
+        if (cached != null && !cached.isExpiredAt(now)) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+
+        misses.increment();
+        Optional<JwtClaims> claims = jwtUtil.parseToken(token);
+        claims.filter(c -> c.expiresAt() != null && !c.isExpiredAt(now))
+                .ifPresent(c -> store(key, c, now));
+        return claims;
+    }
+
+    /**
+     * Number of tokens currently cached
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    private void store(String key, JwtClaims claims, Instant now) {
+        if (entries.containsKey(key) || !reserveSlot()) {
+            return;
+        }
+        if (entries.putIfAbsent(key, claims) != null) {
+            reserved.decrementAndGet();
+            return;
+        }
+        expiries.put(new Expiry(claims.expiresAt(), key), key);
+        scheduleSweep(claims.expiresAt(), now);
+    }
+
+    /**
+     * Take a slot, evicting the tokens expiring soonest while the cache is full
+     * @return false if every slot is held by an insert that has not listed its expiry yet
+     */
+    private boolean reserveSlot() {
+        while (true) {
+            int current = reserved.get();
+            if (current < maxSize) {
+                if (reserved.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+                continue;
+            }
+            Map.Entry<Expiry, String> soonest = expiries.pollFirstEntry();
+            if (soonest == null) {
+                return false;
+            }
+            evict(soonest.getValue());
+        }
+    }
+
+    private void sweep() {
+        // cleared first, so an insert racing with this sweep schedules its own
+        nextSweepAt.set(null);
+        Instant now = Instant.now();
+        Map.Entry<Expiry, String> earliest;
+        while ((earliest = expiries.firstEntry()) != null && !now.isBefore(earliest.getKey().at())) {
+            if (expiries.remove(earliest.getKey()) != null) {
+                evict(earliest.getValue());
+            }
+        }
+        if (earliest != null) {
+            scheduleSweep(earliest.getKey().at(), now);
+        }
+    }
+
+    private void evict(String key) {
+        if (entries.remove(key) != null) {
+            reserved.decrementAndGet();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Make sure a sweep runs by the given expiry; a sweep already due earlier is kept
+     * A replaced later sweep still runs and finds nothing to do or reschedules
+     */
+    private void scheduleSweep(Instant at, Instant now) {
+        Instant scheduled = nextSweepAt.get();
+        while (scheduled == null || at.isBefore(scheduled)) {
+            if (nextSweepAt.compareAndSet(scheduled, at)) {
+                // one extra millisecond so the sweep never runs just before the expiry it is for
+                long delayMillis = Math.max(0, Duration.between(now, at).toMillis()) + 1;
+                sweeper.schedule(this::sweep, delayMillis, TimeUnit.MILLISECONDS);
+                return;
+            }
+            scheduled = nextSweepAt.get();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Expiry(Instant at, String key) {
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.application.util;
 
 import java.util.Date;
+import java.util.Optional;
 
 import javax.crypto.SecretKey;
 
@@ -9,92 +10,67 @@ import org.springframework.stereotype.Component;
 
 import com.ecommerce.application.entity.enums.Role;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * JWT Token generation and validation utility
+ * parseToken is the only way to read a token, so each request verifies it exactly once
  * Includes user credentials and role in token payload
+ * Signing key and parser are built once at startup and shared (both are thread-safe)
  */
+@Slf4j
 @Component
 public class JwtUtil {
 
-    @Value("${jwt.secret:your-secret-key-for-jwt-token-generation-make-it-long-and-secure}")
-    private String jwtSecret;
+    private final long jwtExpirationMs;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
 
-    @Value("${jwt.expiration:86400000}")
-    private long jwtExpirationMs;
+    public JwtUtil(
+            @Value("${jwt.secret:your-secret-key-for-jwt-token-generation-make-it-long-and-secure}") String jwtSecret,
+            @Value("${jwt.expiration:86400000}") long jwtExpirationMs) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
 
     /**
      * Generate JWT token with user email, ID, and role
      */
     public String generateToken(String email, Long userId, Role role) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        
         return Jwts.builder()
                 .subject(email)
                 .claim("userId", userId)
                 .claim("role", role.name())
                 .issuedAt(new Date())
                 .expiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(key, SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     /**
-     * Extract email from JWT token
-     */
-    public String extractEmail(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload()
-                .getSubject();
-    }
-
-    /**
-     * Extract user ID from JWT token
-     */
-    public Long extractUserId(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        return claims.get("userId", Long.class);
-    }
-
-    /**
-     * Extract role from JWT token
-     */
-    public Role extractRole(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        Claims claims = Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        String roleStr = claims.get("role", String.class);
-        return Role.fromString(roleStr);
-    }
-
-    /**
-     * Validate JWT token signature and expiration
+     * Verify the token once and return all claims needed for authentication
+     * @return claims, or empty if the signature, expiry or payload is invalid
      */
-    public boolean validateToken(String token) {
+    public Optional<JwtClaims> parseToken(String token) {
         try {
-            SecretKey key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-            Jwts.parser()
-                    .verifyWith(key)
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            Date expiration = claims.getExpiration();
+            return Optional.of(new JwtClaims(
+                    claims.getSubject(),
+                    claims.get("userId", Long.class),
+                    Role.fromString(claims.get("role", String.class)),
+                    expiration != null ? expiration.toInstant() : null));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Invalid JWT token: {}", e.getMessage());
+            return Optional.empty();
         }
     }
 }
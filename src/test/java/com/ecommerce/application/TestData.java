@@ -0,0 +1,74 @@
+package com.ecommerce.application;
+
+import java.math.BigDecimal;
+
+import org.springframework.stereotype.Component;
+
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.repositary.CategoryRepository;
+import com.ecommerce.application.repositary.ProductRepository;
+import com.ecommerce.application.repositary.UserRepositary;
+
+/**
+ * Saves the users, categories and products integration tests start from
+ * Emails and category names carry System.nanoTime(), so tests sharing the context never collide
+ */
+@Component
+public class TestData {
+
+	private static final String UNUSED_PASSWORD = "not-used";
+
+	private final UserRepositary userRepositary;
+	private final CategoryRepository categoryRepository;
+	private final ProductRepository productRepository;
+
+	public TestData(UserRepositary userRepositary, CategoryRepository categoryRepository,
+			ProductRepository productRepository) {
+		this.userRepositary = userRepositary;
+		this.categoryRepository = categoryRepository;
+		this.productRepository = productRepository;
+	}
+
+	public User user() {
+		return user(Role.CUSTOMER);
+	}
+
+	public User user(Role role) {
+		return user(role, UNUSED_PASSWORD);
+	}
+
+	public User user(Role role, String password) {
+		return userRepositary.save(User.builder()
+				.name("Test User")
+				.email("user" + System.nanoTime() + "@example.com")
+				.password(password)
+				.role(role)
+				.build());
+	}
+
+	public Category category() {
+		return categoryRepository.save(Category.builder().name("Category " + System.nanoTime()).build());
+	}
+
+	/**
+	 * Product priced at 10
+	 */
+	public Product product(Category category, String name, int stock) {
+		return productRepository.save(Product.builder()
+				.name(name)
+				.price(BigDecimal.TEN)
+				.stock(stock)
+				.category(category)
+				.build());
+	}
+
+	/**
+	 * Product in a category of its own
+	 */
+	public Product product(String name, int stock) {
+		return product(category(), name, stock);
+	}
+}
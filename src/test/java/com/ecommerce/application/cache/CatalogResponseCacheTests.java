@@ -0,0 +1,48 @@
+package com.ecommerce.application.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import tools.jackson.databind.json.JsonMapper;
+
+class CatalogResponseCacheTests {
+
+	private final AtomicInteger loads = new AtomicInteger();
+
+	private final CatalogResponseCache cache = new CatalogResponseCache(new CatalogVersion(0),
+			JsonMapper.builder().build(), new SimpleMeterRegistry(), true, 3, 1024);
+
+	@Test
+	void fullCacheEvictsLeastRecentlyUsedAndKeepsCachingNewResponses() {
+		load("a");
+		load("b");
+		load("c");
+		load("a");
+
+		// a crawler walking deep pages must not stop new responses from being cached
+		load("d");
+		load("e");
+		assertEquals(3, cache.size());
+		assertEquals(5, loads.get());
+
+		load("a");
+		load("d");
+		load("e");
+		assertEquals(5, loads.get());
+
+		load("b");
+		assertEquals(6, loads.get());
+	}
+
+	private void load(String key) {
+		cache.get(key, () -> {
+			loads.incrementAndGet();
+			return List.of(key);
+		});
+	}
+}
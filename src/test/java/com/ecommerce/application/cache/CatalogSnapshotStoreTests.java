@@ -0,0 +1,166 @@
+package com.ecommerce.application.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.dtos.ProductRequestDto;
+import com.ecommerce.application.entity.dtos.ProductResponseDto;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.repositary.ProductRepository;
+import com.ecommerce.application.service.IProductService;
+
+/**
+ * A patch whose load started before a delete must not put the product back
+ * when it finishes after the delete's patch, and a write that commits while a
+ * rebuild is loading must still reach the published snapshot
+ */
+@SpringBootTest(properties = "catalog.snapshot.enabled=true")
+class CatalogSnapshotStoreTests {
+
+	@Autowired
+	private CatalogSnapshotStore catalogSnapshotStore;
+
+	@Autowired
+	private CatalogVersion catalogVersion;
+
+	@Autowired
+	private IProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private TestData testData;
+
+	@Test
+	void slowUpdateDoesNotResurrectDeletedProduct() throws Exception {
+		Category category = testData.category();
+		Long id = testData.product(category, "Doomed", 1).getId();
+		productService.refreshCatalogSnapshot(List.of(id));
+		catalogSnapshotStore.awaitPatches();
+		assertNotNull(catalogSnapshotStore.current().product(id));
+
+		CountDownLatch loaded = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		Thread update = new Thread(() -> catalogSnapshotStore.patchAfterCommit(() -> {
+			List<ProductResponseDto> refreshed = productRepository.findByIdIn(List.of(id)).stream()
+					.map(product -> ProductResponseDto.builder()
+							.id(product.getId())
+							.name(product.getName())
+							.price(product.getPrice())
+							.stock(product.getStock())
+							.categoryId(category.getId())
+							.version(product.getVersion())
+							.build())
+					.toList();
+			loaded.countDown();
+			awaitQuietly(release);
+			return snapshot -> snapshot.withProducts(refreshed, List.of(id));
+		}));
+		update.start();
+		assertTrue(loaded.await(5, TimeUnit.SECONDS));
+
+		Thread delete = new Thread(() -> productService.deleteProduct(id, Role.ADMIN));
+		delete.start();
+		// give the delete's patch time to overtake the stalled update
+		Thread.sleep(200);
+		release.countDown();
+		update.join(5000);
+		delete.join(5000);
+		catalogSnapshotStore.awaitPatches();
+
+		assertNull(catalogSnapshotStore.current().product(id));
+	}
+
+	@Test
+	void productCreatedDuringRebuildIsPublished() throws Exception {
+		Category category = testData.category();
+
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		// the build has already streamed past the product created below
+		Thread rebuild = new Thread(() -> catalogSnapshotStore.rebuild(() -> {
+			loading.countDown();
+			awaitQuietly(release);
+			return CatalogSnapshot.of(List.of(), List.of());
+		}));
+		rebuild.start();
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+		Long id = productService.createProduct(ProductRequestDto.builder()
+				.name("Late arrival")
+				.price(BigDecimal.TEN)
+				.stock(3)
+				.categoryId(category.getId())
+				.build(), Role.ADMIN).getId();
+		release.countDown();
+		rebuild.join(5000);
+		catalogSnapshotStore.awaitPatches();
+
+		ProductResponseDto published = catalogSnapshotStore.current().product(id);
+		assertNotNull(published);
+		assertEquals(3, published.getStock());
+	}
+
+	@Test
+	void versionAdvancesOncePatchIsPublished() throws Exception {
+		catalogSnapshotStore.awaitPatches();
+		CountDownLatch release = new CountDownLatch(1);
+		// hold the patcher so the write's patch stays queued after its commit
+		catalogSnapshotStore.patchAfterCommit(() -> {
+			awaitQuietly(release);
+			return snapshot -> snapshot;
+		});
+		Category category = testData.category();
+		Long id = productService.createProduct(ProductRequestDto.builder()
+				.name("Pending")
+				.price(BigDecimal.TEN)
+				.stock(1)
+				.categoryId(category.getId())
+				.build(), Role.ADMIN).getId();
+		long committed = catalogVersion.current();
+
+		// read-your-writes before the patch is published
+		assertEquals("Pending", productService.getProductById(id).getName());
+		assertNull(catalogSnapshotStore.current().product(id));
+
+		release.countDown();
+		catalogSnapshotStore.awaitPatches();
+		assertNotNull(catalogSnapshotStore.current().product(id));
+		assertTrue(catalogVersion.current() > committed);
+	}
+
+	@Test
+	void failedPatchRebuildsTheSnapshot() throws Exception {
+		Long id = testData.product("Missed", 1).getId();
+
+		catalogSnapshotStore.patchAfterCommit(() -> {
+			throw new IllegalStateException("load failed");
+		});
+		catalogSnapshotStore.awaitPatches();
+
+		assertNotNull(catalogSnapshotStore.current());
+		assertNotNull(catalogSnapshotStore.current().product(id));
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
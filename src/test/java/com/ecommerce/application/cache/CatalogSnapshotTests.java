@@ -0,0 +1,140 @@
+package com.ecommerce.application.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.ecommerce.application.entity.dtos.CategoryResponseDto;
+import com.ecommerce.application.entity.dtos.ProductResponseDto;
+
+class CatalogSnapshotTests {
+
+	private CatalogSnapshot snapshot;
+
+	@BeforeEach
+	void setUp() {
+		snapshot = CatalogSnapshot.of(
+				List.of(product(3L, "Cable", 2L, 0L), product(1L, "Phone", 1L, 0L), product(2L, "Case", 1L, 0L),
+						product(4L, "Adapter", 1L, 0L)),
+				List.of(category(1L, "Phones"), category(2L, "Accessories")));
+	}
+
+	@Test
+	void pagesFollowKeysetOrder() {
+		assertEquals(List.of(2L, 3L), ids(snapshot.pageById(null, 1L, 2)));
+		assertEquals(List.of(4L), ids(snapshot.pageById(1L, 2L, 10)));
+		assertEquals(List.of(4L, 2L), ids(snapshot.pageByName(1L, "", 0L, 2)));
+		assertEquals(List.of(3L, 2L, 1L), ids(snapshot.pageByName(null, "Adapter", 4L, 10)));
+	}
+
+	@Test
+	void patchesReplaceNewerVersionsAndRemoveMissingIds() {
+		CatalogSnapshot patched = snapshot.withProducts(
+				List.of(product(1L, "Phone X", 1L, 2L), product(5L, "Charger", 2L, 0L)), List.of(1L, 2L, 5L));
+
+		assertEquals("Phone X", patched.product(1L).getName());
+		assertNull(patched.product(2L));
+		assertEquals(List.of(3L, 5L), ids(patched.pageById(2L, 0L, 10)));
+		assertEquals("Phone", snapshot.product(1L).getName());
+
+		CatalogSnapshot stale = patched.withProducts(List.of(product(1L, "Phone", 1L, 1L)), List.of(1L));
+		assertEquals("Phone X", stale.product(1L).getName());
+	}
+
+	@Test
+	void categoryChangesRenameProducts() {
+		CatalogSnapshot patched = snapshot.withCategories(List.of(category(1L, "Mobiles")));
+
+		assertEquals("Mobiles", patched.product(1L).getCategoryName());
+		assertFalse(patched.hasCategory(2L));
+	}
+
+	@Test
+	void stockOnlyPatchKeepsOrders() {
+		ProductResponseDto restocked = product(2L, "Case", 1L, 1L);
+		restocked.setStock(7);
+
+		CatalogSnapshot patched = snapshot.withProducts(List.of(restocked), List.of(2L));
+
+		assertEquals(7, patched.product(2L).getStock());
+		assertEquals(1, snapshot.product(2L).getStock());
+		assertEquals(List.of(4L, 2L, 1L), ids(patched.pageByName(1L, "", 0L, 10)));
+		assertEquals(ids(snapshot.pageByName(null, "", 0L, 10)), ids(patched.pageByName(null, "", 0L, 10)));
+	}
+
+	@Test
+	void incrementalPatchesMatchFullRebuild() {
+		Random random = new Random(42);
+		Map<Long, ProductResponseDto> current = new HashMap<>();
+		for (long id = 1; id <= 3000; id++) {
+			current.put(id, product(id, "P" + random.nextInt(500), 1L + random.nextInt(3), 0L));
+		}
+		List<CategoryResponseDto> categories = List.of(category(1L, "Phones"), category(2L, "Accessories"),
+				category(3L, "Cables"));
+		CatalogSnapshot patched = CatalogSnapshot.of(current.values(), categories);
+
+		for (int round = 0; round < 200; round++) {
+			List<ProductResponseDto> refreshed = new ArrayList<>();
+			List<Long> ids = new ArrayList<>();
+			for (int i = 0; i < 1 + random.nextInt(20); i++) {
+				long id = 1 + random.nextInt(3500);
+				ids.add(id);
+				int change = random.nextInt(4);
+				if (change == 0) {
+					current.remove(id);
+					continue;
+				}
+				ProductResponseDto previous = current.get(id);
+				ProductResponseDto next = product(id,
+						previous == null || change == 1 ? "P" + random.nextInt(500) : previous.getName(),
+						previous == null || change == 2 ? 1L + random.nextInt(3) : previous.getCategoryId(),
+						previous == null ? 0L : previous.getVersion() + 1);
+				next.setStock(random.nextInt(100));
+				current.put(id, next);
+				refreshed.removeIf(product -> product.getId() == id);
+				refreshed.add(next);
+			}
+			patched = patched.withProducts(refreshed, ids);
+		}
+
+		CatalogSnapshot rebuilt = CatalogSnapshot.of(current.values(), categories);
+		assertEquals(rebuilt.productCount(), patched.productCount());
+		assertEquals(rebuilt.estimatedBytes(), patched.estimatedBytes());
+		assertEquals(rebuilt.pageById(null, 0L, 5000), patched.pageById(null, 0L, 5000));
+		assertEquals(rebuilt.pageByName(null, "", 0L, 5000), patched.pageByName(null, "", 0L, 5000));
+		for (long categoryId = 1; categoryId <= 3; categoryId++) {
+			assertEquals(rebuilt.pageById(categoryId, 0L, 5000), patched.pageById(categoryId, 0L, 5000));
+			assertEquals(rebuilt.pageByName(categoryId, "", 0L, 5000), patched.pageByName(categoryId, "", 0L, 5000));
+		}
+	}
+
+	private List<Long> ids(List<ProductResponseDto> products) {
+		return products.stream().map(ProductResponseDto::getId).toList();
+	}
+
+	private ProductResponseDto product(Long id, String name, Long categoryId, Long version) {
+		return ProductResponseDto.builder()
+				.id(id)
+				.name(name)
+				.price(BigDecimal.TEN)
+				.stock(1)
+				.categoryId(categoryId)
+				.categoryName(categoryId == 1L ? "Phones" : categoryId == 2L ? "Accessories" : "Cables")
+				.version(version)
+				.build();
+	}
+
+	private CategoryResponseDto category(Long id, String name) {
+		return CategoryResponseDto.builder().id(id).name(name).build();
+	}
+}
@@ -0,0 +1,67 @@
+package com.ecommerce.application.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CoalescingMapTests {
+
+	private static final long HOUR_NANOS = 3_600_000_000_000L;
+
+	private final Counter evictions = new SimpleMeterRegistry().counter("evictions");
+
+	@Test
+	void concurrentClaimsShareOneEntry() {
+		CoalescingMap<String, Integer> map = new CoalescingMap<>(10, HOUR_NANOS, evictions);
+
+		CoalescingMap.Claim<Integer> first = map.claim("key", "a");
+		CoalescingMap.Claim<Integer> second = map.claim("key", "b");
+
+		assertTrue(first.loader());
+		assertFalse(second.loader());
+		assertSame(first.entry(), second.entry());
+		map.complete("key", first.entry(), 7, true);
+		assertEquals(7, second.entry().join());
+		assertEquals("a", map.claim("key", null).entry().fingerprint());
+	}
+
+	@Test
+	void failedAndDiscardedLoadsAreNotKept() {
+		CoalescingMap<String, Integer> map = new CoalescingMap<>(10, HOUR_NANOS, evictions);
+
+		CoalescingMap.Claim<Integer> failed = map.claim("failed", null);
+		map.fail("failed", failed.entry(), new IllegalStateException("boom"));
+		assertThrows(IllegalStateException.class, () -> failed.entry().join());
+
+		CoalescingMap.Claim<Integer> discarded = map.claim("discarded", null);
+		map.complete("discarded", discarded.entry(), 1, false);
+
+		assertEquals(0, map.size());
+	}
+
+	@Test
+	void overflowSweepsDownToLowWaterMarkAndKeepsLoadsInFlight() {
+		CoalescingMap<Integer, Integer> map = new CoalescingMap<>(100, HOUR_NANOS, evictions);
+		CoalescingMap.Claim<Integer> inFlight = map.claim(-1, null);
+		for (int key = 0; key < 100; key++) {
+			map.complete(key, map.claim(key, null).entry(), key, true);
+		}
+
+		// the 101st entry triggers one sweep down to 90, then ten more fit without another
+		assertEquals(90, map.size());
+		for (int key = 100; key < 110; key++) {
+			map.complete(key, map.claim(key, null).entry(), key, true);
+		}
+		assertEquals(100, map.size());
+		assertEquals(11.0, evictions.count());
+		assertFalse(map.claim(-1, null).loader());
+		assertSame(inFlight.entry(), map.claim(-1, null).entry());
+	}
+}
@@ -0,0 +1,173 @@
+package com.ecommerce.application.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.dtos.ProductRequestDto;
+import com.ecommerce.application.entity.dtos.ProductResponseDto;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.service.IProductService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Concurrent misses share one load, and a product changed inside a transaction is
+ * reloaded after commit even if another request cached or was loading the old row meanwhile
+ */
+@SpringBootTest
+class ProductCacheTests {
+
+	private static final int THREADS = 16;
+	private static final int STOCK = 10;
+
+	@Autowired
+	private IProductService productService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Category category;
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		category = testData.category();
+		product = testData.product(category, "Product", STOCK);
+	}
+
+	@Test
+	void concurrentMissesShareOneLoad() throws Exception {
+		ProductCache cache = new ProductCache(new SimpleMeterRegistry(), 100, 300);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<ProductResponseDto>> results = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				results.add(executor.submit(() -> cache.get(1L, id -> {
+					loads.incrementAndGet();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return ProductResponseDto.builder().id(id).name("Loaded").build();
+				})));
+			}
+			// let every thread reach the cache before the one load finishes
+			Thread.sleep(200);
+			release.countDown();
+
+			for (Future<ProductResponseDto> result : results) {
+				assertEquals("Loaded", result.get(5, TimeUnit.SECONDS).getName());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		assertEquals(1, loads.get());
+	}
+
+	@Test
+	void loadSpanningCommitIsNotCached() throws Exception {
+		ProductCache cache = new ProductCache(new SimpleMeterRegistry(), 100, 300);
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			Future<ProductResponseDto> stale = transactionTemplate.execute(status -> {
+				cache.invalidate(1L);
+				// a concurrent read starts before this commit and sees the old row
+				Future<ProductResponseDto> read = executor.submit(() -> cache.get(1L, id -> {
+					loading.countDown();
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return ProductResponseDto.builder().id(id).name("Old").build();
+				}));
+				await(loading);
+				return read;
+			});
+			// the after-commit invalidation has run; now let the old read finish
+			release.countDown();
+			assertEquals("Old", stale.get(5, TimeUnit.SECONDS).getName());
+
+			assertEquals("New", cache.get(1L, id -> ProductResponseDto.builder().id(id).name("New").build()).getName());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void stockChangeIsNotServedStaleAfterCommit() throws Exception {
+		assertEquals(STOCK, productService.getProductById(product.getId()).getStock());
+
+		transactionTemplate.executeWithoutResult(status -> {
+			productService.reduceStock(Map.of(product.getId(), 3));
+			// another request reads the committed row and caches it before this commit
+			assertEquals(STOCK, readInOtherThread().getStock());
+		});
+
+		assertEquals(STOCK - 3, productService.getProductById(product.getId()).getStock());
+	}
+
+	@Test
+	void updateIsNotServedStaleAfterCommit() throws Exception {
+		assertEquals("Product", productService.getProductById(product.getId()).getName());
+
+		transactionTemplate.executeWithoutResult(status -> {
+			productService.updateProduct(product.getId(), ProductRequestDto.builder()
+					.name("Renamed")
+					.price(BigDecimal.TEN)
+					.stock(STOCK)
+					.categoryId(category.getId())
+					.build(), Role.ADMIN);
+			assertEquals("Product", readInOtherThread().getName());
+		});
+
+		assertEquals("Renamed", productService.getProductById(product.getId()).getName());
+	}
+
+	private ProductResponseDto readInOtherThread() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			return executor.submit(() -> productService.getProductById(product.getId())).get(5, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			throw new IllegalStateException(e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(5, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.application.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.util.JwtUtil;
+
+import jakarta.servlet.Filter;
+
+/**
+ * Metrics are readable by admins only; health stays open to any authenticated user
+ */
+@SpringBootTest
+class ActuatorSecurityTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	@Qualifier("springSecurityFilterChain")
+	private Filter springSecurityFilterChain;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context)
+				.addFilters(springSecurityFilterChain)
+				.build();
+	}
+
+	@Test
+	void customerCannotReadMetrics() throws Exception {
+		mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + token(Role.CUSTOMER)))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/actuator/metrics/jwt.cache.size").header("Authorization", "Bearer " + token(Role.CUSTOMER)))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void adminCanReadMetrics() throws Exception {
+		mockMvc.perform(get("/actuator/metrics").header("Authorization", "Bearer " + token(Role.ADMIN)))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void customerCanReadHealth() throws Exception {
+		mockMvc.perform(get("/actuator/health").header("Authorization", "Bearer " + token(Role.CUSTOMER)))
+				.andExpect(status().isOk());
+	}
+
+	private String token(Role role) {
+		return jwtUtil.generateToken(role.name().toLowerCase() + "@example.com", 1L, role);
+	}
+}
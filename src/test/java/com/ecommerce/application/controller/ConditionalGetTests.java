@@ -0,0 +1,179 @@
+package com.ecommerce.application.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.dtos.CategoryRequestDto;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.service.CategoryService;
+import com.ecommerce.application.service.ProductService;
+import com.ecommerce.application.util.JwtUtil;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.Filter;
+
+/**
+ * Catalog reads answer a matching If-None-Match with 304, and list endpoints do so without the database
+ * Repeated list reads are served from the encoded response cache until the catalog changes
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ConditionalGetTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	@Qualifier("springSecurityFilterChain")
+	private Filter springSecurityFilterChain;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private ProductService productService;
+
+	@Autowired
+	private CategoryService categoryService;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private MockMvc mockMvc;
+	private Statistics statistics;
+	private String token;
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context)
+				.addFilters(springSecurityFilterChain)
+				.build();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		User user = testData.user();
+		token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole());
+		product = testData.product("Product", 10);
+	}
+
+	@Test
+	void unchangedCatalogListIsNotModifiedWithoutStatements() throws Exception {
+		String etag = fetchEtag("/api/products");
+
+		statistics.clear();
+		mockMvc.perform(get("/api/products")
+				.header("Authorization", "Bearer " + token)
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		assertEquals(0, statistics.getPrepareStatementCount());
+
+		mockMvc.perform(get("/api/categories")
+				.header("Authorization", "Bearer " + token)
+				.header(HttpHeaders.IF_NONE_MATCH, fetchEtag("/api/categories")))
+				.andExpect(status().isNotModified());
+	}
+
+	@Test
+	void repeatedCategoryListIsServedFromResponseCache() throws Exception {
+		fetchEtag("/api/categories");
+
+		statistics.clear();
+		mockMvc.perform(get("/api/categories").header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk());
+		assertEquals(0, statistics.getPrepareStatementCount());
+
+		categoryService.createCategory(CategoryRequestDto.builder().name("Other " + System.nanoTime()).build(), Role.ADMIN);
+
+		String body = mockMvc.perform(get("/api/categories")
+				.header("Authorization", "Bearer " + token)
+				.header(HttpHeaders.ACCEPT_ENCODING, "identity"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(body.contains("Other "));
+	}
+
+	@Test
+	void gzipAndIdentityListsHaveDistinctEtags() throws Exception {
+		String identity = fetchEtag("/api/categories");
+		String gzip = mockMvc.perform(get("/api/categories")
+				.header("Authorization", "Bearer " + token)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(identity, gzip);
+
+		mockMvc.perform(get("/api/categories")
+				.header("Authorization", "Bearer " + token)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+				.header(HttpHeaders.IF_NONE_MATCH, gzip))
+				.andExpect(status().isNotModified());
+		mockMvc.perform(get("/api/categories")
+				.header("Authorization", "Bearer " + token)
+				.header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+				.header(HttpHeaders.IF_NONE_MATCH, identity))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void stockChangeGivesProductNewEtag() throws Exception {
+		String path = "/api/products/" + product.getId();
+		String etag = fetchEtag(path);
+
+		mockMvc.perform(get(path)
+				.header("Authorization", "Bearer " + token)
+				.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+
+		productService.reduceStock(Map.of(product.getId(), 1));
+
+		assertNotEquals(etag, fetchEtag(path));
+	}
+
+	@Test
+	void stockChangesDoNotChangeListEtagWithinInterval() throws Exception {
+		productService.reduceStock(Map.of(product.getId(), 1));
+		String etag = fetchEtag("/api/products");
+
+		productService.reduceStock(Map.of(product.getId(), 1));
+
+		assertEquals(etag, fetchEtag("/api/products"));
+		// the body may show the newer stock under the same tag, so it must be weak
+		assertTrue(etag.startsWith("W/\""), etag);
+		assertFalse(fetchEtag("/api/categories").startsWith("W/"));
+	}
+
+	private String fetchEtag(String path) throws Exception {
+		String etag = mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotNull(etag);
+		return etag;
+	}
+}
@@ -0,0 +1,142 @@
+package com.ecommerce.application.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Arrays;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.repositary.ProductRepository;
+import com.ecommerce.application.repositary.UserRepositary;
+import com.ecommerce.application.util.JwtUtil;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.Filter;
+
+/**
+ * Verifies that authenticated requests take the user ID and role from the JWT
+ * instead of reloading the user from the database, and that an order for a user
+ * deleted since the token was issued is a 404 rather than a constraint failure
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CurrentUserQueryCountTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	@Qualifier("springSecurityFilterChain")
+	private Filter springSecurityFilterChain;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private UserRepositary userRepositary;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private MockMvc mockMvc;
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context)
+				.addFilters(springSecurityFilterChain)
+				.build();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void myOrdersIssuesSingleStatement() throws Exception {
+		String token = tokenFor(Role.CUSTOMER);
+		statistics.clear();
+
+		mockMvc.perform(get("/api/orders/my/orders").header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk());
+
+		assertEquals(1, statistics.getPrepareStatementCount());
+		assertNoUserLookup();
+	}
+
+	@Test
+	void createCategoryDoesNotLoadUser() throws Exception {
+		String token = tokenFor(Role.ADMIN);
+		statistics.clear();
+
+		mockMvc.perform(post("/api/categories")
+						.header("Authorization", "Bearer " + token)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"name\":\"Category " + System.nanoTime() + "\"}"))
+				.andExpect(status().isCreated());
+
+		assertNoUserLookup();
+	}
+
+	@Test
+	void createOrderDoesNotLoadUser() throws Exception {
+		String token = tokenFor(Role.CUSTOMER);
+		Product product = testData.product("Product", 10);
+		statistics.clear();
+
+		mockMvc.perform(post("/api/orders")
+						.header("Authorization", "Bearer " + token)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"items\":[{\"productId\":" + product.getId() + ",\"quantity\":1}]}"))
+				.andExpect(status().isCreated());
+
+		assertNoUserLookup();
+	}
+
+	@Test
+	void deletedUserGetsNotFoundAndKeepsStock() throws Exception {
+		User user = testData.user();
+		String token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole());
+		userRepositary.deleteById(user.getId());
+		Product product = testData.product("Product", 10);
+
+		mockMvc.perform(post("/api/orders")
+						.header("Authorization", "Bearer " + token)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"items\":[{\"productId\":" + product.getId() + ",\"quantity\":1}]}"))
+				.andExpect(status().isNotFound());
+
+		assertEquals(10, productRepository.findById(product.getId()).orElseThrow().getStock());
+	}
+
+	private String tokenFor(Role role) {
+		User user = testData.user(role);
+		return jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole());
+	}
+
+	private void assertNoUserLookup() {
+		assertEquals(0, statistics.getEntityStatistics(User.class.getName()).getLoadCount());
+		assertEquals(0, Arrays.stream(statistics.getQueries())
+				.filter(query -> query.contains("User"))
+				.count());
+	}
+}
@@ -0,0 +1,186 @@
+package com.ecommerce.application.controller;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.Order;
+import com.ecommerce.application.entity.OrderItem;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.enums.OrderStatus;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.repositary.OrderRepository;
+import com.ecommerce.application.util.JwtUtil;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.Filter;
+
+/**
+ * Guards read endpoints against N+1 loading
+ * Each request must issue a small constant number of statements regardless of row count
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class QueryCountTests {
+
+	private static final int PRODUCTS = 5;
+	private static final int ORDERS = 3;
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	@Qualifier("springSecurityFilterChain")
+	private Filter springSecurityFilterChain;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private MockMvc mockMvc;
+	private Statistics statistics;
+
+	private String customerToken;
+	private String adminToken;
+	private Category category;
+	private Product product;
+	private List<Product> products;
+	private Order order;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context)
+				.addFilters(springSecurityFilterChain)
+				.build();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+		User customer = testData.user(Role.CUSTOMER);
+		customerToken = jwtUtil.generateToken(customer.getEmail(), customer.getId(), customer.getRole());
+		User admin = testData.user(Role.ADMIN);
+		adminToken = jwtUtil.generateToken(admin.getEmail(), admin.getId(), admin.getRole());
+
+		category = testData.category();
+		products = new ArrayList<>();
+		for (int i = 0; i < PRODUCTS; i++) {
+			products.add(testData.product(category, "Product " + i, 100));
+		}
+		product = products.get(0);
+
+		for (int i = 0; i < ORDERS; i++) {
+			List<OrderItem> items = new ArrayList<>();
+			Order saved = Order.builder()
+					.user(customer)
+					.totalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(PRODUCTS)))
+					.status(OrderStatus.CREATED)
+					.items(items)
+					.build();
+			for (Product p : products) {
+				items.add(OrderItem.builder().order(saved).product(p).quantity(1).price(p.getPrice()).build());
+			}
+			order = orderRepository.save(saved);
+		}
+	}
+
+	@Test
+	void productPageIsSingleStatement() throws Exception {
+		assertStatementsAtMost(1, get("/api/products").header("Authorization", "Bearer " + customerToken));
+	}
+
+	@Test
+	void categoryProductPageDoesNotLoadPerProduct() throws Exception {
+		assertStatementsAtMost(2, get("/api/products/category/" + category.getId())
+				.header("Authorization", "Bearer " + customerToken));
+	}
+
+	@Test
+	void filteredProductsWithFacetsUseTwoStatements() throws Exception {
+		assertStatementsAtMost(2, get("/api/products/filter")
+				.param("categoryId", category.getId().toString())
+				.param("minPrice", "5")
+				.param("inStock", "true")
+				.param("sort", "price")
+				.header("Authorization", "Bearer " + customerToken));
+	}
+
+	@Test
+	void productFieldsPageIsSingleStatement() throws Exception {
+		assertStatementsAtMost(1, get("/api/products/category/" + category.getId())
+				.param("fields", "id,name,price")
+				.header("Authorization", "Bearer " + customerToken));
+	}
+
+	@Test
+	void productByIdIsSingleStatement() throws Exception {
+		assertStatementsAtMost(1, get("/api/products/" + product.getId())
+				.header("Authorization", "Bearer " + customerToken));
+	}
+
+	@Test
+	void productBatchIsSingleStatement() throws Exception {
+		StringBuilder ids = new StringBuilder();
+		for (Product p : products) {
+			ids.append(p.getId()).append(',');
+		}
+		ids.append(Long.MAX_VALUE);
+		assertStatementsAtMost(1, get("/api/products/batch")
+				.param("ids", ids.toString())
+				.header("Authorization", "Bearer " + customerToken));
+	}
+
+	@Test
+	void myOrdersPageDoesNotLoadPerItem() throws Exception {
+		// one statement for the page keys, one for those orders with their items
+		assertStatementsAtMost(2, get("/api/orders/my/orders").header("Authorization", "Bearer " + customerToken));
+	}
+
+	@Test
+	void myOrderFieldsWithItemsUseTwoStatements() throws Exception {
+		assertStatementsAtMost(2, get("/api/orders/my/orders")
+				.param("fields", "id,totalAmount,items")
+				.header("Authorization", "Bearer " + customerToken));
+	}
+
+	@Test
+	void orderByIdDoesNotLoadPerItem() throws Exception {
+		assertStatementsAtMost(1, get("/api/orders/" + order.getId())
+				.header("Authorization", "Bearer " + customerToken));
+	}
+
+	@Test
+	void allOrdersPageDoesNotLoadPerOrder() throws Exception {
+		assertStatementsAtMost(2, get("/api/orders/all").header("Authorization", "Bearer " + adminToken));
+	}
+
+	private void assertStatementsAtMost(long expected, MockHttpServletRequestBuilder request) throws Exception {
+		statistics.clear();
+		mockMvc.perform(request).andExpect(status().isOk());
+		long statements = statistics.getPrepareStatementCount();
+		assertTrue(statements <= expected, "Expected at most " + expected + " statements but was " + statements);
+	}
+}
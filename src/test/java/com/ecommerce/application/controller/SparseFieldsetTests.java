@@ -0,0 +1,179 @@
+package com.ecommerce.application.controller;
+
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.Order;
+import com.ecommerce.application.entity.OrderItem;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.enums.OrderStatus;
+import com.ecommerce.application.repositary.OrderRepository;
+import com.ecommerce.application.repositary.ProductRepository;
+import com.ecommerce.application.util.JwtUtil;
+
+import jakarta.servlet.Filter;
+
+/**
+ * fields= trims product and order responses to the selected properties
+ * Keyset cursors keep working when the sort key itself is not selected
+ */
+@SpringBootTest
+class SparseFieldsetTests {
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	@Qualifier("springSecurityFilterChain")
+	private Filter springSecurityFilterChain;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	private MockMvc mockMvc;
+	private String token;
+	private User user;
+	private Category category;
+	private Order order;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context)
+				.addFilters(springSecurityFilterChain)
+				.build();
+
+		user = testData.user();
+		token = jwtUtil.generateToken(user.getEmail(), user.getId(), user.getRole());
+
+		category = testData.category();
+		List<OrderItem> items = new ArrayList<>();
+		order = Order.builder()
+				.user(user)
+				.totalAmount(BigDecimal.valueOf(30))
+				.status(OrderStatus.CREATED)
+				.items(items)
+				.build();
+		for (int i = 0; i < 3; i++) {
+			Product product = productRepository.save(Product.builder()
+					.name("Product " + i)
+					.description("A long description that listing pages never show ".repeat(20))
+					.price(BigDecimal.TEN)
+					.stock(10)
+					.category(category)
+					.build());
+			items.add(OrderItem.builder().order(order).product(product).quantity(1).price(BigDecimal.TEN).build());
+		}
+		order = orderRepository.save(order);
+	}
+
+	@Test
+	void productPageReturnsOnlySelectedFields() throws Exception {
+		String path = "/api/products/category/" + category.getId();
+		String full = mockMvc.perform(get(path).header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		String sparse = mockMvc.perform(get(path)
+				.param("fields", "id,name,price")
+				.header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items", hasSize(3)))
+				.andExpect(jsonPath("$.items[0]", aMapWithSize(3)))
+				.andExpect(jsonPath("$.items[0].name").value("Product 0"))
+				.andReturn().getResponse().getContentAsString();
+
+		assertTrue(sparse.length() * 10 < full.length(),
+				"Sparse page was " + sparse.length() + " bytes, full page " + full.length());
+	}
+
+	@Test
+	void nameCursorWorksWithoutSelectingName() throws Exception {
+		String path = "/api/products/category/" + category.getId();
+		String cursor = mockMvc.perform(get(path)
+				.param("fields", "id")
+				.param("sort", "name")
+				.param("limit", "2")
+				.header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items[0]", aMapWithSize(1)))
+				.andExpect(jsonPath("$.hasMore").value(true))
+				.andReturn().getResponse().getContentAsString()
+				.replaceAll(".*\"nextCursor\":\"([^\"]+)\".*", "$1");
+
+		mockMvc.perform(get(path)
+				.param("fields", "id")
+				.param("sort", "name")
+				.param("limit", "2")
+				.param("cursor", cursor)
+				.header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items", hasSize(1)))
+				.andExpect(jsonPath("$.hasMore").value(false));
+	}
+
+	@Test
+	void orderFieldsIncludeItemsOnlyWhenSelected() throws Exception {
+		mockMvc.perform(get("/api/orders/" + order.getId())
+				.param("fields", "id,status")
+				.header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$", aMapWithSize(2)))
+				.andExpect(jsonPath("$.status").value("CREATED"));
+
+		mockMvc.perform(get("/api/orders/my/orders")
+				.param("fields", "totalAmount,items")
+				.header("Authorization", "Bearer " + token))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.items", hasSize(1)))
+				.andExpect(jsonPath("$.items[0]", aMapWithSize(2)))
+				.andExpect(jsonPath("$.items[0].items", hasSize(3)))
+				.andExpect(jsonPath("$.items[0].items[0].productName").value("Product 0"));
+	}
+
+	@Test
+	void otherCustomersOrderFieldsAreForbidden() throws Exception {
+		User other = testData.user();
+		String otherToken = jwtUtil.generateToken(other.getEmail(), other.getId(), other.getRole());
+
+		mockMvc.perform(get("/api/orders/user/" + user.getId())
+				.param("fields", "id,totalAmount")
+				.header("Authorization", "Bearer " + otherToken))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void unknownFieldIsRejected() throws Exception {
+		mockMvc.perform(get("/api/products")
+				.param("fields", "id,secret")
+				.header("Authorization", "Bearer " + token))
+				.andExpect(status().isBadRequest());
+	}
+}
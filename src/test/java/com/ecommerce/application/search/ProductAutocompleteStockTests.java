@@ -0,0 +1,66 @@
+package com.ecommerce.application.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.dtos.OrderRequestDto;
+import com.ecommerce.application.entity.dtos.ProductSuggestionDto;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.service.OrderService;
+
+/**
+ * Stock taken by an order re-ranks suggestions once the order commits and the
+ * background restock has run, although the order never reindexes the product
+ */
+@SpringBootTest
+class ProductAutocompleteStockTests {
+
+	@Autowired
+	private ProductAutocomplete productAutocomplete;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private TestData testData;
+
+	@Test
+	void orderReranksSuggestions() throws Exception {
+		User user = testData.user();
+		Category category = testData.category();
+		String prefix = "Zq" + System.nanoTime();
+		Product plenty = save(prefix + " plenty", 10, category);
+		Product fewer = save(prefix + " fewer", 5, category);
+		assertEquals(List.of(plenty.getId(), fewer.getId()), ids(productAutocomplete.suggest(prefix, 10)));
+
+		OrderRequestDto order = OrderRequestDto.builder()
+				.items(List.of(OrderRequestDto.OrderItemRequestDto.builder()
+						.productId(plenty.getId())
+						.quantity(8)
+						.build()))
+				.build();
+		orderService.createOrder(order, user.getId(), user.getEmail(), Role.CUSTOMER);
+		productAutocomplete.awaitRestocks();
+
+		assertEquals(List.of(fewer.getId(), plenty.getId()), ids(productAutocomplete.suggest(prefix, 10)));
+	}
+
+	private Product save(String name, int stock, Category category) {
+		Product product = testData.product(category, name, stock);
+		productAutocomplete.index(product);
+		return product;
+	}
+
+	private List<Long> ids(List<ProductSuggestionDto> suggestions) {
+		return suggestions.stream().map(ProductSuggestionDto::getId).toList();
+	}
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.application.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.dtos.ProductSuggestionDto;
+import com.ecommerce.application.repositary.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductAutocompleteTests {
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+
+	private ProductAutocomplete autocomplete;
+
+	@BeforeEach
+	void setUp() {
+		autocomplete = new ProductAutocomplete(productRepository, mock(PlatformTransactionManager.class),
+				new SimpleMeterRegistry(), 2);
+		autocomplete.index(product(1L, "Galaxy Phone", 5));
+		autocomplete.index(product(2L, "Galaxy Tab", 30));
+		autocomplete.index(product(3L, "Gaming Mouse", 10));
+		autocomplete.index(product(4L, "Phone Case", 50));
+	}
+
+	@Test
+	void suggestionsAreRankedByStockAndCappedAtTopK() {
+		assertEquals(List.of(2L, 3L), ids(autocomplete.suggest("ga", 10)));
+		assertEquals(List.of(2L), ids(autocomplete.suggest("GA", 1)));
+	}
+
+	@Test
+	void laterWordsOfTheNameMatch() {
+		assertEquals(List.of(4L, 1L), ids(autocomplete.suggest("phone", 10)));
+	}
+
+	@Test
+	void reindexingAndRemovalUpdateRankings() {
+		autocomplete.index(product(1L, "Galaxy Phone", 100));
+		assertEquals(List.of(1L, 2L), ids(autocomplete.suggest("gal", 10)));
+
+		autocomplete.remove(1L);
+		autocomplete.remove(2L);
+		assertTrue(autocomplete.suggest("gal", 10).isEmpty());
+		assertEquals(2, autocomplete.size());
+	}
+
+	@Test
+	void restockReranksWithoutReindexing() {
+		autocomplete.restock(Map.of(3L, 40, 99L, 1));
+
+		assertEquals(List.of(3L, 2L), ids(autocomplete.suggest("ga", 10)));
+		assertEquals(4, autocomplete.size());
+	}
+
+	@Test
+	void unsharedNameTailsAreSingleEdges() {
+		ProductAutocomplete fresh = new ProductAutocomplete(productRepository, mock(PlatformTransactionManager.class),
+				new SimpleMeterRegistry(), 2);
+		fresh.index(product(1L, "Supercalifragilistic Umbrella", 1));
+
+		// the root plus one leaf per key, whatever the name length
+		assertEquals(3, fresh.nodeCount());
+		assertTrue(fresh.bytesPerProduct() > 0);
+		assertEquals(List.of(1L), ids(fresh.suggest("supercal", 10)));
+		assertEquals(List.of(1L), ids(fresh.suggest("umb", 10)));
+
+		fresh.index(product(2L, "Super Glue", 1));
+		assertEquals(List.of(1L, 2L), ids(fresh.suggest("super", 10)));
+		assertTrue(fresh.suggest("superb", 10).isEmpty());
+
+		fresh.remove(1L);
+		fresh.remove(2L);
+		assertEquals(1, fresh.nodeCount());
+	}
+
+	@Test
+	void writesAndRestocksDuringRebuildSurviveTheSwap() {
+		when(productRepository.streamAllWithCategory()).thenReturn(Stream.of(
+				product(1L, "Galaxy Phone", 5),
+				product(2L, "Galaxy Tab", 30),
+				product(3L, "Gaming Mouse", 10),
+				product(4L, "Phone Case", 50))
+				.peek(streamed -> {
+					if (streamed.getId() == 2L) {
+						// product 1 is already streamed, products 3 and 4 not yet
+						autocomplete.remove(1L);
+						autocomplete.index(product(3L, "Gaming Keyboard", 10));
+						autocomplete.index(product(5L, "Phone Stand", 20));
+						autocomplete.restock(Map.of(4L, 1));
+					}
+				}));
+
+		autocomplete.rebuild();
+
+		assertEquals(List.of(2L, 3L), ids(autocomplete.suggest("ga", 10)));
+		assertEquals(List.of(3L), ids(autocomplete.suggest("gaming k", 10)));
+		assertEquals(List.of(5L, 4L), ids(autocomplete.suggest("phone", 10)));
+	}
+
+	private List<Long> ids(List<ProductSuggestionDto> suggestions) {
+		return suggestions.stream().map(ProductSuggestionDto::getId).toList();
+	}
+
+	private Product product(Long id, String name, int stock) {
+		return Product.builder().id(id).name(name).stock(stock).build();
+	}
+}
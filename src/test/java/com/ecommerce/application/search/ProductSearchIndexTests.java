@@ -0,0 +1,123 @@
+package com.ecommerce.application.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.dtos.ProductSearchResultDto;
+import com.ecommerce.application.repositary.ProductRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProductSearchIndexTests {
+
+	private final Category phones = Category.builder().id(1L).name("Phones").build();
+	private final Category cases = Category.builder().id(2L).name("Cases").build();
+
+	private final ProductRepository productRepository = mock(ProductRepository.class);
+
+	private ProductSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new ProductSearchIndex(productRepository, mock(PlatformTransactionManager.class),
+				new SimpleMeterRegistry());
+		index.index(product(1L, "Galaxy Phone", "Android smartphone", phones));
+		index.index(product(2L, "Phone Case", "Protective case for galaxy phones", cases));
+		index.index(product(3L, "Pixel Phone", "Google smartphone", phones));
+	}
+
+	@Test
+	void nameMatchesOutrankDescriptionMatches() {
+		List<ProductSearchResultDto> results = index.search("galaxy", null, 10);
+
+		assertEquals(List.of(1L, 2L), results.stream().map(ProductSearchResultDto::getId).toList());
+	}
+
+	@Test
+	void everyTokenMustMatchByTermOrPrefix() {
+		List<ProductSearchResultDto> results = index.search("smart pix", null, 10);
+
+		assertEquals(List.of(3L), results.stream().map(ProductSearchResultDto::getId).toList());
+	}
+
+	@Test
+	void categoryFilterAndRemovalApply() {
+		assertEquals(2, index.search("phone", 1L, 10).size());
+
+		index.remove(1L);
+
+		assertEquals(List.of(3L), index.search("phone", 1L, 10).stream().map(ProductSearchResultDto::getId).toList());
+	}
+
+	@Test
+	void reindexingReplacesOldTerms() {
+		index.index(product(3L, "Pixel Tablet", "Google tablet", phones));
+
+		assertTrue(index.search("smartphone", null, 10).stream().noneMatch(r -> r.getId() == 3L));
+		assertEquals(1, index.search("tablet", null, 10).size());
+	}
+
+	@Test
+	void commonPrefixCompletionsAreNotCrowdedOutByRareOnes() {
+		// 70 rare completions of "ca" sort before "cazoo", which three products share
+		for (long id = 100; id < 170; id++) {
+			index.index(product(id, "Ca" + id, null, phones));
+		}
+		for (long id = 200; id < 203; id++) {
+			index.index(product(id, "Cazoo " + id, null, phones));
+		}
+
+		List<Long> ids = index.search("ca", null, 200).stream().map(ProductSearchResultDto::getId).toList();
+
+		assertTrue(ids.containsAll(List.of(200L, 201L, 202L)), ids.toString());
+	}
+
+	@Test
+	void writesDuringRebuildSurviveTheSwap() {
+		when(productRepository.streamAllWithCategory()).thenReturn(Stream.of(
+				product(1L, "Galaxy Phone", "Android smartphone", phones),
+				product(2L, "Phone Case", "Protective case for galaxy phones", cases),
+				product(3L, "Pixel Phone", "Google smartphone", phones))
+				.peek(streamed -> {
+					if (streamed.getId() == 2L) {
+						// product 1 is already streamed and product 3 not yet
+						index.remove(1L);
+						index.index(product(3L, "Pixel Tablet", "Google tablet", phones));
+						index.index(product(4L, "Galaxy Tablet", "Android tablet", phones));
+					}
+				}));
+
+		index.rebuild();
+
+		assertEquals(List.of(4L, 2L), ids("galaxy"));
+		assertEquals(List.of(3L, 4L), ids("tablet"));
+		assertTrue(ids("smartphone").isEmpty());
+	}
+
+	private List<Long> ids(String query) {
+		return index.search(query, null, 10).stream().map(ProductSearchResultDto::getId).toList();
+	}
+
+	private Product product(Long id, String name, String description, Category category) {
+		return Product.builder()
+				.id(id)
+				.name(name)
+				.description(description)
+				.price(BigDecimal.TEN)
+				.stock(5)
+				.category(category)
+				.build();
+	}
+}
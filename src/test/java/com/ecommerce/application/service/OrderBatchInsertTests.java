@@ -0,0 +1,79 @@
+package com.ecommerce.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.Order;
+import com.ecommerce.application.entity.OrderItem;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.enums.OrderStatus;
+import com.ecommerce.application.repositary.OrderRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Saving an order takes ids from the pooled sequences in memory and inserts its items
+ * as one JDBC batch instead of one statement per row
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderBatchInsertTests {
+
+	private static final int ITEMS = 20;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Test
+	void orderItemsAreInsertedAsOneBatch() {
+		User user = testData.user();
+		Category category = testData.category();
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < ITEMS; i++) {
+			products.add(testData.product(category, "Product " + i, 10));
+		}
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		transactionTemplate.executeWithoutResult(status -> {
+			List<OrderItem> items = new ArrayList<>();
+			Order order = Order.builder()
+					.user(user)
+					.totalAmount(BigDecimal.TEN.multiply(BigDecimal.valueOf(ITEMS)))
+					.status(OrderStatus.CREATED)
+					.items(items)
+					.build();
+			for (Product product : products) {
+				items.add(OrderItem.builder().order(order).product(product).quantity(1).price(BigDecimal.TEN).build());
+			}
+			orderRepository.save(order);
+		});
+
+		assertEquals(ITEMS + 1, statistics.getEntityInsertCount());
+		// at most two sequence calls per table plus one statement per insert batch
+		assertTrue(statistics.getPrepareStatementCount() <= 6,
+				"Saving the order prepared " + statistics.getPrepareStatementCount() + " statements");
+	}
+}
@@ -0,0 +1,107 @@
+package com.ecommerce.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.Order;
+import com.ecommerce.application.entity.OrderItem;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.dtos.OrderFilterDto;
+import com.ecommerce.application.entity.enums.ExportFormat;
+import com.ecommerce.application.entity.enums.OrderStatus;
+import com.ecommerce.application.repositary.OrderRepository;
+
+/**
+ * Order export groups streamed line items per order, even when a persistence context
+ * clear falls in the middle of an order
+ */
+@SpringBootTest(properties = "orders.export.chunk-size=2")
+@Transactional
+class OrderExportTests {
+
+	private static final int ORDERS = 3;
+	private static final int ITEMS_PER_ORDER = 3;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderExportService orderExportService;
+
+	private LocalDateTime from;
+
+	@BeforeEach
+	void setUp() {
+		from = LocalDateTime.now();
+		User user = testData.user();
+		Category category = testData.category();
+		List<Product> products = new ArrayList<>();
+		for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+			products.add(testData.product(category, "Product, \"" + i + "\"", 100));
+		}
+
+		for (int i = 0; i < ORDERS; i++) {
+			List<OrderItem> items = new ArrayList<>();
+			Order order = Order.builder()
+					.user(user)
+					.totalAmount(BigDecimal.valueOf(30))
+					.status(OrderStatus.CONFIRMED)
+					.items(items)
+					.build();
+			for (Product product : products) {
+				items.add(OrderItem.builder().order(order).product(product).quantity(1).price(BigDecimal.TEN).build());
+			}
+			orderRepository.save(order);
+		}
+	}
+
+	@Test
+	void ndjsonWritesOneLinePerOrderWithNestedItems() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long rows = orderExportService.exportOrders(out, ExportFormat.NDJSON, filter());
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(ORDERS * ITEMS_PER_ORDER, rows);
+		assertEquals(ORDERS, lines.length);
+		for (String line : lines) {
+			assertTrue(line.startsWith("{\"id\":") && line.endsWith("]}"), line);
+			assertEquals(ITEMS_PER_ORDER, line.split("\"productId\"").length - 1, line);
+		}
+	}
+
+	@Test
+	void csvWritesOneRowPerLineItem() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		orderExportService.exportOrders(out, ExportFormat.CSV, filter());
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(1 + ORDERS * ITEMS_PER_ORDER, lines.length);
+		assertTrue(lines[1].contains("\"Product, \"\"0\"\"\""), lines[1]);
+	}
+
+	private OrderFilterDto filter() {
+		return OrderFilterDto.builder()
+				.status(OrderStatus.CONFIRMED)
+				.from(from)
+				.build();
+	}
+}
@@ -0,0 +1,112 @@
+package com.ecommerce.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Order;
+import com.ecommerce.application.entity.OrderItem;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.dtos.CursorPageDto;
+import com.ecommerce.application.entity.dtos.OrderFilterDto;
+import com.ecommerce.application.entity.dtos.OrderResponseDto;
+import com.ecommerce.application.entity.enums.OrderStatus;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.exception.ForbiddenException;
+import com.ecommerce.application.repositary.OrderRepository;
+
+/**
+ * Order history is paged newest first by keyset and can be filtered by status and date
+ */
+@SpringBootTest
+class OrderHistoryTests {
+
+	private static final int ORDERS = 5;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OrderService orderService;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = testData.user();
+		Product product = testData.product("Product", 100);
+
+		for (int i = 0; i < ORDERS; i++) {
+			List<OrderItem> items = new ArrayList<>();
+			Order order = Order.builder()
+					.user(user)
+					.totalAmount(BigDecimal.TEN)
+					.status(i == 0 ? OrderStatus.CANCELLED : OrderStatus.CREATED)
+					.items(items)
+					.build();
+			items.add(OrderItem.builder().order(order).product(product).quantity(1).price(BigDecimal.TEN).build());
+			orderRepository.save(order);
+		}
+	}
+
+	@Test
+	void pagesWalkEveryOrderNewestFirstOnce() {
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			CursorPageDto<OrderResponseDto> page = orderService.getUserOrders(user.getId(),
+					OrderFilterDto.builder().cursor(cursor).limit(2).build(), user.getId(), Role.CUSTOMER);
+			page.getItems().forEach(order -> {
+				assertEquals(1, order.getItems().size());
+				seen.add(order.getId());
+			});
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertEquals(3, pages);
+		assertEquals(ORDERS, seen.size());
+		for (int i = 1; i < seen.size(); i++) {
+			assertTrue(seen.get(i) < seen.get(i - 1), "Orders must be newest first without repeats");
+		}
+	}
+
+	@Test
+	void statusAndDateFiltersNarrowThePage() {
+		CursorPageDto<OrderResponseDto> cancelled = orderService.getUserOrders(user.getId(),
+				OrderFilterDto.builder().status(OrderStatus.CANCELLED).build(), user.getId(), Role.CUSTOMER);
+		assertEquals(1, cancelled.getItems().size());
+		assertFalse(cancelled.isHasMore());
+
+		CursorPageDto<OrderResponseDto> future = orderService.getUserOrders(user.getId(),
+				OrderFilterDto.builder().from(LocalDateTime.now().plusDays(1)).build(), user.getId(), Role.CUSTOMER);
+		assertTrue(future.getItems().isEmpty());
+	}
+
+	@Test
+	void customerCannotPageAnotherUsersHistory() {
+		User other = testData.user();
+
+		assertThrows(ForbiddenException.class, () -> orderService.getUserOrders(user.getId(),
+				OrderFilterDto.builder().build(), other.getId(), Role.CUSTOMER));
+		assertEquals(ORDERS, orderService.getUserOrders(user.getId(),
+				OrderFilterDto.builder().build(), other.getId(), Role.ADMIN).getItems().size());
+	}
+}
@@ -0,0 +1,120 @@
+package com.ecommerce.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.cache.IdempotencyKeyStore;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.dtos.OrderRequestDto;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.exception.BadRequestException;
+import com.ecommerce.application.repositary.ProductRepository;
+
+/**
+ * Retries and concurrent duplicates under one Idempotency-Key create a single order
+ * and take stock only once
+ */
+@SpringBootTest
+class OrderIdempotencyTests {
+
+	private static final int STOCK = 100;
+	private static final int THREADS = 8;
+
+	@Autowired
+	private OrderIdempotencyService orderIdempotencyService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	private User user;
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		user = testData.user();
+		product = testData.product("Product", STOCK);
+	}
+
+	@Test
+	void retryReplaysTheOriginalOrder() {
+		IdempotencyKeyStore.Result first = submit("retry-key", 2);
+		IdempotencyKeyStore.Result retry = submit("retry-key", 2);
+
+		assertFalse(first.replayed());
+		assertTrue(retry.replayed());
+		assertEquals(first.order().getId(), retry.order().getId());
+		assertEquals(STOCK - 2, stock());
+	}
+
+	@Test
+	void concurrentDuplicatesWaitForTheFirstRequest() throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<IdempotencyKeyStore.Result>> futures = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				return submit("concurrent-key", 1);
+			}));
+		}
+
+		start.countDown();
+		Set<Long> orderIds = new HashSet<>();
+		int created = 0;
+		for (Future<IdempotencyKeyStore.Result> future : futures) {
+			IdempotencyKeyStore.Result result = future.get(30, TimeUnit.SECONDS);
+			orderIds.add(result.order().getId());
+			created += result.replayed() ? 0 : 1;
+		}
+		executor.shutdown();
+
+		assertEquals(1, orderIds.size());
+		assertEquals(1, created);
+		assertEquals(STOCK - 1, stock());
+	}
+
+	@Test
+	void keyReusedForDifferentRequestIsRejected() {
+		submit("reused-key", 1);
+
+		assertThrows(BadRequestException.class, () -> submit("reused-key", 3));
+		assertEquals(STOCK - 1, stock());
+	}
+
+	private IdempotencyKeyStore.Result submit(String key, int quantity) {
+		OrderRequestDto dto = OrderRequestDto.builder()
+				.items(List.of(OrderRequestDto.OrderItemRequestDto.builder()
+						.productId(product.getId())
+						.quantity(quantity)
+						.build()))
+				.build();
+		return orderIdempotencyService.createOrder(dto, key, user.getId(), user.getEmail(), Role.CUSTOMER);
+	}
+
+	private int stock() {
+		return productRepository.findById(product.getId()).orElseThrow().getStock();
+	}
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.dtos.OrderRequestDto;
+import com.ecommerce.application.entity.enums.OrderIntakeStatus;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.exception.ServiceUnavailableException;
+
+/**
+ * With no consumers every submission stays queued, so max-tracked is reached with
+ * nothing to evict and further submissions are rejected like on a full queue
+ */
+@SpringBootTest(properties = {
+		"orders.intake.consumers=0",
+		"orders.intake.queue-capacity=100",
+		"orders.intake.max-tracked=" + OrderIntakeCapacityTests.MAX_TRACKED
+})
+class OrderIntakeCapacityTests {
+
+	static final int MAX_TRACKED = 3;
+
+	@Autowired
+	private OrderIntakeService orderIntakeService;
+
+	@Autowired
+	private TestData testData;
+
+	@Test
+	void submissionsPastMaxTrackedAreRejected() {
+		User user = testData.user();
+		Product product = testData.product("Product", 100);
+		OrderRequestDto dto = OrderRequestDto.builder()
+				.items(List.of(OrderRequestDto.OrderItemRequestDto.builder()
+						.productId(product.getId())
+						.quantity(1)
+						.build()))
+				.build();
+
+		for (int i = 0; i < MAX_TRACKED; i++) {
+			assertEquals(OrderIntakeStatus.QUEUED, orderIntakeService.submit(dto, user.getId(), Role.CUSTOMER).getStatus());
+		}
+
+		ServiceUnavailableException rejected = assertThrows(ServiceUnavailableException.class,
+				() -> orderIntakeService.submit(dto, user.getId(), Role.CUSTOMER));
+		assertEquals(1L, rejected.getRetryAfterSeconds());
+	}
+}
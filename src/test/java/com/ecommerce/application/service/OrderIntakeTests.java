@@ -0,0 +1,124 @@
+package com.ecommerce.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.dtos.OrderIntakeDto;
+import com.ecommerce.application.entity.dtos.OrderRequestDto;
+import com.ecommerce.application.entity.enums.OrderIntakeStatus;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.exception.ResourceNotFoundException;
+import com.ecommerce.application.repositary.OrderRepository;
+import com.ecommerce.application.repositary.ProductRepository;
+
+/**
+ * Queued orders are created in batches; orders short of stock are rejected individually
+ * while the rest of their batch goes through; the oldest finished ones are forgotten
+ * once max-tracked is reached
+ */
+@SpringBootTest(properties = "orders.intake.max-tracked=" + OrderIntakeTests.MAX_TRACKED)
+class OrderIntakeTests {
+
+	private static final int STOCK = 5;
+	private static final int ORDERS = 8;
+	static final int MAX_TRACKED = 10;
+
+	@Autowired
+	private OrderIntakeService orderIntakeService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Test
+	void queuedOrdersNeverOversell() throws Exception {
+		User user = saveUser();
+		Product product = saveProduct(STOCK);
+		OrderRequestDto dto = orderOf(product);
+
+		List<String> handles = new ArrayList<>();
+		for (int i = 0; i < ORDERS; i++) {
+			OrderIntakeDto intake = orderIntakeService.submit(dto, user.getId(), Role.CUSTOMER);
+			handles.add(intake.getHandle());
+		}
+
+		int created = 0;
+		int rejected = 0;
+		for (String handle : handles) {
+			OrderIntakeDto intake = awaitProcessed(handle, user.getId());
+			if (intake.getStatus() == OrderIntakeStatus.CREATED) {
+				assertTrue(orderRepository.existsById(intake.getOrderId()));
+				created++;
+			} else {
+				assertNotNull(intake.getError());
+				rejected++;
+			}
+		}
+
+		assertEquals(STOCK, created);
+		assertEquals(ORDERS - STOCK, rejected);
+		assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+	}
+
+	@Test
+	void oldestFinishedOrdersAreForgottenPastMaxTracked() throws Exception {
+		User user = saveUser();
+		OrderRequestDto dto = orderOf(saveProduct(100));
+
+		List<String> handles = new ArrayList<>();
+		for (int i = 0; i < MAX_TRACKED * 2; i++) {
+			String handle = orderIntakeService.submit(dto, user.getId(), Role.CUSTOMER).getHandle();
+			assertEquals(OrderIntakeStatus.CREATED, awaitProcessed(handle, user.getId()).getStatus());
+			handles.add(handle);
+		}
+
+		assertThrows(ResourceNotFoundException.class,
+				() -> orderIntakeService.getIntake(handles.get(0), user.getId(), Role.CUSTOMER));
+		assertEquals(OrderIntakeStatus.CREATED,
+				orderIntakeService.getIntake(handles.get(handles.size() - 1), user.getId(), Role.CUSTOMER).getStatus());
+	}
+
+	private User saveUser() {
+		return testData.user();
+	}
+
+	private Product saveProduct(int stock) {
+		return testData.product("Last units", stock);
+	}
+
+	private OrderRequestDto orderOf(Product product) {
+		return OrderRequestDto.builder()
+				.items(List.of(OrderRequestDto.OrderItemRequestDto.builder()
+						.productId(product.getId())
+						.quantity(1)
+						.build()))
+				.build();
+	}
+
+	private OrderIntakeDto awaitProcessed(String handle, Long userId) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 10_000;
+		OrderIntakeDto intake = orderIntakeService.getIntake(handle, userId, Role.CUSTOMER);
+		while (intake.getStatus() == OrderIntakeStatus.QUEUED && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+			intake = orderIntakeService.getIntake(handle, userId, Role.CUSTOMER);
+		}
+		return intake;
+	}
+}
@@ -0,0 +1,147 @@
+package com.ecommerce.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.dtos.UserLoginDto;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.repositary.UserRepositary;
+
+import jakarta.servlet.Filter;
+
+/**
+ * A saturated hashing pool answers 503 with Retry-After, and a login against a hash
+ * made at a lower or a higher BCrypt cost stores a new hash at the configured cost
+ */
+@SpringBootTest(properties = {
+		"security.password.bcrypt-strength=10",
+		"security.password.hash-threads=1",
+		"security.password.queue-capacity=0",
+		"security.password.retry-after-seconds=2"
+})
+class PasswordHashingTests {
+
+	private static final String PASSWORD = "secret-password";
+
+	@Autowired
+	private WebApplicationContext context;
+
+	@Autowired
+	@Qualifier("springSecurityFilterChain")
+	private Filter springSecurityFilterChain;
+
+	@Autowired
+	private PasswordHashingService passwordHashingService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepositary userRepositary;
+
+	@Autowired
+	private TestData testData;
+
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.webAppContextSetup(context)
+				.addFilters(springSecurityFilterChain)
+				.build();
+	}
+
+	@Test
+	void saturatedPoolAnswers503WithRetryAfter() throws Exception {
+		User user = testData.user(Role.CUSTOMER, new BCryptPasswordEncoder(10).encode(PASSWORD));
+
+		CountDownLatch release = new CountDownLatch(1);
+		occupyWorker(release);
+		try {
+			mockMvc.perform(post("/api/users/login")
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("{\"email\":\"" + user.getEmail() + "\",\"password\":\"" + PASSWORD + "\"}"))
+					.andExpect(status().isServiceUnavailable())
+					.andExpect(header().string("Retry-After", "2"));
+		} finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	void loginRehashesPasswordOfLowerCost() {
+		assertLoginRehashes(new BCryptPasswordEncoder(4).encode(PASSWORD));
+	}
+
+	@Test
+	void loginRehashesPasswordAfterCostIsLowered() {
+		// the configured cost of 10 is below the stored 11
+		assertLoginRehashes(new BCryptPasswordEncoder(11).encode(PASSWORD));
+	}
+
+	@Test
+	void hashAtConfiguredCostIsKept() {
+		assertFalse(passwordHashingService.needsRehash(new BCryptPasswordEncoder(10).encode(PASSWORD)));
+	}
+
+	private void assertLoginRehashes(String oldHash) {
+		User user = testData.user(Role.CUSTOMER, oldHash);
+		assertTrue(passwordHashingService.needsRehash(oldHash));
+
+		assertNotNull(userService.loginUser(UserLoginDto.builder()
+				.email(user.getEmail())
+				.password(PASSWORD)
+				.build()).getToken());
+
+		String newHash = userRepositary.findById(user.getId()).orElseThrow().getPassword();
+		assertNotEquals(oldHash, newHash);
+		assertTrue(newHash.startsWith("$2a$10$"), newHash);
+		assertFalse(passwordHashingService.needsRehash(newHash));
+		assertTrue(passwordHashingService.matches(PASSWORD, newHash));
+	}
+
+	/**
+	 * Park the only worker on the latch; retried while the worker finishes an earlier task
+	 */
+	private void occupyWorker(CountDownLatch release) throws InterruptedException {
+		ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(passwordHashingService,
+				"executor");
+		while (true) {
+			try {
+				executor.execute(() -> {
+					try {
+						release.await();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+				return;
+			} catch (RejectedExecutionException e) {
+				Thread.sleep(10);
+			}
+		}
+	}
+}
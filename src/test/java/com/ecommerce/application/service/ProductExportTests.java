@@ -0,0 +1,101 @@
+package com.ecommerce.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.enums.ExportFormat;
+import com.ecommerce.application.repositary.CategoryRepository;
+import com.ecommerce.application.repositary.ProductRepository;
+import com.ecommerce.application.util.CsvReader;
+
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Exported names and descriptions read back unchanged, whatever quotes, separators,
+ * line breaks or control characters they hold
+ */
+@SpringBootTest(properties = "catalog.export.chunk-size=2")
+@Transactional
+class ProductExportTests {
+
+	private static final String NAME = "Cable, \"braided\" \\ 2m";
+	private static final String DESCRIPTION = "Line one\nline two,\r\n\ttabbed \u0001 end";
+
+	@Autowired
+	private ProductExportService productExportService;
+
+	@Autowired
+	private CategoryRepository categoryRepository;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private JsonMapper jsonMapper;
+
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		Category category = categoryRepository.save(Category.builder().name("Category, " + System.nanoTime()).build());
+		product = productRepository.save(Product.builder()
+				.name(NAME)
+				.description(DESCRIPTION)
+				.price(new BigDecimal("12.50"))
+				.stock(3)
+				.category(category)
+				.build());
+	}
+
+	@Test
+	void ndjsonEscapesStrings() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		productExportService.exportProducts(out, ExportFormat.NDJSON);
+
+		String line = Arrays.stream(out.toString(StandardCharsets.UTF_8).split("\n"))
+				.filter(candidate -> candidate.startsWith("{\"id\":" + product.getId() + ","))
+				.findFirst()
+				.orElse(null);
+		assertNotNull(line);
+
+		Map<?, ?> row = jsonMapper.readValue(line, Map.class);
+		assertEquals(NAME, row.get("name"));
+		assertEquals(DESCRIPTION, row.get("description"));
+		assertEquals(product.getCategory().getName(), row.get("categoryName"));
+	}
+
+	@Test
+	void csvQuotesFieldsThatNeedIt() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		productExportService.exportProducts(out, ExportFormat.CSV);
+
+		CsvReader reader = new CsvReader(new StringReader(out.toString(StandardCharsets.UTF_8)));
+		List<String> header = reader.readRecord();
+		List<String> row;
+		do {
+			row = reader.readRecord();
+		} while (row != null && !row.get(0).equals(product.getId().toString()));
+		assertNotNull(row);
+
+		assertEquals(header.size(), row.size());
+		assertEquals(NAME, row.get(header.indexOf("name")));
+		assertEquals(DESCRIPTION, row.get(header.indexOf("description")));
+		assertEquals(product.getCategory().getName(), row.get(header.indexOf("categoryName")));
+	}
+}
@@ -0,0 +1,164 @@
+package com.ecommerce.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.dtos.BulkRowErrorDto;
+import com.ecommerce.application.entity.dtos.BulkUpsertResultDto;
+import com.ecommerce.application.entity.dtos.ProductUpsertDto;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.exception.BadRequestException;
+import com.ecommerce.application.repositary.ProductRepository;
+
+/**
+ * Bulk upserts report each bad row by number and still write every good row,
+ * including the good rows of a chunk that fails at the database
+ */
+@SpringBootTest(properties = "catalog.import.chunk-size=3")
+class ProductImportTests {
+
+	// over the column's precision of 10, so it passes validation and fails on insert
+	private static final BigDecimal TOO_LARGE_PRICE = new BigDecimal("1000000000");
+
+	@Autowired
+	private ProductImportService productImportService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	private Category category;
+
+	@BeforeEach
+	void setUp() {
+		category = testData.category();
+	}
+
+	@Test
+	void createsNewRowsAndUpdatesExistingOnes() {
+		Long existing = save("Old name");
+
+		BulkUpsertResultDto result = productImportService.upsertProducts(
+				List.of(row(existing, "New name", BigDecimal.ONE), row(null, "Fresh", BigDecimal.TEN)), Role.ADMIN);
+
+		assertEquals(1, result.getCreated());
+		assertEquals(1, result.getUpdated());
+		assertEquals(0, result.getFailed());
+		assertEquals("New name", productRepository.findById(existing).orElseThrow().getName());
+	}
+
+	@Test
+	void reportsEachInvalidRowAndWritesTheRest() {
+		Long existing = save("Twice");
+		ProductUpsertDto unknownCategory = row(null, "Lost", BigDecimal.TEN);
+		unknownCategory.setCategoryId(Long.MAX_VALUE);
+
+		BulkUpsertResultDto result = productImportService.upsertProducts(List.of(
+				row(null, "", BigDecimal.TEN),
+				unknownCategory,
+				row(Long.MAX_VALUE, "Ghost", BigDecimal.TEN),
+				row(existing, "Twice once", BigDecimal.TEN),
+				row(existing, "Twice again", BigDecimal.TEN),
+				row(null, "Good", BigDecimal.TEN)), Role.ADMIN);
+
+		assertEquals(1, result.getCreated());
+		assertEquals(1, result.getUpdated());
+		assertEquals(4, result.getFailed());
+		assertEquals(List.of(1, 2, 3, 5), result.getErrors().stream().map(BulkRowErrorDto::getRow).toList());
+		assertTrue(message(result, 2).contains("Category not found"), message(result, 2));
+		assertTrue(message(result, 3).contains("Product not found"), message(result, 3));
+		assertTrue(message(result, 5).contains("Duplicate id"), message(result, 5));
+		assertEquals("Twice once", productRepository.findById(existing).orElseThrow().getName());
+	}
+
+	@Test
+	void failingChunkIsRetriedRowByRow() {
+		BulkUpsertResultDto result = productImportService.upsertProducts(List.of(
+				row(null, "First " + category.getId(), BigDecimal.TEN),
+				row(null, "Broken " + category.getId(), TOO_LARGE_PRICE),
+				row(null, "Third " + category.getId(), BigDecimal.TEN)), Role.ADMIN);
+
+		assertEquals(2, result.getCreated());
+		assertEquals(1, result.getFailed());
+		assertEquals(2, result.getErrors().get(0).getRow());
+		assertTrue(message(result, 2).startsWith("Write failed"), message(result, 2));
+		assertEquals(2, productRepository.findAll().stream()
+				.filter(product -> product.getName().endsWith(" " + category.getId()))
+				.count());
+	}
+
+	@Test
+	void csvRowsAreNumberedAfterTheHeader() throws Exception {
+		String csv = "name,price,stock,categoryId\n"
+				+ "Cable,5,1," + category.getId() + "\n"
+				+ "Charger,cheap,1," + category.getId() + "\n";
+
+		BulkUpsertResultDto result = productImportService.upsertProductsCsv(input(csv), Role.ADMIN);
+
+		assertEquals(1, result.getCreated());
+		assertEquals(2, result.getErrors().get(0).getRow());
+	}
+
+	@Test
+	void csvWithByteOrderMarkKeepsIdColumn() throws Exception {
+		Long existing = save("Exported");
+		String csv = "\uFEFFid,name,price,stock,categoryId\n"
+				+ existing + ",Edited,5,1," + category.getId() + "\n";
+
+		BulkUpsertResultDto result = productImportService.upsertProductsCsv(input(csv), Role.ADMIN);
+
+		assertEquals(0, result.getCreated());
+		assertEquals(1, result.getUpdated());
+		assertEquals("Edited", productRepository.findById(existing).orElseThrow().getName());
+	}
+
+	@Test
+	void malformedCsvIsRejected() {
+		String csv = "name,price,stock,categoryId\n\"Cable,5,1," + category.getId() + "\n";
+
+		BadRequestException e = assertThrows(BadRequestException.class,
+				() -> productImportService.upsertProductsCsv(input(csv), Role.ADMIN));
+		assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+	}
+
+	private String message(BulkUpsertResultDto result, int row) {
+		return result.getErrors().stream()
+				.filter(error -> error.getRow() == row)
+				.map(BulkRowErrorDto::getMessage)
+				.findFirst()
+				.orElse("");
+	}
+
+	private ProductUpsertDto row(Long id, String name, BigDecimal price) {
+		return ProductUpsertDto.builder()
+				.id(id)
+				.name(name)
+				.price(price)
+				.stock(1)
+				.categoryId(category.getId())
+				.build();
+	}
+
+	private Long save(String name) {
+		return testData.product(category, name, 1).getId();
+	}
+
+	private ByteArrayInputStream input(String csv) {
+		return new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8));
+	}
+}
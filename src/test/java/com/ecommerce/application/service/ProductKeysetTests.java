@@ -0,0 +1,90 @@
+package com.ecommerce.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.dtos.CursorPageDto;
+import com.ecommerce.application.entity.dtos.ProductResponseDto;
+import com.ecommerce.application.exception.BadRequestException;
+
+/**
+ * Keyset pages walk the catalog once in sort order, including runs of equal names
+ * split across a page boundary
+ */
+@SpringBootTest
+class ProductKeysetTests {
+
+	private static final int LIMIT = 2;
+
+	@Autowired
+	private IProductService productService;
+
+	@Autowired
+	private TestData testData;
+
+	private Category category;
+	private List<Long> byName;
+
+	@BeforeEach
+	void setUp() {
+		category = testData.category();
+		// the three "Same" rows straddle the boundary between the first and second page
+		Long zulu = save("Zulu");
+		Long same1 = save("Same");
+		Long alpha = save("Alpha");
+		Long same2 = save("Same");
+		Long same3 = save("Same");
+		byName = List.of(alpha, same1, same2, same3, zulu);
+	}
+
+	@Test
+	void nameCursorWalksTiesAcrossPagesOnce() {
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			CursorPageDto<ProductResponseDto> page = productService.getProductsByCategory(
+					category.getId(), cursor, LIMIT, "name");
+			page.getItems().forEach(product -> seen.add(product.getId()));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertEquals(byName, seen);
+	}
+
+	@Test
+	void sparseNameCursorWalksTiesAcrossPagesOnce() {
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		do {
+			CursorPageDto<Map<String, Object>> page = productService.getProductFieldsPage(
+					category.getId(), cursor, LIMIT, "name", "id");
+			page.getItems().forEach(product -> seen.add((Long) product.get("id")));
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertEquals(byName, seen);
+	}
+
+	@Test
+	void cursorOfAnotherSortIsRejected() {
+		String idCursor = productService.getProductsByCategory(category.getId(), null, LIMIT, "id").getNextCursor();
+
+		assertThrows(BadRequestException.class,
+				() -> productService.getProductsByCategory(category.getId(), idCursor, LIMIT, "name"));
+	}
+
+	private Long save(String name) {
+		return testData.product(category, name, 1).getId();
+	}
+}
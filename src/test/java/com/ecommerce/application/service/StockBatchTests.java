@@ -0,0 +1,78 @@
+package com.ecommerce.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.exception.BadRequestException;
+import com.ecommerce.application.repositary.ProductRepository;
+
+/**
+ * A batched stock reduction takes every product or none: one short product rolls back
+ * the rows already decremented in the same batch
+ */
+@SpringBootTest
+class StockBatchTests {
+
+	private static final int STOCK = 5;
+
+	@Autowired
+	private IProductService productService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	private Product first;
+	private Product second;
+	private Product third;
+
+	@BeforeEach
+	void setUp() {
+		Category category = testData.category();
+		first = save(category, "First");
+		second = save(category, "Second");
+		third = save(category, "Third");
+	}
+
+	@Test
+	void batchTakesEveryProduct() {
+		productService.reduceStock(Map.of(first.getId(), 1, second.getId(), 2, third.getId(), STOCK));
+
+		assertEquals(STOCK - 1, stock(first));
+		assertEquals(STOCK - 2, stock(second));
+		assertEquals(0, stock(third));
+	}
+
+	@Test
+	void shortProductRollsBackWholeBatch() {
+		// the short product sorts between the other two, so one row is already updated when it fails
+		BadRequestException e = assertThrows(BadRequestException.class, () -> productService.reduceStock(
+				Map.of(first.getId(), 1, second.getId(), STOCK + 1, third.getId(), 1)));
+
+		assertTrue(e.getMessage().contains(second.getId().toString()), e.getMessage());
+		assertEquals(STOCK, stock(first));
+		assertEquals(STOCK, stock(second));
+		assertEquals(STOCK, stock(third));
+	}
+
+	private Product save(Category category, String name) {
+		return testData.product(category, name, STOCK);
+	}
+
+	private int stock(Product product) {
+		return productRepository.findById(product.getId()).orElseThrow().getStock();
+	}
+}
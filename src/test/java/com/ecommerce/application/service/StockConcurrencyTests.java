@@ -0,0 +1,85 @@
+package com.ecommerce.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Category;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.exception.BadRequestException;
+import com.ecommerce.application.repositary.ProductRepository;
+
+/**
+ * Hammers one product from many threads and checks that stock is never oversold
+ */
+@SpringBootTest
+class StockConcurrencyTests {
+
+	private static final int STOCK = 50;
+	private static final int THREADS = 16;
+	private static final int ATTEMPTS_PER_THREAD = 10;
+
+	@Autowired
+	private IProductService productService;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private TestData testData;
+
+	@Test
+	void concurrentReductionsNeverOversell() throws Exception {
+		Category category = testData.category();
+		Product product = productRepository.save(Product.builder()
+				.name("Last units")
+				.price(BigDecimal.ONE)
+				.stock(STOCK)
+				.category(category)
+				.build());
+
+		AtomicInteger succeeded = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+					try {
+						productService.reduceStock(product.getId(), 1);
+						succeeded.incrementAndGet();
+					} catch (BadRequestException e) {
+						rejected.incrementAndGet();
+					}
+				}
+				return null;
+			}));
+		}
+
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		assertEquals(STOCK, succeeded.get());
+		assertEquals(THREADS * ATTEMPTS_PER_THREAD - STOCK, rejected.get());
+		assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getStock());
+	}
+}
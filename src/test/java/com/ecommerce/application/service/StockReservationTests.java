@@ -0,0 +1,114 @@
+package com.ecommerce.application.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.ecommerce.application.TestData;
+import com.ecommerce.application.entity.Product;
+import com.ecommerce.application.entity.User;
+import com.ecommerce.application.entity.dtos.OrderRequestDto;
+import com.ecommerce.application.entity.dtos.OrderResponseDto;
+import com.ecommerce.application.entity.enums.OrderStatus;
+import com.ecommerce.application.entity.enums.Role;
+import com.ecommerce.application.exception.BadRequestException;
+import com.ecommerce.application.repositary.OrderRepository;
+import com.ecommerce.application.repositary.ProductRepository;
+
+/**
+ * CREATED orders hold stock for a short TTL; confirming keeps it, cancelling or
+ * expiry gives it back
+ */
+@SpringBootTest(properties = {
+		"orders.reservation.ttl-seconds=1",
+		"orders.reservation.tick-millis=100"
+})
+class StockReservationTests {
+
+	private static final int STOCK = 10;
+
+	@Autowired
+	private IOrderService orderService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private ProductRepository productRepository;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	private User user;
+	private Product product;
+
+	@BeforeEach
+	void setUp() {
+		user = testData.user();
+		product = testData.product("Product", STOCK);
+	}
+
+	@Test
+	void expiredHoldIsCancelledAndReleased() throws Exception {
+		OrderResponseDto order = placeOrder(3);
+		assertNotNull(order.getReservedUntil());
+		assertEquals(STOCK - 3, stock());
+
+		long deadline = System.currentTimeMillis() + 5_000;
+		while (status(order) == OrderStatus.CREATED && System.currentTimeMillis() < deadline) {
+			Thread.sleep(50);
+		}
+
+		assertEquals(OrderStatus.CANCELLED, status(order));
+		assertEquals(STOCK, stock());
+	}
+
+	@Test
+	void confirmedOrderKeepsItsStock() throws Exception {
+		OrderResponseDto order = placeOrder(3);
+		OrderResponseDto confirmed = orderService.updateOrderStatus(order.getId(), OrderStatus.CONFIRMED, Role.ADMIN);
+		assertNull(confirmed.getReservedUntil());
+
+		Thread.sleep(1_500);
+
+		assertEquals(OrderStatus.CONFIRMED, status(order));
+		assertEquals(STOCK - 3, stock());
+	}
+
+	@Test
+	void cancelledOrderReleasesStockOnce() {
+		OrderResponseDto order = placeOrder(3);
+		orderService.updateOrderStatus(order.getId(), OrderStatus.CANCELLED, Role.ADMIN);
+		orderService.updateOrderStatus(order.getId(), OrderStatus.CANCELLED, Role.ADMIN);
+
+		assertEquals(STOCK, stock());
+		assertThrows(BadRequestException.class,
+				() -> orderService.updateOrderStatus(order.getId(), OrderStatus.CONFIRMED, Role.ADMIN));
+	}
+
+	private OrderResponseDto placeOrder(int quantity) {
+		OrderRequestDto dto = OrderRequestDto.builder()
+				.items(List.of(OrderRequestDto.OrderItemRequestDto.builder()
+						.productId(product.getId())
+						.quantity(quantity)
+						.build()))
+				.build();
+		return orderService.createOrder(dto, user.getId(), user.getEmail(), Role.CUSTOMER);
+	}
+
+	private OrderStatus status(OrderResponseDto order) {
+		return orderRepository.findById(order.getId()).orElseThrow().getStatus();
+	}
+
+	private int stock() {
+		return productRepository.findById(product.getId()).orElseThrow().getStock();
+	}
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.application.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecommerce.application.exception.BadRequestException;
+
+class CsvReaderTests {
+
+	@Test
+	void readsPlainAndQuotedFields() throws IOException {
+		CsvReader reader = new CsvReader(new StringReader("id,name\r\n1,\"Case, \"\"slim\"\"\nfit\"\n2,\n"));
+
+		assertEquals(List.of("id", "name"), reader.readRecord());
+		assertEquals(List.of("1", "Case, \"slim\"\nfit"), reader.readRecord());
+		assertEquals(List.of("2", ""), reader.readRecord());
+		assertNull(reader.readRecord());
+	}
+
+	@Test
+	void readsWhatExportWriterWrites() throws IOException {
+		StringWriter out = new StringWriter();
+		ExportWriter.writeCsvField(out, "a,\"b\"");
+		out.write(',');
+		ExportWriter.writeCsvField(out, 42);
+
+		assertEquals(List.of("a,\"b\"", "42"), new CsvReader(new StringReader(out.toString())).readRecord());
+	}
+
+	@Test
+	void unterminatedQuoteNamesItsLine() throws IOException {
+		CsvReader reader = new CsvReader(new StringReader("id,name\r\n1,\"two\nlines\"\n2,\"open\n"));
+
+		reader.readRecord();
+		reader.readRecord();
+		BadRequestException e = assertThrows(BadRequestException.class, reader::readRecord);
+		assertTrue(e.getMessage().contains("line 4"), e.getMessage());
+	}
+}
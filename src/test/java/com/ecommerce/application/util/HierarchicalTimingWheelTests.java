@@ -0,0 +1,59 @@
+package com.ecommerce.application.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimingWheelTests {
+
+	private static final long TICK = 10;
+	private static final long STEP = 7;
+
+	@Test
+	void firesEveryIdOnceWithinOneTickAfterItsDeadline() {
+		// a small wheel, so deadlines spread over several levels
+		HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, 4, 1_000);
+		Map<Long, Long> deadlines = new HashMap<>();
+		Map<Long, Long> firedAt = new HashMap<>();
+		Random random = new Random(42);
+		for (long id = 0; id < 2_000; id++) {
+			long deadline = 1_000 + random.nextInt(5_000);
+			deadlines.put(id, deadline);
+			wheel.schedule(id, deadline);
+		}
+		assertEquals(deadlines.size(), wheel.size());
+
+		for (long now = 1_000; now <= 6_100; now += STEP) {
+			long time = now;
+			wheel.advance(now, id -> assertNull(firedAt.put(id, time), "fired twice: " + id));
+		}
+
+		assertEquals(deadlines.size(), firedAt.size());
+		assertEquals(0, wheel.size());
+		deadlines.forEach((id, deadline) -> {
+			long fired = firedAt.get(id);
+			assertTrue(fired >= deadline, id + " fired early at " + fired + ", deadline " + deadline);
+			assertTrue(fired <= deadline + TICK + STEP, id + " fired late at " + fired + ", deadline " + deadline);
+		});
+	}
+
+	@Test
+	void passedDeadlineFiresOnNextTick() {
+		HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(TICK, 4, 1_000);
+		wheel.advance(1_500, id -> {
+		});
+		wheel.schedule(7, 100);
+
+		Map<Long, Long> fired = new HashMap<>();
+		wheel.advance(1_505, id -> fired.put(id, 1_505L));
+		assertTrue(fired.isEmpty());
+		wheel.advance(1_510, id -> fired.put(id, 1_510L));
+		assertEquals(Map.of(7L, 1_510L), fired);
+	}
+}
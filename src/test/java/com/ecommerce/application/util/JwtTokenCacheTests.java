@@ -0,0 +1,129 @@
+package com.ecommerce.application.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecommerce.application.entity.enums.Role;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtTokenCacheTests {
+
+	private static final String SECRET = "test-secret-key-for-jwt-token-generation-at-least-32-characters";
+
+	private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void repeatedTokenIsServedFromCache() {
+		JwtTokenCache cache = new JwtTokenCache(jwtUtil, meterRegistry, 100);
+		String token = jwtUtil.generateToken("user@example.com", 7L, Role.CUSTOMER);
+
+		assertTrue(cache.resolve(token).isPresent());
+		assertTrue(cache.resolve(token).isPresent());
+		assertTrue(cache.resolve(token).isPresent());
+
+		assertEquals(2.0, meterRegistry.get("jwt.cache.requests").tag("result", "hit").counter().count());
+		assertEquals(1.0, meterRegistry.get("jwt.cache.requests").tag("result", "miss").counter().count());
+	}
+
+	@Test
+	void invalidAndExpiredTokensAreNeverCached() {
+		JwtTokenCache cache = new JwtTokenCache(jwtUtil, meterRegistry, 100);
+		String expired = new JwtUtil(SECRET, -1_000).generateToken("user@example.com", 7L, Role.CUSTOMER);
+
+		assertFalse(cache.resolve(expired).isPresent());
+		assertFalse(cache.resolve("not-a-jwt").isPresent());
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	void cacheStaysWithinMaxSize() {
+		JwtTokenCache cache = new JwtTokenCache(jwtUtil, meterRegistry, 3);
+
+		for (long id = 1; id <= 10; id++) {
+			cache.resolve(jwtUtil.generateToken("user" + id + "@example.com", id, Role.CUSTOMER));
+		}
+
+		assertTrue(cache.size() <= 3);
+		assertTrue(meterRegistry.get("jwt.cache.evictions").counter().count() >= 7);
+	}
+
+	@Test
+	void tokenIsEvictedAtExpiryWithoutFurtherLookups() throws InterruptedException {
+		JwtTokenCache cache = new JwtTokenCache(jwtUtil, meterRegistry, 100);
+		JwtUtil shortLived = new JwtUtil(SECRET, 2_000);
+		try {
+			assertTrue(cache.resolve(shortLived.generateToken("user@example.com", 7L, Role.CUSTOMER)).isPresent());
+			cache.resolve(jwtUtil.generateToken("other@example.com", 8L, Role.CUSTOMER));
+			assertEquals(2, cache.size());
+
+			long deadline = System.currentTimeMillis() + 5_000;
+			while (cache.size() > 1 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(50);
+			}
+
+			assertEquals(1, cache.size());
+			assertEquals(1.0, meterRegistry.get("jwt.cache.evictions").counter().count());
+		} finally {
+			cache.shutdown();
+		}
+	}
+
+	@Test
+	void concurrentInsertsNeverExceedMaxSize() throws Exception {
+		int maxSize = 20;
+		JwtTokenCache cache = new JwtTokenCache(jwtUtil, meterRegistry, maxSize);
+		List<String> tokens = new ArrayList<>();
+		for (long id = 1; id <= 800; id++) {
+			tokens.add(jwtUtil.generateToken("user" + id + "@example.com", id, Role.CUSTOMER));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicBoolean running = new AtomicBoolean(true);
+		AtomicInteger largest = new AtomicInteger();
+		try {
+			Future<?> sampler = executor.submit(() -> {
+				while (running.get()) {
+					largest.accumulateAndGet(cache.size(), Math::max);
+				}
+			});
+			List<Future<?>> writers = new ArrayList<>();
+			for (int thread = 0; thread < 7; thread++) {
+				int offset = thread;
+				writers.add(executor.submit(() -> {
+					start.await();
+					for (int i = offset; i < tokens.size(); i += 7) {
+						cache.resolve(tokens.get(i));
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> writer : writers) {
+				writer.get();
+			}
+			running.set(false);
+			sampler.get();
+		} finally {
+			executor.shutdownNow();
+			cache.shutdown();
+		}
+
+		assertTrue(largest.get() <= maxSize, "cache grew to " + largest.get());
+		assertEquals(maxSize, cache.size());
+	}
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.application.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.ecommerce.application.entity.enums.Role;
+
+class JwtUtilTests {
+
+	private static final String SECRET = "test-secret-key-for-jwt-token-generation-at-least-32-characters";
+
+	private final JwtUtil jwtUtil = new JwtUtil(SECRET, 60_000);
+
+	@Test
+	void parseTokenReturnsAllClaims() {
+		String token = jwtUtil.generateToken("user@example.com", 42L, Role.CUSTOMER);
+
+		Optional<JwtClaims> claims = jwtUtil.parseToken(token);
+
+		assertTrue(claims.isPresent());
+		assertEquals("user@example.com", claims.get().email());
+		assertEquals(42L, claims.get().userId());
+		assertEquals(Role.CUSTOMER, claims.get().role());
+	}
+
+	@Test
+	void parseTokenRejectsForeignSignature() {
+		JwtUtil other = new JwtUtil("another-secret-key-for-jwt-token-generation-at-least-32-chars", 60_000);
+		String token = other.generateToken("user@example.com", 42L, Role.ADMIN);
+
+		assertFalse(jwtUtil.parseToken(token).isPresent());
+	}
+
+	@Test
+	void parseTokenRejectsExpiredToken() {
+		JwtUtil expired = new JwtUtil(SECRET, -1_000);
+		String token = expired.generateToken("user@example.com", 42L, Role.CUSTOMER);
+
+		assertFalse(jwtUtil.parseToken(token).isPresent());
+	}
+}